@@ -1,13 +1,17 @@
 package com.ecommerce.auth;
 
+import com.ecommerce.common.web.SparseFieldsetResponseBodyAdvice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 
 @SpringBootApplication
 @EnableDiscoveryClient
-@ComponentScan(basePackages = {"com.ecommerce"})
+// common-lib's exception handler is wanted, its opt-in sparse fieldset advice is not
+@ComponentScan(basePackages = {"com.ecommerce"}, excludeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE, classes = SparseFieldsetResponseBodyAdvice.class))
 public class AuthServiceApplication {
 
     public static void main(String[] args) {
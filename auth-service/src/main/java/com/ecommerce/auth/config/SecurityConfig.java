@@ -9,14 +9,23 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 
+import com.ecommerce.common.security.RoleHeaderFilter;
+
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public RoleHeaderFilter roleHeaderFilter() {
+        return new RoleHeaderFilter();
+    }
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   RoleHeaderFilter roleHeaderFilter) throws Exception {
 
         return http
                 // disable csrf
@@ -31,6 +40,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/auth/validate").permitAll()
 
+                        // admin provisioning, roles forwarded by the gateway
+                        .requestMatchers("/api/auth/admin/**").hasRole("ADMIN")
+
                         // swagger
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
 
@@ -40,6 +52,8 @@ public class SecurityConfig {
                         // everything else secured
                         .anyRequest().authenticated()
                 )
+                // X-User-Roles header from the gateway
+                .addFilterBefore(roleHeaderFilter, UsernamePasswordAuthenticationFilter.class)
                 // disable default spring login page
                 .httpBasic(AbstractHttpConfigurer::disable)
                 .formLogin(AbstractHttpConfigurer::disable)
@@ -0,0 +1,48 @@
+package com.ecommerce.auth.controller;
+
+import com.ecommerce.auth.dto.BulkUserImportResponseDTO;
+import com.ecommerce.auth.service.UserProvisioningService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/auth/admin/users")
+@RequiredArgsConstructor
+@Tag(name = "User Provisioning", description = "Admin APIs for bulk account creation")
+public class UserProvisioningController {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final UserProvisioningService userProvisioningService;
+
+    @PostMapping(value = "/bulk", consumes = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk import users",
+            description = "Stream one registration record per line (NDJSON). Invalid or duplicate records are "
+                    + "reported per line and skipped; the rest are created. Admin only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed",
+                    content = @Content(schema = @Schema(implementation = BulkUserImportResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<BulkUserImportResponseDTO> bulkImport(InputStream body) {
+        log.info("Bulk user import request received");
+        BulkUserImportResponseDTO response = userProvisioningService.importUsers(body);
+        return ResponseEntity.ok(response);
+    }
+}
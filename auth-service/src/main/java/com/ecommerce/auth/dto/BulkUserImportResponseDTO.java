@@ -0,0 +1,25 @@
+package com.ecommerce.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkUserImportResponseDTO {
+
+    private long totalRecords;
+    private long createdCount;
+    private long failedCount;
+
+    /**
+     * Per-record failures, capped so a bad file cannot grow the response without bound
+     */
+    private List<BulkUserImportErrorDTO> errors;
+    private boolean errorsTruncated;
+}
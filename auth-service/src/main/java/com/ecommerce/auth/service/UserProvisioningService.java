@@ -0,0 +1,14 @@
+package com.ecommerce.auth.service;
+
+import com.ecommerce.auth.dto.BulkUserImportResponseDTO;
+
+import java.io.InputStream;
+
+public interface UserProvisioningService {
+
+    /**
+     * Import users from an NDJSON stream (one RegisterRequestDTO per line).
+     * Invalid or duplicate records are reported and skipped, the rest are created.
+     */
+    BulkUserImportResponseDTO importUsers(InputStream ndjson);
+}
@@ -8,11 +8,13 @@ import com.ecommerce.auth.entity.User;
 import com.ecommerce.auth.entity.UserRole;
 import com.ecommerce.auth.repository.UserRepository;
 import com.ecommerce.auth.service.AuthService;
+import com.ecommerce.auth.util.DuplicateUserErrors;
 import com.ecommerce.auth.util.JwtUtil;
 import com.ecommerce.common.exception.BusinessException;
 import com.ecommerce.common.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,14 +37,6 @@ public class AuthServiceImpl implements AuthService {
 
         log.info("Register request username={}", dto.getUsername());
 
-        if (userRepository.existsByUsername(dto.getUsername())) {
-            throw new BusinessException("Username already exists");
-        }
-
-        if (userRepository.existsByEmail(dto.getEmail())) {
-            throw new BusinessException("Email already exists");
-        }
-
         User user = new User();
         user.setUsername(dto.getUsername());
         user.setEmail(dto.getEmail());
@@ -50,7 +44,12 @@ public class AuthServiceImpl implements AuthService {
         user.setRole(UserRole.USER);
         user.setEnabled(true);
 
-        user = userRepository.save(user);
+        // single INSERT; uniqueness is enforced by idx_username / idx_email
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw toDuplicateUserException(ex);
+        }
 
         String token = jwtUtil.generateToken(user);
 
@@ -133,4 +132,21 @@ public class AuthServiceImpl implements AuthService {
             return response;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Map a unique index violation on users back to the business error
+     * the pre-check queries used to raise.
+     */
+    private BusinessException toDuplicateUserException(DataIntegrityViolationException ex) {
+
+        String message = DuplicateUserErrors.resolveMessage(ex);
+
+        if (DuplicateUserErrors.USER_EXISTS.equals(message)) {
+            log.error("Registration failed on unknown constraint: {}", ex.getMostSpecificCause().getMessage());
+        } else {
+            log.warn("Registration rejected: {}", message);
+        }
+
+        return new BusinessException(message, ex);
+    }
+}
@@ -0,0 +1,320 @@
+package com.ecommerce.auth.service.impl;
+
+import com.ecommerce.auth.dto.BulkUserImportErrorDTO;
+import com.ecommerce.auth.dto.BulkUserImportResponseDTO;
+import com.ecommerce.auth.dto.RegisterRequestDTO;
+import com.ecommerce.auth.entity.UserRole;
+import com.ecommerce.auth.service.UserProvisioningService;
+import com.ecommerce.auth.util.DuplicateUserErrors;
+import com.ecommerce.common.exception.BusinessException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class UserProvisioningServiceImpl implements UserProvisioningService {
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, password, email, role, enabled, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String EXISTING_USERS_SQL =
+            "SELECT username, email FROM users WHERE username IN (:usernames) OR email IN (:emails)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final ExecutorService hashingExecutor;
+
+    public UserProvisioningServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            PasswordEncoder passwordEncoder,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${app.bulk-import.batch-size:500}") int batchSize,
+            @Value("${app.bulk-import.max-reported-errors:1000}") int maxReportedErrors,
+            @Value("${app.bulk-import.hash-threads:0}") int hashThreads
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+
+        // BCrypt is CPU bound, so one hashing thread per core unless configured otherwise
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.hashingExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-import-hash-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingExecutor.shutdownNow();
+    }
+
+    @Override
+    public BulkUserImportResponseDTO importUsers(InputStream ndjson) {
+
+        log.info("Bulk user import started batchSize={}", batchSize);
+
+        ImportResult result = new ImportResult(maxReportedErrors);
+        List<PendingUser> chunk = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                result.total++;
+
+                RegisterRequestDTO dto = parse(line, lineNumber, result);
+                if (dto != null) {
+                    chunk.add(new PendingUser(lineNumber, dto));
+                }
+
+                if (chunk.size() >= batchSize) {
+                    flush(chunk, result);
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                flush(chunk, result);
+            }
+
+        } catch (IOException ex) {
+            throw new BusinessException("Failed to read import stream", ex);
+        }
+
+        log.info("Bulk user import finished total={} created={} failed={}",
+                result.total, result.created, result.failed);
+
+        return result.toResponse();
+    }
+
+    private RegisterRequestDTO parse(String line, long lineNumber, ImportResult result) {
+
+        RegisterRequestDTO dto;
+        try {
+            dto = objectMapper.readValue(line, RegisterRequestDTO.class);
+        } catch (JsonProcessingException ex) {
+            result.fail(lineNumber, null, "Malformed JSON record");
+            return null;
+        }
+
+        Set<ConstraintViolation<RegisterRequestDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            result.fail(lineNumber, dto.getUsername(), message);
+            return null;
+        }
+
+        return dto;
+    }
+
+    private void flush(List<PendingUser> chunk, ImportResult result) {
+
+        List<PendingUser> candidates = rejectDuplicates(chunk, result);
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        hashPasswords(candidates);
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_USER_SQL, candidates, candidates.size(), (ps, user) -> {
+                        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                        ps.setString(1, user.request.getUsername());
+                        ps.setString(2, user.encodedPassword);
+                        ps.setString(3, user.request.getEmail());
+                        ps.setString(4, UserRole.USER.name());
+                        ps.setBoolean(5, true);
+                        ps.setTimestamp(6, now);
+                        ps.setTimestamp(7, now);
+                    }));
+            result.created += candidates.size();
+
+        } catch (DataIntegrityViolationException ex) {
+            // a concurrent registration won the race for one of the rows; isolate it
+            log.warn("Batch insert of {} users hit a constraint, retrying row by row", candidates.size());
+            insertIndividually(candidates, result);
+        }
+    }
+
+    /**
+     * Drop records that collide with each other in the chunk or with existing users,
+     * so a single conflict does not abort the whole batch.
+     */
+    private List<PendingUser> rejectDuplicates(List<PendingUser> chunk, ImportResult result) {
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("usernames", chunk.stream().map(u -> u.request.getUsername()).toList())
+                .addValue("emails", chunk.stream().map(u -> u.request.getEmail()).toList());
+
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+
+        namedParameterJdbcTemplate.query(EXISTING_USERS_SQL, params, rs -> {
+            takenUsernames.add(rs.getString("username"));
+            takenEmails.add(rs.getString("email"));
+        });
+
+        List<PendingUser> candidates = new ArrayList<>(chunk.size());
+
+        for (PendingUser user : chunk) {
+            if (!takenUsernames.add(user.request.getUsername())) {
+                result.fail(user.line, user.request.getUsername(), DuplicateUserErrors.USERNAME_EXISTS);
+            } else if (!takenEmails.add(user.request.getEmail())) {
+                result.fail(user.line, user.request.getUsername(), DuplicateUserErrors.EMAIL_EXISTS);
+            } else {
+                candidates.add(user);
+            }
+        }
+
+        return candidates;
+    }
+
+    private void hashPasswords(List<PendingUser> users) {
+
+        List<Callable<String>> tasks = users.stream()
+                .<Callable<String>>map(user -> () -> passwordEncoder.encode(user.request.getPassword()))
+                .toList();
+
+        try {
+            List<Future<String>> hashes = hashingExecutor.invokeAll(tasks);
+            for (int i = 0; i < users.size(); i++) {
+                users.get(i).encodedPassword = hashes.get(i).get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Bulk import interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new BusinessException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    private void insertIndividually(List<PendingUser> users, ImportResult result) {
+
+        for (PendingUser user : users) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.update(INSERT_USER_SQL,
+                                user.request.getUsername(),
+                                user.encodedPassword,
+                                user.request.getEmail(),
+                                UserRole.USER.name(),
+                                true,
+                                now,
+                                now));
+                result.created++;
+            } catch (DataIntegrityViolationException ex) {
+                result.fail(user.line, user.request.getUsername(), DuplicateUserErrors.resolveMessage(ex));
+            }
+        }
+    }
+
+    private static final class PendingUser {
+
+        private final long line;
+        private final RegisterRequestDTO request;
+        private String encodedPassword;
+
+        private PendingUser(long line, RegisterRequestDTO request) {
+            this.line = line;
+            this.request = request;
+        }
+    }
+
+    private static final class ImportResult {
+
+        private final int maxReportedErrors;
+        private final List<BulkUserImportErrorDTO> errors = new ArrayList<>();
+
+        private long total;
+        private long created;
+        private long failed;
+
+        private ImportResult(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(long line, String username, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(BulkUserImportErrorDTO.builder()
+                        .line(line)
+                        .username(username)
+                        .message(message)
+                        .build());
+            }
+        }
+
+        private BulkUserImportResponseDTO toResponse() {
+            return BulkUserImportResponseDTO.builder()
+                    .totalRecords(total)
+                    .createdCount(created)
+                    .failedCount(failed)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+    }
+}
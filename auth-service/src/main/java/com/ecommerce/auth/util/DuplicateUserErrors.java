@@ -0,0 +1,53 @@
+package com.ecommerce.auth.util;
+
+import lombok.experimental.UtilityClass;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@UtilityClass
+public class DuplicateUserErrors {
+
+    public static final String USERNAME_EXISTS = "Username already exists";
+    public static final String EMAIL_EXISTS = "Email already exists";
+    public static final String USER_EXISTS = "User already exists";
+
+    private static final Pattern CONSTRAINT_COLUMN = Pattern.compile("(username|email)");
+    private static final Pattern MESSAGE_COLUMN = Pattern.compile("\\(\\s*(username|email)\\b");
+
+    /**
+     * Resolve a unique index violation on users to the business error message.
+     * Named indexes (idx_username, users_email_key) identify the column directly,
+     * otherwise the key column is read from the driver message, e.g. "Key (email)=(...)".
+     */
+    public static String resolveMessage(DataIntegrityViolationException ex) {
+
+        String column = null;
+
+        if (ex.getCause() instanceof ConstraintViolationException constraintViolation
+                && constraintViolation.getConstraintName() != null) {
+            column = firstGroup(CONSTRAINT_COLUMN, constraintViolation.getConstraintName());
+        }
+
+        String message = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+        if (column == null && message != null) {
+            column = firstGroup(MESSAGE_COLUMN, message);
+        }
+
+        if ("username".equals(column)) {
+            return USERNAME_EXISTS;
+        }
+        if ("email".equals(column)) {
+            return EMAIL_EXISTS;
+        }
+        return USER_EXISTS;
+    }
+
+    private static String firstGroup(Pattern pattern, String value) {
+        Matcher matcher = pattern.matcher(value.toLowerCase());
+        return matcher.find() ? matcher.group(1) : null;
+    }
+}
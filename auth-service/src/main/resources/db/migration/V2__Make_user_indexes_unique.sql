@@ -0,0 +1,10 @@
+-- Registration inserts directly and relies on these indexes to reject
+-- duplicates, so make them the single unique index per column.
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_username_key;
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_email_key;
+
+DROP INDEX IF EXISTS idx_username;
+DROP INDEX IF EXISTS idx_email;
+
+CREATE UNIQUE INDEX idx_username ON users(username);
+CREATE UNIQUE INDEX idx_email ON users(email);
@@ -0,0 +1,129 @@
+package com.ecommerce.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import com.ecommerce.auth.dto.RegisterRequestDTO;
+import com.ecommerce.auth.repository.UserRepository;
+import com.ecommerce.auth.service.AuthService;
+import com.ecommerce.common.exception.BusinessException;
+
+/**
+ * Not transactional on purpose: every registration has to commit on its own
+ * so the unique indexes arbitrate between the racing threads.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:concurrentdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+@DisplayName("Concurrent Registration Test Suite")
+class ConcurrentRegistrationIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final String PASSWORD = "SecurePass@123";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("shouldRegisterExactlyOnce_whenSameUsernameRacesConcurrently")
+    void shouldRegisterExactlyOnce_whenSameUsernameRacesConcurrently() throws Exception {
+        List<String> outcomes = race(i -> RegisterRequestDTO.builder()
+                .username("Racing_User")
+                .email("racer" + i + "@example.com")
+                .password(PASSWORD)
+                .build());
+
+        assertEquals(1, outcomes.stream().filter("OK"::equals).count());
+        assertEquals(THREADS - 1, outcomes.stream().filter("Username already exists"::equals).count());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    @DisplayName("shouldRegisterExactlyOnce_whenSameEmailRacesConcurrently")
+    void shouldRegisterExactlyOnce_whenSameEmailRacesConcurrently() throws Exception {
+        List<String> outcomes = race(i -> RegisterRequestDTO.builder()
+                .username("Racer_" + i)
+                .email("shared@example.com")
+                .password(PASSWORD)
+                .build());
+
+        assertEquals(1, outcomes.stream().filter("OK"::equals).count());
+        assertEquals(THREADS - 1, outcomes.stream().filter("Email already exists"::equals).count());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    @DisplayName("shouldRegisterAll_whenUsersAreDistinct")
+    void shouldRegisterAll_whenUsersAreDistinct() throws Exception {
+        List<String> outcomes = race(i -> RegisterRequestDTO.builder()
+                .username("Distinct_" + i)
+                .email("distinct" + i + "@example.com")
+                .password(PASSWORD)
+                .build());
+
+        assertTrue(outcomes.stream().allMatch("OK"::equals));
+        assertEquals(THREADS, userRepository.count());
+    }
+
+    /**
+     * Release all registrations at once and collect "OK" or the business error message per thread.
+     */
+    private List<String> race(java.util.function.IntFunction<RegisterRequestDTO> requestFactory) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                RegisterRequestDTO request = requestFactory.apply(i);
+                Callable<String> task = () -> {
+                    start.await();
+                    try {
+                        authService.register(request);
+                        return "OK";
+                    } catch (BusinessException ex) {
+                        return ex.getMessage();
+                    }
+                };
+                futures.add(executor.submit(task));
+            }
+
+            start.countDown();
+
+            List<String> outcomes = new ArrayList<>();
+            for (Future<String> future : futures) {
+                outcomes.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
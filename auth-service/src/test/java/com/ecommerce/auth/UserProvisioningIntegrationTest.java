@@ -0,0 +1,183 @@
+package com.ecommerce.auth;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.ecommerce.auth.controller.UserProvisioningController;
+import com.ecommerce.auth.dto.BulkUserImportErrorDTO;
+import com.ecommerce.auth.dto.BulkUserImportResponseDTO;
+import com.ecommerce.auth.entity.User;
+import com.ecommerce.auth.repository.UserRepository;
+import com.ecommerce.auth.service.UserProvisioningService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:provisioningdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "app.bulk-import.batch-size=2",
+        "app.bulk-import.max-reported-errors=3"
+})
+@DisplayName("User Provisioning Integration Test Suite")
+class UserProvisioningIntegrationTest {
+
+    private static final String BULK_ENDPOINT = "/api/auth/admin/users/bulk";
+    private static final String PASSWORD = "SecurePass@123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Nested
+    @DisplayName("Import Service Tests")
+    class ImportServiceTests {
+
+        @Test
+        @DisplayName("shouldCreateAllUsers_acrossMultipleBatches")
+        void shouldCreateAllUsers_acrossMultipleBatches() {
+            BulkUserImportResponseDTO response = importLines(
+                    record("Bulk_One", "one@example.com"),
+                    record("Bulk_Two", "two@example.com"),
+                    "",
+                    record("Bulk_Three", "three@example.com"));
+
+            assertEquals(3, response.getTotalRecords());
+            assertEquals(3, response.getCreatedCount());
+            assertEquals(0, response.getFailedCount());
+            assertEquals(3, userRepository.count());
+
+            User user = userRepository.findByUsername("Bulk_Three").orElseThrow();
+            assertTrue(passwordEncoder.matches(PASSWORD, user.getPassword()));
+            assertTrue(user.getEnabled());
+        }
+
+        @Test
+        @DisplayName("shouldReportPerRecordErrors_withoutAbortingTheImport")
+        void shouldReportPerRecordErrors_withoutAbortingTheImport() {
+            userRepository.saveAndFlush(User.builder()
+                    .username("Existing_User")
+                    .email("existing@example.com")
+                    .password("hash")
+                    .role(com.ecommerce.auth.entity.UserRole.USER)
+                    .enabled(true)
+                    .build());
+
+            BulkUserImportResponseDTO response = importLines(
+                    record("Fresh_User", "fresh@example.com"),
+                    "{not json",
+                    record("Existing_User", "other@example.com"),
+                    record("Other_User", "existing@example.com"),
+                    "{\"username\":\"Short_Pw\",\"email\":\"short@example.com\",\"password\":\"x\"}",
+                    record("Fresh_User", "fresh2@example.com"));
+
+            assertEquals(6, response.getTotalRecords());
+            assertEquals(1, response.getCreatedCount());
+            assertEquals(5, response.getFailedCount());
+            assertEquals(2, userRepository.count());
+
+            // capped at max-reported-errors; every reported line carries its own reason
+            Map<Long, String> expected = Map.of(
+                    2L, "Malformed JSON record",
+                    3L, "Username already exists",
+                    4L, "Email already exists",
+                    5L, "Password must be at least 6 characters",
+                    6L, "Username already exists");
+            assertTrue(response.isErrorsTruncated());
+            assertEquals(3, response.getErrors().size());
+            for (BulkUserImportErrorDTO error : response.getErrors()) {
+                assertEquals(expected.get(error.getLine()), error.getMessage());
+            }
+        }
+
+        @Test
+        @DisplayName("shouldRejectDuplicatesWithinTheSameStream")
+        void shouldRejectDuplicatesWithinTheSameStream() {
+            BulkUserImportResponseDTO response = importLines(
+                    record("Same_User", "same1@example.com"),
+                    record("Same_User", "same2@example.com"),
+                    record("Same_User", "same3@example.com"));
+
+            assertEquals(1, response.getCreatedCount());
+            assertEquals(2, response.getFailedCount());
+            assertFalse(response.isErrorsTruncated());
+            assertTrue(response.getErrors().stream()
+                    .allMatch(error -> "Username already exists".equals(error.getMessage())));
+        }
+    }
+
+    @Nested
+    @DisplayName("Endpoint Security Tests")
+    class EndpointSecurityTests {
+
+        @Test
+        @DisplayName("shouldImportUsers_whenCallerIsAdmin")
+        void shouldImportUsers_whenCallerIsAdmin() throws Exception {
+            mockMvc.perform(post(BULK_ENDPOINT)
+                    .header("X-User-Id", "1")
+                    .header("X-User-Roles", "ADMIN")
+                    .contentType(UserProvisioningController.NDJSON)
+                    .content(record("Admin_Import", "admin.import@example.com") + "\n"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.createdCount", equalTo(1)))
+                    .andExpect(jsonPath("$.errors", hasSize(0)));
+        }
+
+        @Test
+        @DisplayName("shouldRejectImport_whenCallerIsNotAdmin")
+        void shouldRejectImport_whenCallerIsNotAdmin() throws Exception {
+            mockMvc.perform(post(BULK_ENDPOINT)
+                    .header("X-User-Id", "2")
+                    .header("X-User-Roles", "USER")
+                    .contentType(UserProvisioningController.NDJSON)
+                    .content(record("User_Import", "user.import@example.com") + "\n"))
+                    .andExpect(status().isForbidden());
+
+            assertEquals(0, userRepository.count());
+        }
+    }
+
+    private BulkUserImportResponseDTO importLines(String... lines) {
+        byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return userProvisioningService.importUsers(new ByteArrayInputStream(body));
+    }
+
+    private static String record(String username, String email) {
+        return "{\"username\":\"" + username + "\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+}
@@ -26,6 +26,7 @@ import com.ecommerce.auth.dto.RegisterRequestDTO;
 import com.ecommerce.auth.dto.TokenValidationResponseDTO;
 import com.ecommerce.auth.entity.UserRole;
 import com.ecommerce.auth.service.AuthService;
+import com.ecommerce.auth.service.UserProvisioningService;
 import com.ecommerce.common.exception.BusinessException;
 import com.ecommerce.common.exception.ResourceNotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -43,6 +44,10 @@ class AuthControllerTest {
     @org.springframework.boot.test.mock.mockito.MockBean
     private AuthService authService;
 
+    // picked up by the application's explicit component scan
+    @org.springframework.boot.test.mock.mockito.MockBean
+    private UserProvisioningService userProvisioningService;
+
     // Test Constants
     private static final String BASE_URL = "/api/auth";
     private static final String REGISTER_ENDPOINT = BASE_URL + "/register";
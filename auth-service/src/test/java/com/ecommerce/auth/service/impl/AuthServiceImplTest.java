@@ -1,5 +1,6 @@
 package com.ecommerce.auth.service.impl;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -8,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -22,6 +24,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.ecommerce.auth.dto.AuthResponseDTO;
@@ -96,10 +99,8 @@ class AuthServiceImplTest {
         @DisplayName("shouldSuccessfullyRegisterUser_whenValidRequestProvided")
         void shouldSuccessfullyRegisterUser_whenValidRequestProvided() {
             // Arrange
-            when(userRepository.existsByUsername(TEST_USERNAME)).thenReturn(false);
-            when(userRepository.existsByEmail(TEST_EMAIL)).thenReturn(false);
             when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
-            when(userRepository.save(any(User.class))).thenReturn(testUser);
+            when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
             when(jwtUtil.generateToken(testUser)).thenReturn(TEST_TOKEN);
 
             // Act
@@ -114,10 +115,10 @@ class AuthServiceImplTest {
             assertEquals(TEST_TOKEN, response.getToken());
             assertEquals("User registered successfully", response.getMessage());
 
-            verify(userRepository, times(1)).existsByUsername(TEST_USERNAME);
-            verify(userRepository, times(1)).existsByEmail(TEST_EMAIL);
+            verify(userRepository, never()).existsByUsername(any());
+            verify(userRepository, never()).existsByEmail(any());
             verify(passwordEncoder, times(1)).encode(TEST_PASSWORD);
-            verify(userRepository, times(1)).save(any(User.class));
+            verify(userRepository, times(1)).saveAndFlush(any(User.class));
             verify(jwtUtil, times(1)).generateToken(testUser);
         }
 
@@ -125,17 +126,18 @@ class AuthServiceImplTest {
         @DisplayName("shouldThrowException_whenUsernameAlreadyExists")
         void shouldThrowException_whenUsernameAlreadyExists() {
             // Arrange
-            when(userRepository.existsByUsername(TEST_USERNAME)).thenReturn(true);
+            when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
+            when(userRepository.saveAndFlush(any(User.class)))
+                    .thenThrow(uniqueViolation("idx_username", "Key (username)=(" + TEST_USERNAME + ") already exists."));
 
             // Act & Assert
             BusinessException exception = assertThrows(BusinessException.class, () ->
                     authService.register(registerRequestDTO));
 
             assertEquals("Username already exists", exception.getMessage());
-            verify(userRepository, times(1)).existsByUsername(TEST_USERNAME);
+            verify(userRepository, never()).existsByUsername(any());
             verify(userRepository, never()).existsByEmail(any());
-            verify(passwordEncoder, never()).encode(any());
-            verify(userRepository, never()).save(any(User.class));
+            verify(userRepository, times(1)).saveAndFlush(any(User.class));
             verify(jwtUtil, never()).generateToken(any());
         }
 
@@ -143,29 +145,43 @@ class AuthServiceImplTest {
         @DisplayName("shouldThrowException_whenEmailAlreadyExists")
         void shouldThrowException_whenEmailAlreadyExists() {
             // Arrange
-            when(userRepository.existsByUsername(TEST_USERNAME)).thenReturn(false);
-            when(userRepository.existsByEmail(TEST_EMAIL)).thenReturn(true);
+            when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
+            when(userRepository.saveAndFlush(any(User.class)))
+                    .thenThrow(uniqueViolation("idx_email", "Key (email)=(" + TEST_EMAIL + ") already exists."));
 
             // Act & Assert
             BusinessException exception = assertThrows(BusinessException.class, () ->
                     authService.register(registerRequestDTO));
 
             assertEquals("Email already exists", exception.getMessage());
-            verify(userRepository, times(1)).existsByUsername(TEST_USERNAME);
-            verify(userRepository, times(1)).existsByEmail(TEST_EMAIL);
-            verify(passwordEncoder, never()).encode(any());
-            verify(userRepository, never()).save(any(User.class));
+            verify(userRepository, never()).existsByUsername(any());
+            verify(userRepository, never()).existsByEmail(any());
+            verify(userRepository, times(1)).saveAndFlush(any(User.class));
             verify(jwtUtil, never()).generateToken(any());
         }
 
+        @Test
+        @DisplayName("shouldResolveColumnFromMessage_whenConstraintNameIsGenerated")
+        void shouldResolveColumnFromMessage_whenConstraintNameIsGenerated() {
+            // Arrange - username value mentions "email" but the violated key is username
+            when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
+            when(userRepository.saveAndFlush(any(User.class)))
+                    .thenThrow(uniqueViolation("uk_r43af9ap4edm43mmtq01oddj6",
+                            "Key (username)=(email_admin) already exists."));
+
+            // Act & Assert
+            BusinessException exception = assertThrows(BusinessException.class, () ->
+                    authService.register(registerRequestDTO));
+
+            assertEquals("Username already exists", exception.getMessage());
+        }
+
         @Test
         @DisplayName("shouldEncodePasswordCorrectly_whenRegisteringUser")
         void shouldEncodePasswordCorrectly_whenRegisteringUser() {
             // Arrange
-            when(userRepository.existsByUsername(TEST_USERNAME)).thenReturn(false);
-            when(userRepository.existsByEmail(TEST_EMAIL)).thenReturn(false);
             when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
-            when(userRepository.save(any(User.class))).thenReturn(testUser);
+            when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
             when(jwtUtil.generateToken(testUser)).thenReturn(TEST_TOKEN);
 
             // Act
@@ -179,10 +195,8 @@ class AuthServiceImplTest {
         @DisplayName("shouldGenerateTokenAfterSuccessfulRegistration")
         void shouldGenerateTokenAfterSuccessfulRegistration() {
             // Arrange
-            when(userRepository.existsByUsername(TEST_USERNAME)).thenReturn(false);
-            when(userRepository.existsByEmail(TEST_EMAIL)).thenReturn(false);
             when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
-            when(userRepository.save(any(User.class))).thenReturn(testUser);
+            when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
             when(jwtUtil.generateToken(testUser)).thenReturn(TEST_TOKEN);
 
             // Act
@@ -198,10 +212,8 @@ class AuthServiceImplTest {
         @DisplayName("shouldSetUserRoleToDefault_whenRegisteringNewUser")
         void shouldSetUserRoleToDefault_whenRegisteringNewUser() {
             // Arrange
-            when(userRepository.existsByUsername(TEST_USERNAME)).thenReturn(false);
-            when(userRepository.existsByEmail(TEST_EMAIL)).thenReturn(false);
             when(passwordEncoder.encode(TEST_PASSWORD)).thenReturn(ENCODED_PASSWORD);
-            when(userRepository.save(any(User.class))).thenReturn(testUser);
+            when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
             when(jwtUtil.generateToken(testUser)).thenReturn(TEST_TOKEN);
 
             // Act
@@ -451,4 +463,12 @@ class AuthServiceImplTest {
         }
     }
 
+
+    private static DataIntegrityViolationException uniqueViolation(String constraintName, String detail) {
+        SQLException sqlException = new SQLException(
+                "duplicate key value violates unique constraint \"" + constraintName + "\"\n  Detail: " + detail,
+                "23505");
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, constraintName));
+    }
 }
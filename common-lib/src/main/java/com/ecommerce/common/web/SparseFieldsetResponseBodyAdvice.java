@@ -0,0 +1,76 @@
+package com.ecommerce.common.web;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies ?fields= to every JSON response: single objects, lists and the content of pages.
+ * Filtering happens inside Jackson's bean serializer, so no intermediate maps are built and
+ * excluded getters are never called.
+ *
+ * Filter providers are cached per distinct field set (up to a bound), so repeated requests
+ * for the same fields reuse one instance; Jackson itself caches the bean serializers per class.
+ *
+ * Each service that wants it registers it as a bean with its own aliases. The annotation is
+ * what lets Spring MVC find that bean, so a service scanning com.ecommerce must exclude
+ * this class from the scan or every one of its responses is filtered.
+ */
+@ControllerAdvice
+public class SparseFieldsetResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    private static final int MAX_CACHED_FIELDSETS = 1024;
+
+    private final Map<String, Set<String>> aliases;
+    private final Map<Set<String>, FilterProvider> filtersByFieldset = new ConcurrentHashMap<>();
+
+    public SparseFieldsetResponseBodyAdvice(Map<String, Set<String>> aliases) {
+        this.aliases = Map.copyOf(aliases);
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer,
+                                           MediaType contentType,
+                                           MethodParameter returnType,
+                                           ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+
+        Set<String> fields = SparseFieldsets.parse(
+                servletRequest.getServletRequest().getParameter(SparseFieldsets.PARAMETER), aliases);
+        if (!fields.isEmpty()) {
+            bodyContainer.setFilters(filtersFor(fields));
+        }
+    }
+
+    private FilterProvider filtersFor(Set<String> fields) {
+        FilterProvider filters = filtersByFieldset.get(fields);
+        if (filters != null) {
+            return filters;
+        }
+
+        filters = new SimpleFilterProvider()
+                .addFilter(SparseFieldsets.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+
+        // arbitrary client input must not grow the cache without bound
+        if (filtersByFieldset.size() < MAX_CACHED_FIELDSETS) {
+            filtersByFieldset.putIfAbsent(fields, filters);
+        }
+        return filters;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.common.web;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import lombok.experimental.UtilityClass;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Sparse fieldsets: clients pass ?fields=a,b,c and response DTOs annotated with
+ * {@code @JsonFilter(SparseFieldsets.FILTER_ID)} are serialized with only those properties.
+ */
+@UtilityClass
+public class SparseFieldsets {
+
+    public static final String FILTER_ID = "sparseFieldset";
+    public static final String PARAMETER = "fields";
+
+    /**
+     * Filters for the application ObjectMapper: filtered DTOs serialize every property
+     * unless a request asks otherwise.
+     */
+    public static FilterProvider serializeAll() {
+        return new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.serializeAll());
+    }
+
+    /**
+     * Requested property names, sorted and de-duplicated, with aliases expanded
+     * (e.g. "summary" -> id, name, price). Empty when no fields were requested.
+     */
+    public static Set<String> parse(String fields, Map<String, Set<String>> aliases) {
+        if (fields == null || fields.isBlank()) {
+            return Collections.emptySet();
+        }
+
+        Set<String> names = new TreeSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!name.isEmpty()) {
+                names.addAll(aliases.getOrDefault(name, Set.of(name)));
+            }
+        }
+        return names;
+    }
+}
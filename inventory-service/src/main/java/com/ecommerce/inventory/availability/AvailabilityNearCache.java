@@ -0,0 +1,58 @@
+package com.ecommerce.inventory.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Available quantities for browsing, kept for a few seconds.
+ *
+ * A lookup answers what it can from memory and loads all the misses with one query,
+ * so a product grid costs at most one round trip however many products it shows.
+ * Entries are not invalidated on stock changes; they simply expire, which bounds how
+ * stale an approximate answer can be. Products without inventory are not cached.
+ */
+@Component
+public class AvailabilityNearCache {
+
+    private final Cache<Long, Integer> availableQuantities;
+
+    public AvailabilityNearCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.availability.cache-max-size:50000}") long maxSize,
+            @Value("${app.availability.cache-ttl:PT5S}") Duration ttl
+    ) {
+        this.availableQuantities = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, availableQuantities, "inventory.availability");
+    }
+
+    /**
+     * Cached quantities of the products, loading the missing ones in one call.
+     */
+    public Map<Long, Integer> getAll(Collection<Long> productIds,
+                                     Function<Set<? extends Long>, Map<Long, Integer>> loader) {
+        return availableQuantities.getAll(productIds, loader);
+    }
+
+    /**
+     * Refresh entries with quantities just read for an exact answer.
+     */
+    public void putAll(Map<Long, Integer> quantities) {
+        availableQuantities.putAll(quantities);
+    }
+}
@@ -0,0 +1,258 @@
+package com.ecommerce.inventory.bucket;
+
+import com.ecommerce.inventory.entity.MovementType;
+import com.ecommerce.inventory.repository.InventoryBucketRepository;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.projection.StockBalanceView;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sharded stock counters for products switched to bucketed mode.
+ *
+ * A bucketed product's stock is spread over K inventory_buckets rows. A change locks one
+ * bucket that can cover it, looking from a random bucket onwards and skipping buckets
+ * other changes hold, so concurrent reservations of the product neither share a row
+ * lock nor wait for one. Only when no free bucket can cover a change are all the buckets
+ * locked, in bucket order, and the change spread across them. A background rebalance
+ * evens the buckets out and copies their sums into the product's inventories row, which
+ * otherwise lags.
+ *
+ * Locks are always taken in the order reservations, inventories row, buckets.
+ */
+@Component
+@Slf4j
+public class BucketedStock {
+
+    /**
+     * Returned by {@link #update} when the product has no buckets: it went back to single-row mode.
+     */
+    public static final int NO_BUCKETS = -1;
+
+    private static final String PICK_BUCKET_SQL = "SELECT bucket_no FROM inventory_buckets "
+            + "WHERE product_id = ? AND available_quantity + ? >= 0 AND reserved_quantity + ? >= 0 "
+            + "ORDER BY MOD(bucket_no + ?, ?) FETCH FIRST 1 ROWS ONLY FOR UPDATE SKIP LOCKED";
+    private static final String UPDATE_BUCKET_SQL = "UPDATE inventory_buckets "
+            + "SET available_quantity = available_quantity + ?, reserved_quantity = reserved_quantity + ?, "
+            + "updated_at = ? WHERE product_id = ? AND bucket_no = ? "
+            + "AND available_quantity + ? >= 0 AND reserved_quantity + ? >= 0";
+    private static final String LOCK_BUCKETS_SQL = "SELECT bucket_no, available_quantity, reserved_quantity "
+            + "FROM inventory_buckets WHERE product_id = ? ORDER BY bucket_no FOR UPDATE";
+    private static final String SET_BUCKET_SQL = "UPDATE inventory_buckets "
+            + "SET available_quantity = ?, reserved_quantity = ?, updated_at = ? WHERE product_id = ? AND bucket_no = ?";
+    private static final String INSERT_BUCKET_SQL = "INSERT INTO inventory_buckets "
+            + "(product_id, bucket_no, available_quantity, reserved_quantity, updated_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_BUCKETS_SQL = "DELETE FROM inventory_buckets WHERE product_id = ?";
+    private static final String LOCK_ROW_SQL =
+            "SELECT product_id FROM inventories WHERE product_id = ? AND stock_buckets IS NOT NULL FOR UPDATE";
+    private static final String MIRROR_ROW_SQL = "UPDATE inventories "
+            + "SET available_quantity = ?, reserved_quantity = ?, updated_at = ?, version = version + 1 "
+            + "WHERE product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryBucketRepository bucketRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public BucketedStock(JdbcTemplate jdbcTemplate,
+                         InventoryRepository inventoryRepository,
+                         InventoryBucketRepository bucketRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.inventoryRepository = inventoryRepository;
+        this.bucketRepository = bucketRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Apply a reserve, release or confirm of quantity units. Returns 1 when applied, 0 when
+     * the buckets together cannot cover it, or {@link #NO_BUCKETS}.
+     */
+    public int update(long productId, int buckets, MovementType type, int quantity, LocalDateTime now) {
+        int availableDelta = type.availableDelta(quantity);
+        int reservedDelta = type.reservedDelta(quantity);
+        Timestamp updatedAt = Timestamp.valueOf(now);
+
+        // a locked bucket is skipped rather than waited for, so this never waits while holding a bucket
+        int offset = buckets - ThreadLocalRandom.current().nextInt(buckets);
+        List<Integer> picked = jdbcTemplate.queryForList(PICK_BUCKET_SQL, Integer.class,
+                productId, availableDelta, reservedDelta, offset, buckets);
+        if (!picked.isEmpty() && jdbcTemplate.update(UPDATE_BUCKET_SQL, availableDelta, reservedDelta, updatedAt,
+                productId, picked.get(0), availableDelta, reservedDelta) > 0) {
+            return 1;
+        }
+        return spread(productId, type, quantity, updatedAt);
+    }
+
+    /**
+     * Create the buckets of a product switched to bucketed mode, splitting its counters evenly.
+     * The caller holds the product's row lock.
+     */
+    public void split(long productId, int buckets, long available, long reserved, LocalDateTime now) {
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>(buckets);
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            rows.add(new Object[] {productId, bucket, share(available, buckets, bucket),
+                    share(reserved, buckets, bucket), updatedAt});
+        }
+        jdbcTemplate.batchUpdate(INSERT_BUCKET_SQL, rows);
+    }
+
+    /**
+     * Remove the buckets of a product once every change holding one has committed; returns
+     * their summed {available, reserved}. The caller holds the product's row lock.
+     */
+    public long[] merge(long productId) {
+        long[] totals = totals(lockBuckets(productId));
+        jdbcTemplate.update(DELETE_BUCKETS_SQL, productId);
+        return totals;
+    }
+
+    /**
+     * Set a bucketed product's total available quantity, spread evenly; returns the
+     * {available, reserved} it replaced. The caller holds the product's row lock.
+     */
+    public long[] setAvailable(long productId, long available, LocalDateTime now) {
+        List<int[]> locked = lockBuckets(productId);
+        long[] previous = totals(locked);
+        writeEvenly(productId, locked, available, previous[1], Timestamp.valueOf(now));
+        return previous;
+    }
+
+    /**
+     * Summed {available, reserved} of each listed product that has buckets.
+     */
+    public Map<Long, long[]> totals(Collection<Long> productIds) {
+        Map<Long, long[]> totals = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return totals;
+        }
+        for (StockBalanceView view : bucketRepository.sumByProductIdIn(productIds)) {
+            totals.put(view.getProductId(), new long[] {view.getAvailable(), view.getReserved()});
+        }
+        return totals;
+    }
+
+    /**
+     * Even out the buckets of every bucketed product and copy their sums to its row,
+     * one short transaction per product.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory-buckets.rebalance-interval:PT10S}")
+    public void rebalance() {
+        for (Long productId : inventoryRepository.findBucketedProductIds()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebalance(productId));
+            } catch (RuntimeException ex) {
+                log.error("Could not rebalance stock buckets of product ID: {}", productId, ex);
+            }
+        }
+    }
+
+    private void rebalance(long productId) {
+        // the row lock first, like a mode switch; an empty result means the product was switched back
+        if (jdbcTemplate.queryForList(LOCK_ROW_SQL, productId).isEmpty()) {
+            return;
+        }
+        List<int[]> locked = lockBuckets(productId);
+        long[] totals = totals(locked);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (skewed(locked, totals)) {
+            writeEvenly(productId, locked, totals[0], totals[1], now);
+            log.debug("Rebalanced {} stock buckets of product ID: {}", locked.size(), productId);
+        }
+        jdbcTemplate.update(MIRROR_ROW_SQL, totals[0], totals[1], now, productId);
+    }
+
+    /**
+     * Lock every bucket and apply the change across as many as it takes.
+     */
+    private int spread(long productId, MovementType type, int quantity, Timestamp updatedAt) {
+        List<int[]> locked = lockBuckets(productId);
+        if (locked.isEmpty()) {
+            return NO_BUCKETS;
+        }
+        // the counter this change takes units from: available for a reserve, reserved otherwise
+        int source = type.availableDelta(1) < 0 ? 1 : 2;
+        long[] totals = totals(locked);
+        if (totals[source - 1] < quantity) {
+            return 0;
+        }
+
+        int remaining = quantity;
+        List<Object[]> rows = new ArrayList<>();
+        for (int[] bucket : locked) {
+            int taken = Math.min(remaining, bucket[source]);
+            if (taken > 0) {
+                rows.add(new Object[] {bucket[1] + type.availableDelta(taken), bucket[2] + type.reservedDelta(taken),
+                        updatedAt, productId, bucket[0]});
+                remaining -= taken;
+            }
+            if (remaining == 0) {
+                break;
+            }
+        }
+        jdbcTemplate.batchUpdate(SET_BUCKET_SQL, rows);
+        return 1;
+    }
+
+    /**
+     * Lock a product's buckets in bucket order; each entry is {bucketNo, available, reserved}.
+     */
+    private List<int[]> lockBuckets(long productId) {
+        return jdbcTemplate.query(LOCK_BUCKETS_SQL, (rs, row) -> new int[] {rs.getInt(1), rs.getInt(2), rs.getInt(3)},
+                productId);
+    }
+
+    private void writeEvenly(long productId, List<int[]> locked, long available, long reserved, Timestamp updatedAt) {
+        List<Object[]> rows = new ArrayList<>(locked.size());
+        for (int i = 0; i < locked.size(); i++) {
+            rows.add(new Object[] {share(available, locked.size(), i), share(reserved, locked.size(), i),
+                    updatedAt, productId, locked.get(i)[0]});
+        }
+        jdbcTemplate.batchUpdate(SET_BUCKET_SQL, rows);
+    }
+
+    /**
+     * Whether some bucket holds less than half its even share of either counter.
+     */
+    private static boolean skewed(List<int[]> locked, long[] totals) {
+        long buckets = locked.size();
+        for (int[] bucket : locked) {
+            if (2 * buckets * bucket[1] < totals[0] || 2 * buckets * bucket[2] < totals[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long[] totals(List<int[]> locked) {
+        long[] totals = new long[2];
+        for (int[] bucket : locked) {
+            totals[0] += bucket[1];
+            totals[1] += bucket[2];
+        }
+        return totals;
+    }
+
+    /**
+     * The index-th of n near-equal parts of total; the first total % n parts get one more.
+     */
+    private static int share(long total, int n, int index) {
+        return (int) (total / n + (index < total % n ? 1 : 0));
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.inventory.config;
+
+import com.ecommerce.common.web.SparseFieldsetResponseBodyAdvice;
+import com.ecommerce.common.web.SparseFieldsets;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Sparse fieldsets (?fields=) for inventory responses.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetDefaults() {
+        return builder -> builder.filters(SparseFieldsets.serializeAll());
+    }
+
+    @Bean
+    public SparseFieldsetResponseBodyAdvice sparseFieldsetResponseBodyAdvice() {
+        return new SparseFieldsetResponseBodyAdvice(Map.of());
+    }
+}
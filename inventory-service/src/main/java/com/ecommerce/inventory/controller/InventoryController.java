@@ -1,5 +1,8 @@
 package com.ecommerce.inventory.controller;
 
+import java.util.List;
+import java.util.Map;
+
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,14 +14,27 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.ecommerce.inventory.dto.AvailabilityMode;
+import com.ecommerce.inventory.dto.BatchConfirmRequestDTO;
+import com.ecommerce.inventory.dto.BatchReleaseRequestDTO;
+import com.ecommerce.inventory.dto.BatchReserveRequestDTO;
 import com.ecommerce.inventory.dto.ConfirmRequestDTO;
 import com.ecommerce.inventory.dto.InventoryRequestDTO;
 import com.ecommerce.inventory.dto.InventoryResponseDTO;
 import com.ecommerce.inventory.dto.ReleaseRequestDTO;
+import com.ecommerce.inventory.dto.ReservationStatsDTO;
 import com.ecommerce.inventory.dto.ReserveRequestDTO;
+import com.ecommerce.inventory.dto.StockBucketsRequestDTO;
+import com.ecommerce.inventory.dto.StockConsistencyReportDTO;
+import com.ecommerce.inventory.dto.StockLineResultDTO;
+import com.ecommerce.inventory.dto.StockMovementDTO;
+import com.ecommerce.inventory.idempotency.IdempotencyStore;
+import com.ecommerce.inventory.reservation.ReserveGroupCommitter;
 import com.ecommerce.inventory.service.InventoryService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -34,6 +50,7 @@ import lombok.extern.slf4j.Slf4j;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final ReserveGroupCommitter reserveGroupCommitter;
 
     /**
      * PUBLIC API
@@ -49,6 +66,21 @@ public class InventoryController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/availability")
+    @PreAuthorize("permitAll()")
+    @Operation(summary = "Get availability of many products",
+            description = "Available quantity per product ID, e.g. ?productIds=1,2,3, as one map; products without "
+                    + "inventory are left out. mode=APPROXIMATE (default) may be a few seconds old and suits "
+                    + "browsing; mode=EXACT reads the current stock for checkout. Public access allowed.")
+    @Tag(name = "Public")
+    public ResponseEntity<Map<Long, Integer>> getAvailability(
+            @RequestParam List<Long> productIds,
+            @RequestParam(defaultValue = "APPROXIMATE") AvailabilityMode mode) {
+        log.info("GET /api/inventory/availability - Fetching {} availability for {} products",
+                mode, productIds.size());
+        return ResponseEntity.ok(inventoryService.getAvailability(productIds, mode));
+    }
+
     /**
      * ADMIN APIs
      */
@@ -78,6 +110,50 @@ public class InventoryController {
         return ResponseEntity.ok(response);
     }
 
+    @PutMapping("/{productId}/buckets")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Set stock buckets",
+            description = "Spread a hot product's stock over several counter rows, or back to one with 1. Admin only.")
+    @Tag(name = "Admin")
+    public ResponseEntity<InventoryResponseDTO> setStockBuckets(
+            @PathVariable Long productId,
+            @Valid @RequestBody StockBucketsRequestDTO stockBucketsRequestDTO) {
+        log.info("PUT /api/inventory/{}/buckets - Setting stock buckets", productId);
+        return ResponseEntity.ok(inventoryService.setStockBuckets(productId, stockBucketsRequestDTO.getBuckets()));
+    }
+
+    @GetMapping("/reservations/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reservation counts",
+            description = "Count active, overdue, confirmed, released and expired reservations. Admin only.")
+    @Tag(name = "Admin")
+    public ResponseEntity<ReservationStatsDTO> getReservationStats() {
+        log.info("GET /api/inventory/reservations/stats - Counting reservations");
+        return ResponseEntity.ok(inventoryService.getReservationStats());
+    }
+
+    @GetMapping("/{productId}/movements")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "List stock movements",
+            description = "Retrieve the paginated stock movements of a product, newest first. Admin only.")
+    @Tag(name = "Admin")
+    public ResponseEntity<Page<StockMovementDTO>> getStockMovements(
+            @PathVariable Long productId,
+            @ParameterObject Pageable pageable) {
+        log.info("GET /api/inventory/{}/movements - Listing stock movements", productId);
+        return ResponseEntity.ok(inventoryService.getStockMovements(productId, pageable));
+    }
+
+    @GetMapping("/movements/consistency")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Check stock consistency",
+            description = "Replay the stock movements and list every product whose counters disagree. Admin only.")
+    @Tag(name = "Admin")
+    public ResponseEntity<StockConsistencyReportDTO> checkStockConsistency() {
+        log.info("GET /api/inventory/movements/consistency - Checking stock movements");
+        return ResponseEntity.ok(inventoryService.checkStockConsistency());
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(
@@ -95,6 +171,10 @@ public class InventoryController {
 
     /**
      * INTERNAL API: Reserve stock for an order
+     *
+     * The stock-changing internal APIs accept an Idempotency-Key header; a retry with
+     * the same key gets the first response back instead of changing stock again.
+     * Concurrent reserve calls share a transaction (see {@link ReserveGroupCommitter}).
      */
     @PostMapping("/reserve")
     @PreAuthorize("hasRole('INTERNAL')")
@@ -102,10 +182,27 @@ public class InventoryController {
             description = "Reserve stock for an order. Internal use only (ORDER_SERVICE).")
     @Tag(name = "Internal")
     public ResponseEntity<InventoryResponseDTO> reserveStock(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody ReserveRequestDTO reserveRequestDTO) {
         log.info("POST /api/inventory/reserve - Reserving {} units for product ID: {}", 
                 reserveRequestDTO.getQuantity(), reserveRequestDTO.getProductId());
-        InventoryResponseDTO response = inventoryService.reserveStock(reserveRequestDTO);
+        InventoryResponseDTO response = reserveGroupCommitter.reserve(reserveRequestDTO, idempotencyKey);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/reserve/batch")
+    @PreAuthorize("hasRole('INTERNAL')")
+    @Operation(summary = "Reserve stock for all order lines",
+            description = "Reserve every line of an order in one transaction: all lines or none. "
+                    + "Lines for the same product are merged. Internal use only (ORDER_SERVICE).")
+    @Tag(name = "Internal")
+    public ResponseEntity<List<InventoryResponseDTO>> reserveStockBatch(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BatchReserveRequestDTO batchReserveRequestDTO) {
+        log.info("POST /api/inventory/reserve/batch - Reserving {} lines",
+                batchReserveRequestDTO.getItems().size());
+        List<InventoryResponseDTO> response = inventoryService.reserveStockBatch(
+                batchReserveRequestDTO.getItems(), batchReserveRequestDTO.getOrderReference(), idempotencyKey);
         return ResponseEntity.ok(response);
     }
 
@@ -115,10 +212,27 @@ public class InventoryController {
             description = "Release previously reserved stock (e.g., order cancellation). Internal use only (ORDER_SERVICE).")
     @Tag(name = "Internal")
     public ResponseEntity<InventoryResponseDTO> releaseStock(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody ReleaseRequestDTO releaseRequestDTO) {
         log.info("POST /api/inventory/release - Releasing {} units for product ID: {}", 
                 releaseRequestDTO.getQuantity(), releaseRequestDTO.getProductId());
-        InventoryResponseDTO response = inventoryService.releaseStock(releaseRequestDTO);
+        InventoryResponseDTO response = inventoryService.releaseStock(releaseRequestDTO, idempotencyKey);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/release/batch")
+    @PreAuthorize("hasRole('INTERNAL')")
+    @Operation(summary = "Release reserved stock for several lines",
+            description = "Release every line in one transaction. Each line succeeds or fails on its own; "
+                    + "one result per line is returned in request order. Internal use only (ORDER_SERVICE).")
+    @Tag(name = "Internal")
+    public ResponseEntity<List<StockLineResultDTO>> releaseStockBatch(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BatchReleaseRequestDTO batchReleaseRequestDTO) {
+        log.info("POST /api/inventory/release/batch - Releasing {} lines",
+                batchReleaseRequestDTO.getItems().size());
+        List<StockLineResultDTO> response = inventoryService.releaseStockBatch(batchReleaseRequestDTO.getItems(),
+                idempotencyKey);
         return ResponseEntity.ok(response);
     }
 
@@ -128,10 +242,27 @@ public class InventoryController {
             description = "Confirm reserved stock (convert to permanent deduction). Internal use only (ORDER_SERVICE).")
     @Tag(name = "Internal")
     public ResponseEntity<InventoryResponseDTO> confirmStock(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody ConfirmRequestDTO confirmRequestDTO) {
         log.info("POST /api/inventory/confirm - Confirming {} units for product ID: {}", 
                 confirmRequestDTO.getQuantity(), confirmRequestDTO.getProductId());
-        InventoryResponseDTO response = inventoryService.confirmStock(confirmRequestDTO);
+        InventoryResponseDTO response = inventoryService.confirmStock(confirmRequestDTO, idempotencyKey);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/confirm/batch")
+    @PreAuthorize("hasRole('INTERNAL')")
+    @Operation(summary = "Confirm reserved stock for several lines",
+            description = "Confirm every line in one transaction. Each line succeeds or fails on its own; "
+                    + "one result per line is returned in request order. Internal use only (ORDER_SERVICE).")
+    @Tag(name = "Internal")
+    public ResponseEntity<List<StockLineResultDTO>> confirmStockBatch(
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BatchConfirmRequestDTO batchConfirmRequestDTO) {
+        log.info("POST /api/inventory/confirm/batch - Confirming {} lines",
+                batchConfirmRequestDTO.getItems().size());
+        List<StockLineResultDTO> response = inventoryService.confirmStockBatch(batchConfirmRequestDTO.getItems(),
+                idempotencyKey);
         return ResponseEntity.ok(response);
     }
 }
@@ -0,0 +1,10 @@
+package com.ecommerce.inventory.dto;
+
+/**
+ * How fresh bulk availability has to be: APPROXIMATE may be a few seconds old and is meant
+ * for browsing; EXACT reads the current counters and is meant for checkout.
+ */
+public enum AvailabilityMode {
+    APPROXIMATE,
+    EXACT
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Lines to release in one transaction; each line succeeds or fails on its own.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchReleaseRequestDTO {
+
+    @NotEmpty(message = "Items cannot be empty")
+    @Size(max = 100, message = "At most 100 items can be released at once")
+    private List<@Valid ReleaseRequestDTO> items;
+}
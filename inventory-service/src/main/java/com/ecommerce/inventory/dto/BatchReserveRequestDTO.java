@@ -0,0 +1,30 @@
+package com.ecommerce.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * All lines of one order; lines for the same product are merged before reserving,
+ * giving one reservation per product.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchReserveRequestDTO {
+
+    @NotEmpty(message = "Items cannot be empty")
+    @Size(max = 100, message = "At most 100 items can be reserved at once")
+    private List<@Valid ReserveRequestDTO> items;
+
+    // order all lines are reserved for; the orderReference of individual lines is ignored
+    @Size(max = 64, message = "Order reference must be at most 64 characters")
+    private String orderReference;
+}
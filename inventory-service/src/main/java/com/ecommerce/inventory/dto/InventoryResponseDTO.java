@@ -1,5 +1,7 @@
 package com.ecommerce.inventory.dto;
 
+import com.ecommerce.common.web.SparseFieldsets;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,12 +15,18 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonFilter(SparseFieldsets.FILTER_ID)
 public class InventoryResponseDTO {
 
     private Long id;
     private Long productId;
     private Integer availableQuantity;
     private Integer reservedQuantity;
+    private Integer stockBuckets;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // set only in answer to a reservation
+    private Long reservationId;
+    private LocalDateTime reservationExpiresAt;
 }
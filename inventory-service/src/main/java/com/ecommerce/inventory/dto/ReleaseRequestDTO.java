@@ -2,6 +2,7 @@ package com.ecommerce.inventory.dto;
 
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,4 +21,8 @@ public class ReleaseRequestDTO {
     @NotNull(message = "Quantity cannot be null")
     @Positive(message = "Quantity must be positive")
     private Integer quantity;
+
+    // order whose reservations are released; without one only reservations held for no order are
+    @Size(max = 64, message = "Order reference must be at most 64 characters")
+    private String orderReference;
 }
@@ -0,0 +1,22 @@
+package com.ecommerce.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reservations by state. Overdue ones are active past their deadline, waiting for the next expiry tick.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationStatsDTO {
+
+    private long active;
+    private long overdue;
+    private long confirmed;
+    private long released;
+    private long expired;
+}
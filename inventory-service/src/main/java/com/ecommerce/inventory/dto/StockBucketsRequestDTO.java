@@ -0,0 +1,21 @@
+package com.ecommerce.inventory.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockBucketsRequestDTO {
+
+    @NotNull(message = "Buckets cannot be null")
+    @Min(value = 1, message = "Buckets must be at least 1")
+    @Max(value = 64, message = "Buckets must be at most 64")
+    private Integer buckets;
+}
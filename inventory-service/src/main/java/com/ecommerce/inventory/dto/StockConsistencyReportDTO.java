@@ -0,0 +1,25 @@
+package com.ecommerce.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Result of replaying the stock movements against the inventories counters. Products owned
+ * by the flash-sale ledger are skipped, since their rows lag the ledger by design.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockConsistencyReportDTO {
+
+    private LocalDateTime checkedAt;
+    private int productsChecked;
+    private int productsSkipped;
+    private List<StockMismatchDTO> mismatches;
+}
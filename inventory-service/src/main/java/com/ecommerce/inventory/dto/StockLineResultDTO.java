@@ -0,0 +1,27 @@
+package com.ecommerce.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one line of a batch release or confirm, in request order.
+ * Quantities are those of the product once the whole batch was applied; error is set only
+ * when this line was not.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockLineResultDTO {
+
+    private Long productId;
+    private Integer quantity;
+    private boolean success;
+    private String error;
+    private Integer availableQuantity;
+    private Integer reservedQuantity;
+}
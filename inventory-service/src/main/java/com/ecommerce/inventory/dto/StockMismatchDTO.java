@@ -0,0 +1,25 @@
+package com.ecommerce.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A product whose counters disagree with its movements: the row's quantities, the full
+ * replay of its movements, and its latest snapshot plus the movements since.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMismatchDTO {
+
+    private Long productId;
+    private long availableQuantity;
+    private long reservedQuantity;
+    private long replayedAvailable;
+    private long replayedReserved;
+    private long snapshotAvailable;
+    private long snapshotReserved;
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.inventory.dto;
+
+import com.ecommerce.inventory.entity.MovementType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovementDTO {
+
+    private Long id;
+    private Long productId;
+    private MovementType type;
+    private Integer availableDelta;
+    private Integer reservedDelta;
+    private String orderReference;
+    private LocalDateTime createdAt;
+}
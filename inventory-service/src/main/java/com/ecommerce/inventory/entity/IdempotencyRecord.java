@@ -0,0 +1,52 @@
+package com.ecommerce.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An idempotency key and the response of the stock change made with it, written in the
+ * transaction of that change: the key exists exactly when the change committed.
+ */
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_idempotency_operation_key", columnNames = {"operation", "idempotency_key"})
+}, indexes = {
+        @Index(name = "idx_idempotency_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "operation", nullable = false, length = 32)
+    private String operation;
+
+    @Column(name = "idempotency_key", nullable = false, length = 128)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body; a replay must repeat it exactly
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    // JSON response replayed to retries
+    @Column(name = "response", nullable = false, columnDefinition = "text")
+    private String response;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -31,6 +31,15 @@ public class Inventory {
     @Column(name = "reserved_quantity", nullable = false)
     private Integer reservedQuantity = 0;
 
+    // number of inventory_buckets rows holding the stock; null while the counters above hold it
+    @Column(name = "stock_buckets")
+    private Integer stockBuckets;
+
+    // incremented by every write, including the guarded updates, so a stale entity cannot overwrite them
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
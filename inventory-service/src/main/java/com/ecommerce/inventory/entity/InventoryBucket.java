@@ -0,0 +1,43 @@
+package com.ecommerce.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One share of a bucketed product's stock. The product's counters are the sums over its
+ * buckets; each bucket has its own row lock, so reservations spread across them.
+ */
+@Entity
+@Table(name = "inventory_buckets", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_bucket_product_bucket", columnNames = {"product_id", "bucket_no"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "bucket_no", nullable = false)
+    private Integer bucketNo;
+
+    @Column(name = "available_quantity", nullable = false)
+    private Integer availableQuantity;
+
+    @Column(name = "reserved_quantity", nullable = false)
+    private Integer reservedQuantity;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
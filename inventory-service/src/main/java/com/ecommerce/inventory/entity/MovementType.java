@@ -0,0 +1,31 @@
+package com.ecommerce.inventory.entity;
+
+/**
+ * Kind of stock movement. The signs give the deltas a movement of quantity units applies
+ * to the available and reserved counters; OPENING and ADJUST carry their deltas explicitly.
+ */
+public enum MovementType {
+
+    OPENING(0, 0),
+    ADJUST(0, 0),
+    RESERVE(-1, 1),
+    RELEASE(1, -1),
+    EXPIRE(1, -1),
+    CONFIRM(0, -1);
+
+    private final int availableSign;
+    private final int reservedSign;
+
+    MovementType(int availableSign, int reservedSign) {
+        this.availableSign = availableSign;
+        this.reservedSign = reservedSign;
+    }
+
+    public int availableDelta(int quantity) {
+        return availableSign * quantity;
+    }
+
+    public int reservedDelta(int quantity) {
+        return reservedSign * quantity;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to a product's stock counters. Rows are only ever inserted: replaying the
+ * deltas of a product from its OPENING movement gives its current counters.
+ */
+@Entity
+@Immutable
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_movement_product_id", columnList = "product_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, length = 16)
+    private MovementType type;
+
+    @Column(name = "available_delta", nullable = false)
+    private Integer availableDelta;
+
+    @Column(name = "reserved_delta", nullable = false)
+    private Integer reservedDelta;
+
+    @Column(name = "order_reference", length = 64)
+    private String orderReference;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,164 @@
+package com.ecommerce.inventory.idempotency;
+
+import com.ecommerce.common.exception.BusinessException;
+import com.ecommerce.inventory.entity.IdempotencyRecord;
+import com.ecommerce.inventory.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of stock changes sent with an {@value #HEADER} header.
+ *
+ * The key and response are written to the idempotency_keys table inside the
+ * transaction of the change itself: a change that rolls back leaves its key free for
+ * another attempt, one that commits leaves it taken, on every instance and across
+ * restarts. A retry with the same key gets the stored response back without touching
+ * stock. One arriving while the first is still running makes its change too, but
+ * cannot store the key once the first commits; it rolls back and is run again, then
+ * replaying the first response. Keys are deleted after the ttl, which must outlast
+ * the callers' retries, and each purge also deletes the oldest keys beyond max-keys. A
+ * retry of a key deleted early changes stock again, so max-keys must cover the keys
+ * written within the callers' retry window.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final int maxKeys;
+    private final Duration ttl;
+    private final Counter replayCounter;
+
+    public IdempotencyStore(
+            IdempotencyRecordRepository repository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.idempotency.max-keys:100000}") int maxKeys,
+            @Value("${app.idempotency.ttl:PT24H}") Duration ttl
+    ) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.maxKeys = maxKeys;
+        this.ttl = ttl;
+        this.replayCounter = Counter.builder("inventory.idempotency.replays")
+                .description("Requests answered with the stored response of an earlier request with the same key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the change once per operation and key, in the caller's transaction; without a key it simply runs.
+     *
+     * @param request the request body, which a replay must repeat exactly
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> T execute(String operation, String key, Object request, TypeReference<T> responseType,
+                         Supplier<T> change) {
+        if (key == null || key.isBlank()) {
+            return change.get();
+        }
+        Optional<T> stored = find(operation, key, request, responseType);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        T response = change.get();
+        record(operation, key, request, response);
+        return response;
+    }
+
+    /**
+     * The response stored for an earlier change with this key, if one committed. Called inside the
+     * transaction of the change; a rejected key does not mark it for rollback.
+     */
+    public <T> Optional<T> find(String operation, String key, Object request, TypeReference<T> responseType) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency key cannot exceed " + MAX_KEY_LENGTH + " characters");
+        }
+        IdempotencyRecord earlier = repository.findByOperationAndIdempotencyKey(operation, key).orElse(null);
+        if (earlier == null) {
+            return Optional.empty();
+        }
+        if (!earlier.getRequestHash().equals(hash(request))) {
+            throw new BusinessException("Idempotency key " + key + " was already used for a different " + operation);
+        }
+
+        replayCounter.increment();
+        log.info("Replaying stored {} response for idempotency key {}", operation, key);
+        try {
+            return Optional.of(objectMapper.readValue(earlier.getResponse(), responseType));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored " + operation + " response for key " + key + " is unreadable", ex);
+        }
+    }
+
+    /**
+     * Store the response of a change made in the current transaction under its key. A request with
+     * the same key that committed in the meantime makes this fail, so the change rolls back and is
+     * run again, which then replays that request's response.
+     */
+    public void record(String operation, String key, Object request, Object response) {
+        try {
+            repository.saveAndFlush(IdempotencyRecord.builder()
+                    .operation(operation)
+                    .idempotencyKey(key)
+                    .requestHash(hash(request))
+                    .response(objectMapper.writeValueAsString(response))
+                    .build());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot store " + operation + " response for key " + key, ex);
+        } catch (DataIntegrityViolationException ex) {
+            throw new ConcurrencyFailureException("Idempotency key " + key + " was used concurrently", ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval:PT5M}")
+    @Transactional
+    public void purge() {
+        int expired = repository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (expired > 0) {
+            log.info("Deleted {} idempotency keys older than {}", expired, ttl);
+        }
+        // the newest key beyond the bound; it and every older one go
+        List<Long> beyond = repository.findIdsNewestFirst(PageRequest.of(maxKeys, 1));
+        if (!beyond.isEmpty()) {
+            int evicted = repository.deleteUpToId(beyond.get(0));
+            log.warn("Deleted {} idempotency keys beyond the limit of {} before their ttl", evicted, maxKeys);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Cannot hash " + request.getClass().getSimpleName(), ex);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.ecommerce.inventory.ledger;
+
+import com.ecommerce.common.exception.BusinessException;
+import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.entity.StockSnapshot;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.StockMovementRepository;
+import com.ecommerce.inventory.repository.StockSnapshotRepository;
+import com.ecommerce.inventory.repository.projection.StockBalanceView;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Flash-sale mode: the stock of designated hot products is owned by an in-memory
+ * {@link StockLedger} instead of their inventories rows.
+ *
+ * A change is applied with a compare-and-set, appended to the {@link StockJournal}
+ * and acknowledged once the journal group holding it is on disk. The journaled
+ * quantities are written back to the inventories table every write-behind interval,
+ * so the table lags by at most that much while the journal is the source of truth.
+ *
+ * A change is journaled before the transaction making it commits, and a rollback
+ * journals the opposite change; a crash in between leaves a change in the journal
+ * that never committed. On startup the ledger is therefore rebuilt from the journal
+ * and then reconciled with the stock movements, which commit together with the
+ * reservations: a product whose movements disagree with its journal starts from its
+ * movements. Products with no journal history yet start from their table row.
+ *
+ * The ledger owns its products for the whole service, so only one instance may run
+ * with flash-sale mode enabled. Startup takes an exclusive lock on a file next to the
+ * journal and fails while another process holds it; instances on other hosts cannot
+ * be detected that way and must keep flash-sale mode disabled.
+ */
+@Component
+@Slf4j
+public class FlashSaleLedger {
+
+    private static final String WRITE_BEHIND_SQL =
+            "UPDATE inventories SET available_quantity = ?, reserved_quantity = ?, updated_at = ?, version = version + 1 "
+            + "WHERE product_id = ?";
+
+    private final InventoryRepository inventoryRepository;
+    private final StockMovementRepository movementRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Set<Long> hotProductIds;
+    private final Path journalFile;
+    private final long compactAfterBytes;
+
+    // quantities last written to the table, to skip products that did not change
+    private final Map<Long, long[]> written = new HashMap<>();
+
+    private StockLedger ledger;
+    private StockJournal journal;
+    private FileChannel lockChannel;
+
+    public FlashSaleLedger(
+            InventoryRepository inventoryRepository,
+            StockMovementRepository movementRepository,
+            StockSnapshotRepository snapshotRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.flash-sale.enabled:false}") boolean enabled,
+            @Value("${app.flash-sale.hot-product-ids:}") long[] hotProductIds,
+            @Value("${app.flash-sale.journal-file:data/inventory/stock.journal}") Path journalFile,
+            @Value("${app.flash-sale.compact-after-bytes:67108864}") long compactAfterBytes
+    ) {
+        this.inventoryRepository = inventoryRepository;
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.hotProductIds = Arrays.stream(hotProductIds).boxed().collect(Collectors.toSet());
+        this.journalFile = journalFile;
+        this.compactAfterBytes = compactAfterBytes;
+    }
+
+    /**
+     * Runs before the web server starts, so no request reaches a hot product's row
+     * while the ledger is still loading.
+     */
+    @PostConstruct
+    public void recover() throws IOException {
+        if (!enabled || hotProductIds.isEmpty()) {
+            log.info("Flash-sale ledger disabled, all stock changes go to the database");
+            return;
+        }
+
+        lockJournal();
+        Map<Long, long[]> journaled = StockJournal.replay(journalFile);
+        Map<Long, long[]> committed = committedBalances(hotProductIds);
+
+        // products that are no longer hot hand their journaled quantities back to the table
+        Map<Long, long[]> released = new LinkedHashMap<>(journaled);
+        released.keySet().removeAll(hotProductIds);
+        writeRows(released);
+
+        Map<Long, int[]> initial = new LinkedHashMap<>();
+        for (Inventory inventory : inventoryRepository.findByProductIdInOrderByProductIdAsc(hotProductIds)) {
+            // bucketed stock stays in its buckets; switch the product back to one row to sell it from here
+            if (inventory.getStockBuckets() != null) {
+                continue;
+            }
+            long[] recovered = journaled.get(inventory.getProductId());
+            long[] balance = committed.get(inventory.getProductId());
+            if (recovered != null && balance != null && !Arrays.equals(recovered, balance)) {
+                log.warn("Journal of product ID: {} holds {} available / {} reserved but its committed movements "
+                                + "{} / {}; dropping changes of transactions that never committed",
+                        inventory.getProductId(), recovered[0], recovered[1], balance[0], balance[1]);
+                recovered = balance;
+            }
+            initial.put(inventory.getProductId(), recovered != null
+                    ? new int[] {(int) recovered[0], (int) recovered[1]}
+                    : new int[] {inventory.getAvailableQuantity(), inventory.getReservedQuantity()});
+        }
+        if (initial.size() < hotProductIds.size()) {
+            log.warn("Flash-sale products without inventory or with bucketed stock are not managed by the ledger: {}",
+                    hotProductIds.stream().filter(id -> !initial.containsKey(id)).sorted().toList());
+        }
+
+        StockLedger loaded = new StockLedger(initial.keySet().stream().mapToLong(Long::longValue).toArray());
+        initial.forEach((productId, quantities) -> loaded.set(productId, quantities[0], quantities[1]));
+        journal = new StockJournal(journalFile, initial, compactAfterBytes);
+        ledger = loaded;
+        writeBehind();
+
+        log.info("Flash-sale ledger owns the stock of products {} ({} recovered from the journal)",
+                initial.keySet(), initial.keySet().stream().filter(journaled::containsKey).count());
+    }
+
+    public boolean owns(Long productId) {
+        return ledger != null && productId != null && ledger.owns(productId);
+    }
+
+    /**
+     * Current packed quantities, read with {@link StockLedger#available} and {@link StockLedger#reserved}.
+     */
+    public long state(long productId) {
+        return ledger.state(productId);
+    }
+
+    /**
+     * Move quantity from available to reserved; false when not enough is available.
+     */
+    public boolean reserve(long productId, int quantity) {
+        return record(productId, ledger.reserve(productId, quantity), -quantity, quantity, true);
+    }
+
+    /**
+     * Move quantity from reserved back to available; false when not enough is reserved.
+     */
+    public boolean release(long productId, int quantity) {
+        return record(productId, ledger.release(productId, quantity), quantity, -quantity, true);
+    }
+
+    /**
+     * Remove quantity from reserved for good; false when not enough is reserved.
+     */
+    public boolean confirm(long productId, int quantity) {
+        return record(productId, ledger.confirm(productId, quantity), 0, -quantity, true);
+    }
+
+    /**
+     * Copy the journaled quantities of changed products to the inventories table.
+     */
+    @Scheduled(fixedDelayString = "${app.flash-sale.write-behind-interval:PT1S}")
+    public synchronized void writeBehind() {
+        if (journal == null) {
+            return;
+        }
+
+        Map<Long, long[]> changed = new LinkedHashMap<>();
+        journal.journaled().forEach((productId, quantities) -> {
+            if (!Arrays.equals(quantities, written.get(productId))) {
+                changed.put(productId, quantities);
+            }
+        });
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        try {
+            writeRows(changed);
+            written.putAll(changed);
+            log.debug("Wrote flash-sale stock of {} products to the database", changed.size());
+        } catch (RuntimeException ex) {
+            log.error("Flash-sale write-behind failed, retrying next interval", ex);
+        }
+    }
+
+    /**
+     * Sync everything queued to the journal, then give the table the final quantities.
+     */
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (journal != null) {
+            journal.close();
+            writeBehind();
+        }
+        if (lockChannel != null) {
+            // closing the channel releases the lock
+            lockChannel.close();
+            lockChannel = null;
+        }
+    }
+
+    /**
+     * Journal a change already applied to the ledger and wait for it to be durable. A change
+     * made inside a transaction that later rolls back is reverted by an opposite change.
+     */
+    private boolean record(long productId, long state, int availableDelta, int reservedDelta,
+                           boolean revertOnRollback) {
+        if (state == StockLedger.REJECTED) {
+            return false;
+        }
+
+        try {
+            journal.append(productId, availableDelta, reservedDelta).join();
+        } catch (CompletionException ex) {
+            ledger.update(productId, -availableDelta, -reservedDelta);
+            log.error("Could not journal stock change for product ID: {}", productId, ex.getCause());
+            throw new BusinessException("Stock change for product ID: " + productId + " could not be recorded");
+        }
+
+        if (revertOnRollback && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        revert(productId, availableDelta, reservedDelta);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    private void revert(long productId, int availableDelta, int reservedDelta) {
+        try {
+            if (!record(productId, ledger.update(productId, -availableDelta, -reservedDelta),
+                    -availableDelta, -reservedDelta, false)) {
+                log.error("Could not revert rolled back stock change for product ID: {}", productId);
+            }
+        } catch (BusinessException ex) {
+            log.error("Could not revert rolled back stock change for product ID: {}", productId, ex);
+        }
+    }
+
+    /**
+     * Hold an exclusive lock on the journal's lock file until shutdown, so a second
+     * instance on this host cannot replay and append to the same journal.
+     */
+    private void lockJournal() throws IOException {
+        Path lockFile = journalFile.resolveSibling(journalFile.getFileName() + ".lock");
+        Files.createDirectories(lockFile.toAbsolutePath().getParent());
+        FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("Flash-sale journal " + journalFile
+                    + " is in use by another instance; only one instance may run in flash-sale mode");
+        }
+        lockChannel = channel;
+    }
+
+    /**
+     * {available, reserved} per product as recorded by its committed movements: its latest
+     * snapshot plus the movements since. Products without movements are left out.
+     */
+    private Map<Long, long[]> committedBalances(Set<Long> productIds) {
+        Map<Long, long[]> balances = new HashMap<>();
+        for (StockSnapshot snapshot : snapshotRepository.findLatestByProductIdIn(productIds)) {
+            balances.put(snapshot.getProductId(),
+                    new long[] {snapshot.getAvailableQuantity(), snapshot.getReservedQuantity()});
+        }
+        for (StockBalanceView delta : movementRepository.sumSinceLatestSnapshotByProductIdIn(productIds)) {
+            long[] balance = balances.computeIfAbsent(delta.getProductId(), id -> new long[2]);
+            balance[0] += delta.getAvailable();
+            balance[1] += delta.getReserved();
+        }
+        return balances;
+    }
+
+    private void writeRows(Map<Long, long[]> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, counts) -> rows.add(new Object[] {counts[0], counts[1], now, productId}));
+        jdbcTemplate.batchUpdate(WRITE_BEHIND_SQL, rows);
+    }
+}
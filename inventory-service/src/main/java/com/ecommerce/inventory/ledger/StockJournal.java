@@ -0,0 +1,297 @@
+package com.ecommerce.inventory.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of stock changes with group commit.
+ *
+ * Callers append a delta and wait on the returned future; a single writer thread
+ * drains everything queued, writes it with one {@code write} and makes it durable
+ * with one {@code fsync}, then completes all the futures of that group. Under load
+ * thousands of changes share one disk flush.
+ *
+ * The file starts with one SNAPSHOT record per product followed by DELTA records.
+ * Deltas commute, so replay gives exact totals whatever order concurrent changes
+ * were journaled in. A torn or corrupt tail, left by a crash during a write, ends
+ * the replay: the changes in it were never acknowledged. When the file grows past
+ * its limit the writer rewrites it as snapshots of the journaled totals.
+ */
+@Slf4j
+public class StockJournal implements Closeable {
+
+    private static final byte SNAPSHOT = 1;
+    private static final byte DELTA = 2;
+    // type, productId, available, reserved, crc32 of the preceding bytes
+    private static final int RECORD_SIZE = 1 + 8 + 4 + 4 + 4;
+    private static final int MAX_GROUP = 4096;
+
+    private final Path file;
+    private final long compactAfterBytes;
+    private final long[] productIds;
+    private final long[] journaledAvailable;
+    private final long[] journaledReserved;
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(64 * 1024);
+    private final ByteBuffer buffer = ByteBuffer.allocate(MAX_GROUP * RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final Thread writer;
+
+    private FileChannel channel;
+    private volatile boolean running = true;
+    private volatile IOException failure;
+
+    /**
+     * Start a fresh journal holding one snapshot per product, replacing any existing file.
+     *
+     * @param initial available and reserved quantity per product
+     */
+    public StockJournal(Path file, Map<Long, int[]> initial, long compactAfterBytes) throws IOException {
+        this.file = file;
+        this.compactAfterBytes = compactAfterBytes;
+        this.productIds = initial.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        this.journaledAvailable = new long[productIds.length];
+        this.journaledReserved = new long[productIds.length];
+        for (int i = 0; i < productIds.length; i++) {
+            int[] quantities = initial.get(productIds[i]);
+            journaledAvailable[i] = quantities[0];
+            journaledReserved[i] = quantities[1];
+        }
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        rewrite();
+
+        this.writer = new Thread(this::writeLoop, "stock-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue a change; the future completes once it is on disk, or fails if it never will be.
+     */
+    public CompletableFuture<Void> append(long productId, int availableDelta, int reservedDelta) {
+        if (Arrays.binarySearch(productIds, productId) < 0) {
+            throw new IllegalArgumentException("Product ID is not journaled: " + productId);
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (!running || failure != null) {
+            done.completeExceptionally(new IOException("Stock journal is closed or failed", failure));
+            return done;
+        }
+        try {
+            queue.put(new Entry(productId, availableDelta, reservedDelta, done));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            done.completeExceptionally(ex);
+        }
+        return done;
+    }
+
+    /**
+     * Journaled totals per product, as {available, reserved}.
+     */
+    public synchronized Map<Long, long[]> journaled() {
+        Map<Long, long[]> totals = new LinkedHashMap<>();
+        for (int i = 0; i < productIds.length; i++) {
+            totals.put(productIds[i], new long[] {journaledAvailable[i], journaledReserved[i]});
+        }
+        return totals;
+    }
+
+    /**
+     * Rebuild the totals recorded in a journal file; empty when there is no file.
+     */
+    public static Map<Long, long[]> replay(Path file) throws IOException {
+        Map<Long, long[]> totals = new LinkedHashMap<>();
+        if (!Files.exists(file)) {
+            return totals;
+        }
+
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32 checksum = new CRC32();
+        long records = 0;
+        while (content.remaining() >= RECORD_SIZE) {
+            int start = content.position();
+            byte type = content.get();
+            long productId = content.getLong();
+            int available = content.getInt();
+            int reserved = content.getInt();
+            int expected = content.getInt();
+
+            checksum.reset();
+            checksum.update(content.array(), start, RECORD_SIZE - 4);
+            if ((int) checksum.getValue() != expected || (type != SNAPSHOT && type != DELTA)) {
+                log.warn("Stock journal {} has a corrupt record at byte {}, ignoring the rest", file, start);
+                break;
+            }
+
+            long[] total = totals.computeIfAbsent(productId, id -> new long[2]);
+            if (type == SNAPSHOT) {
+                total[0] = available;
+                total[1] = reserved;
+            } else {
+                total[0] += available;
+                total[1] += reserved;
+            }
+            records++;
+        }
+
+        log.info("Replayed {} stock journal records for {} products from {}", records, totals.size(), file);
+        return totals;
+    }
+
+    /**
+     * Stop accepting changes, write and sync everything already queued, close the file.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        failPending(new IOException("Stock journal closed"));
+        synchronized (this) {
+            channel.close();
+        }
+    }
+
+    private void writeLoop() {
+        List<Entry> group = new ArrayList<>(MAX_GROUP);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, MAX_GROUP - 1);
+                commit(group);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                group.clear();
+            }
+        }
+        failPending(new IOException("Stock journal closed"));
+    }
+
+    private void commit(List<Entry> group) {
+        if (failure != null) {
+            group.forEach(entry -> entry.done().completeExceptionally(failure));
+            return;
+        }
+
+        long committedSize = -1;
+        try {
+            buffer.clear();
+            for (Entry entry : group) {
+                put(DELTA, entry.productId(), entry.availableDelta(), entry.reservedDelta());
+            }
+            buffer.flip();
+            synchronized (this) {
+                committedSize = channel.size();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+                for (Entry entry : group) {
+                    int index = Arrays.binarySearch(productIds, entry.productId());
+                    journaledAvailable[index] += entry.availableDelta();
+                    journaledReserved[index] += entry.reservedDelta();
+                }
+                if (channel.size() > compactAfterBytes) {
+                    rewrite();
+                }
+            }
+            group.forEach(entry -> entry.done().complete(null));
+        } catch (IOException ex) {
+            log.error("Stock journal write failed, rejecting further changes", ex);
+            failure = ex;
+            // the group is reported as failed, so none of it may come back on replay
+            truncate(committedSize);
+            group.forEach(entry -> entry.done().completeExceptionally(ex));
+            failPending(ex);
+        }
+    }
+
+    /**
+     * Replace the file with snapshots of the journaled totals: written to a temporary
+     * file, synced, then atomically moved over the journal.
+     */
+    private void rewrite() throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer snapshots = ByteBuffer.allocate(Math.max(1, productIds.length) * RECORD_SIZE);
+        for (int i = 0; i < productIds.length; i++) {
+            put(snapshots, SNAPSHOT, productIds[i], (int) journaledAvailable[i], (int) journaledReserved[i]);
+        }
+        snapshots.flip();
+
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (snapshots.hasRemaining()) {
+                out.write(snapshots);
+            }
+            out.force(true);
+        }
+
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private synchronized void truncate(long size) {
+        if (size < 0) {
+            return;
+        }
+        try {
+            channel.truncate(size);
+            channel.force(false);
+        } catch (IOException ex) {
+            log.error("Could not cut failed records from stock journal {}", file, ex);
+        }
+    }
+
+    private void put(byte type, long productId, int available, int reserved) {
+        put(buffer, type, productId, available, reserved);
+    }
+
+    private void put(ByteBuffer target, byte type, long productId, int available, int reserved) {
+        int start = target.position();
+        target.put(type).putLong(productId).putInt(available).putInt(reserved);
+        crc.reset();
+        crc.update(target.array(), start, RECORD_SIZE - 4);
+        target.putInt((int) crc.getValue());
+    }
+
+    private void failPending(IOException cause) {
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            entry.done().completeExceptionally(cause);
+        }
+    }
+
+    private record Entry(long productId, int availableDelta, int reservedDelta, CompletableFuture<Void> done) {
+    }
+}
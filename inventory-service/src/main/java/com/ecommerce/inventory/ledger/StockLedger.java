@@ -0,0 +1,150 @@
+package com.ecommerce.inventory.ledger;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free stock counters for a fixed set of products.
+ *
+ * Available and reserved quantities of a product are packed into one long
+ * (available in the high 32 bits, reserved in the low 32), so a reservation moves
+ * units between them with a single compare-and-set and no reader ever sees one
+ * half of a move. Products are found through an open-addressing table of
+ * primitive long keys; neither lookups nor updates allocate.
+ */
+public class StockLedger {
+
+    /**
+     * Returned by the update methods when the change would make a quantity negative
+     * or overflow it. Valid states are never negative, since available is at most
+     * {@link Integer#MAX_VALUE}.
+     */
+    public static final long REJECTED = -1L;
+
+    private static final long EMPTY = 0L;
+
+    // one counter per 64-byte cache line, so threads selling different products do not contend
+    private static final int STRIDE = 8;
+
+    private final long[] keys;
+    private final int mask;
+    private final AtomicLongArray states;
+
+    /**
+     * @param productIds the products owned by this ledger, all positive; every counter starts at zero
+     */
+    public StockLedger(long[] productIds) {
+        int capacity = Integer.highestOneBit(Math.max(2, productIds.length) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.mask = capacity - 1;
+        this.states = new AtomicLongArray(capacity * STRIDE);
+
+        for (long productId : productIds) {
+            if (productId <= 0) {
+                throw new IllegalArgumentException("Product ID must be positive: " + productId);
+            }
+            int slot = slot(productId);
+            while (keys[slot] != EMPTY && keys[slot] != productId) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = productId;
+        }
+    }
+
+    public boolean owns(long productId) {
+        return indexOf(productId) >= 0;
+    }
+
+    public long state(long productId) {
+        return states.get(requireIndex(productId));
+    }
+
+    public void set(long productId, int available, int reserved) {
+        if (available < 0 || reserved < 0) {
+            throw new IllegalArgumentException("Quantities cannot be negative for product ID: " + productId);
+        }
+        states.set(requireIndex(productId), pack(available, reserved));
+    }
+
+    /**
+     * Move quantity from available to reserved; returns the new state or {@link #REJECTED}.
+     */
+    public long reserve(long productId, int quantity) {
+        return update(productId, -quantity, quantity);
+    }
+
+    /**
+     * Move quantity from reserved back to available; returns the new state or {@link #REJECTED}.
+     */
+    public long release(long productId, int quantity) {
+        return update(productId, quantity, -quantity);
+    }
+
+    /**
+     * Remove quantity from reserved for good; returns the new state or {@link #REJECTED}.
+     */
+    public long confirm(long productId, int quantity) {
+        return update(productId, 0, -quantity);
+    }
+
+    /**
+     * Add both deltas in one step, provided neither quantity goes negative;
+     * returns the new state or {@link #REJECTED}.
+     */
+    public long update(long productId, long availableDelta, long reservedDelta) {
+        int index = requireIndex(productId);
+        while (true) {
+            long current = states.get(index);
+            long available = available(current) + availableDelta;
+            long reserved = reserved(current) + reservedDelta;
+            if (available < 0 || reserved < 0 || available > Integer.MAX_VALUE || reserved > Integer.MAX_VALUE) {
+                return REJECTED;
+            }
+            long next = pack((int) available, (int) reserved);
+            if (states.compareAndSet(index, current, next)) {
+                return next;
+            }
+        }
+    }
+
+    public static int available(long state) {
+        return (int) (state >>> 32);
+    }
+
+    public static int reserved(long state) {
+        return (int) state;
+    }
+
+    private static long pack(int available, int reserved) {
+        return ((long) available << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    private int requireIndex(long productId) {
+        int index = indexOf(productId);
+        if (index < 0) {
+            throw new IllegalArgumentException("Product ID is not in the ledger: " + productId);
+        }
+        return index;
+    }
+
+    private int indexOf(long productId) {
+        if (productId <= 0) {
+            return -1;
+        }
+        int slot = slot(productId);
+        while (true) {
+            long key = keys[slot];
+            if (key == productId) {
+                return slot * STRIDE;
+            }
+            if (key == EMPTY) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int slot(long productId) {
+        long hash = productId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -2,14 +2,21 @@ package com.ecommerce.inventory.mapper;
 
 import com.ecommerce.inventory.dto.InventoryRequestDTO;
 import com.ecommerce.inventory.dto.InventoryResponseDTO;
+import com.ecommerce.inventory.dto.StockMovementDTO;
 import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.entity.StockMovement;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface InventoryMapper {
 
+    @Mapping(target = "reservationId", ignore = true)
+    @Mapping(target = "reservationExpiresAt", ignore = true)
     InventoryResponseDTO inventoryToInventoryResponseDTO(Inventory inventory);
 
     Inventory inventoryRequestDTOToInventory(InventoryRequestDTO inventoryRequestDTO);
+
+    StockMovementDTO stockMovementToStockMovementDTO(StockMovement stockMovement);
 }
@@ -0,0 +1,154 @@
+package com.ecommerce.inventory.movement;
+
+import com.ecommerce.inventory.bucket.BucketedStock;
+import com.ecommerce.inventory.dto.StockConsistencyReportDTO;
+import com.ecommerce.inventory.dto.StockMismatchDTO;
+import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.entity.StockSnapshot;
+import com.ecommerce.inventory.ledger.FlashSaleLedger;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.StockMovementRepository;
+import com.ecommerce.inventory.repository.StockSnapshotRepository;
+import com.ecommerce.inventory.repository.projection.StockBalanceView;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays the stock movements and compares the result with the inventories counters.
+ *
+ * Each product's balance is computed twice, from the full replay and from its latest
+ * snapshot plus the movements since, and both must equal the row. The check reads
+ * everything in one repeatable-read transaction, so movements and counters changed
+ * together by a concurrent transaction are either both seen or both not. A bucketed
+ * product's counters are the sums of its buckets, not its lagging row.
+ */
+@Component
+@Slf4j
+public class StockConsistencyChecker {
+
+    private static final long[] NONE = {0, 0};
+
+    private final InventoryRepository inventoryRepository;
+    private final StockMovementRepository movementRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final FlashSaleLedger flashSaleLedger;
+    private final BucketedStock bucketedStock;
+    private final TransactionTemplate snapshotTransaction;
+    private final AtomicInteger lastMismatches = new AtomicInteger();
+
+    public StockConsistencyChecker(
+            InventoryRepository inventoryRepository,
+            StockMovementRepository movementRepository,
+            StockSnapshotRepository snapshotRepository,
+            FlashSaleLedger flashSaleLedger,
+            BucketedStock bucketedStock,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.inventoryRepository = inventoryRepository;
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.flashSaleLedger = flashSaleLedger;
+        this.bucketedStock = bucketedStock;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Gauge.builder("inventory.movements.mismatches", lastMismatches, AtomicInteger::get)
+                .description("Products whose counters disagreed with their movements in the last scheduled check")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock-movements.check-interval:PT1H}",
+            initialDelayString = "${app.stock-movements.check-interval:PT1H}")
+    public void scheduledCheck() {
+        try {
+            StockConsistencyReportDTO report = check();
+            lastMismatches.set(report.getMismatches().size());
+            if (!report.getMismatches().isEmpty()) {
+                log.warn("Stock movements disagree with the counters of {} products: {}",
+                        report.getMismatches().size(), report.getMismatches());
+            }
+        } catch (RuntimeException ex) {
+            log.error("Stock consistency check failed, retrying next interval", ex);
+        }
+    }
+
+    public StockConsistencyReportDTO check() {
+        return snapshotTransaction.execute(status -> {
+            Map<Long, long[]> counters = new HashMap<>();
+            List<Long> bucketed = new ArrayList<>();
+            for (Inventory inventory : inventoryRepository.findAll()) {
+                counters.put(inventory.getProductId(),
+                        new long[] {inventory.getAvailableQuantity(), inventory.getReservedQuantity()});
+                if (inventory.getStockBuckets() != null) {
+                    bucketed.add(inventory.getProductId());
+                }
+            }
+            counters.putAll(bucketedStock.totals(bucketed));
+            Map<Long, long[]> replayed = toBalances(movementRepository.sumAll());
+            Map<Long, long[]> fromSnapshots = toBalances(movementRepository.sumSinceLatestSnapshot());
+            for (StockSnapshot snapshot : snapshotRepository.findLatest()) {
+                long[] balance = fromSnapshots.computeIfAbsent(snapshot.getProductId(), id -> new long[2]);
+                balance[0] += snapshot.getAvailableQuantity();
+                balance[1] += snapshot.getReservedQuantity();
+            }
+
+            TreeSet<Long> productIds = new TreeSet<>(counters.keySet());
+            productIds.addAll(replayed.keySet());
+            int skipped = 0;
+            List<StockMismatchDTO> mismatches = new ArrayList<>();
+            for (Long productId : productIds) {
+                if (flashSaleLedger.owns(productId)) {
+                    skipped++;
+                    continue;
+                }
+                long[] row = counters.getOrDefault(productId, NONE);
+                long[] replay = replayed.getOrDefault(productId, NONE);
+                long[] snapshot = fromSnapshots.getOrDefault(productId, NONE);
+                if (row[0] != replay[0] || row[1] != replay[1] || row[0] != snapshot[0] || row[1] != snapshot[1]) {
+                    mismatches.add(StockMismatchDTO.builder()
+                            .productId(productId)
+                            .availableQuantity(row[0])
+                            .reservedQuantity(row[1])
+                            .replayedAvailable(replay[0])
+                            .replayedReserved(replay[1])
+                            .snapshotAvailable(snapshot[0])
+                            .snapshotReserved(snapshot[1])
+                            .build());
+                }
+            }
+
+            return StockConsistencyReportDTO.builder()
+                    .checkedAt(LocalDateTime.now())
+                    .productsChecked(productIds.size() - skipped)
+                    .productsSkipped(skipped)
+                    .mismatches(mismatches)
+                    .build();
+        });
+    }
+
+    private static Map<Long, long[]> toBalances(List<StockBalanceView> views) {
+        Map<Long, long[]> balances = new HashMap<>();
+        for (StockBalanceView view : views) {
+            balances.put(view.getProductId(), new long[] {view.getAvailable(), view.getReserved()});
+        }
+        return balances;
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.inventory.movement;
+
+import com.ecommerce.inventory.entity.MovementType;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends stock movements to the stock_movements table.
+ *
+ * Movements recorded inside a transaction are collected and inserted with one JDBC batch
+ * just before it commits, so an order of N lines costs one round trip, not N entity
+ * inserts, and nothing is written for a transaction that rolls back.
+ */
+@Component
+@DependsOn("flashSaleLedger")
+@Slf4j
+public class StockMovementRecorder {
+
+    private static final String INSERT_SQL = "INSERT INTO stock_movements "
+            + "(product_id, movement_type, available_delta, reserved_delta, order_reference, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // inventories that predate the ledger start from their current counters
+    private static final String OPENING_SQL = "INSERT INTO stock_movements "
+            + "(product_id, movement_type, available_delta, reserved_delta, order_reference, created_at) "
+            + "SELECT i.product_id, 'OPENING', i.available_quantity, i.reserved_quantity, NULL, ? FROM inventories i "
+            + "WHERE NOT EXISTS (SELECT 1 FROM stock_movements m WHERE m.product_id = i.product_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockMovementRecorder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Runs before the web server starts and after the flash-sale ledger has written its
+     * recovered quantities back, so the opening movements match the rows.
+     */
+    @PostConstruct
+    public void recordOpeningBalances() {
+        int opened = jdbcTemplate.update(OPENING_SQL, Timestamp.valueOf(LocalDateTime.now()));
+        if (opened > 0) {
+            log.info("Recorded opening stock movements for {} products", opened);
+        }
+    }
+
+    /**
+     * Record quantity units moved as the type describes.
+     */
+    public void record(Long productId, MovementType type, int quantity, String orderReference) {
+        record(productId, type, type.availableDelta(quantity), type.reservedDelta(quantity), orderReference);
+    }
+
+    public void record(Long productId, MovementType type, int availableDelta, int reservedDelta,
+                       String orderReference) {
+        Object[] row = {productId, type.name(), availableDelta, reservedDelta, orderReference,
+                Timestamp.valueOf(LocalDateTime.now())};
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending().add(row);
+        } else {
+            jdbcTemplate.update(INSERT_SQL, row);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> pending() {
+        List<Object[]> rows = (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+        if (rows != null) {
+            return rows;
+        }
+
+        List<Object[]> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(StockMovementRecorder.this);
+            }
+        });
+        return created;
+    }
+}
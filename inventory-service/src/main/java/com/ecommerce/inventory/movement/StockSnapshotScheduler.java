@@ -0,0 +1,100 @@
+package com.ecommerce.inventory.movement;
+
+import com.ecommerce.inventory.entity.StockSnapshot;
+import com.ecommerce.inventory.repository.StockMovementRepository;
+import com.ecommerce.inventory.repository.StockSnapshotRepository;
+import com.ecommerce.inventory.repository.projection.StockBalanceView;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Folds the movements recorded since the last run into a new snapshot per changed product.
+ *
+ * Movement IDs are handed out when a row is inserted but become visible when its
+ * transaction commits, so a run only covers movements older than the settle time:
+ * by then the transaction that wrote them has committed or rolled back, and no
+ * movement with a lower ID can still appear behind the snapshot.
+ */
+@Component
+@Slf4j
+public class StockSnapshotScheduler {
+
+    private final StockMovementRepository movementRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration settleTime;
+
+    public StockSnapshotScheduler(
+            StockMovementRepository movementRepository,
+            StockSnapshotRepository snapshotRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.stock-movements.settle-time:PT1M}") Duration settleTime
+    ) {
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settleTime = settleTime;
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock-movements.snapshot-interval:PT5M}",
+            initialDelayString = "${app.stock-movements.snapshot-interval:PT5M}")
+    public void snapshot() {
+        try {
+            takeSnapshots();
+        } catch (RuntimeException ex) {
+            // another instance may have taken the same snapshots; the next run starts from theirs
+            log.error("Stock snapshot failed, retrying next interval", ex);
+        }
+    }
+
+    /**
+     * Snapshot every product moved since the last run; returns the number of snapshots written.
+     */
+    public int takeSnapshots() {
+        Integer written = transactionTemplate.execute(status -> {
+            Long upToId = movementRepository.findLastIdCreatedBefore(LocalDateTime.now().minus(settleTime));
+            Long lastId = snapshotRepository.findLastMovementId();
+            long afterId = lastId != null ? lastId : 0L;
+            if (upToId == null || upToId <= afterId) {
+                return 0;
+            }
+
+            List<StockBalanceView> deltas = movementRepository.sumBetween(afterId, upToId);
+            Map<Long, StockSnapshot> previous = snapshotRepository
+                    .findLatestByProductIdIn(deltas.stream().map(StockBalanceView::getProductId).toList()).stream()
+                    .collect(Collectors.toMap(StockSnapshot::getProductId, Function.identity()));
+
+            List<StockSnapshot> snapshots = deltas.stream()
+                    .map(delta -> {
+                        StockSnapshot before = previous.get(delta.getProductId());
+                        return StockSnapshot.builder()
+                                .productId(delta.getProductId())
+                                .lastMovementId(upToId)
+                                .availableQuantity((before != null ? before.getAvailableQuantity() : 0L)
+                                        + delta.getAvailable())
+                                .reservedQuantity((before != null ? before.getReservedQuantity() : 0L)
+                                        + delta.getReserved())
+                                .build();
+                    })
+                    .toList();
+            snapshotRepository.saveAll(snapshots);
+
+            log.info("Snapshotted stock of {} products up to movement {}", snapshots.size(), upToId);
+            return snapshots.size();
+        });
+        return written != null ? written : 0;
+    }
+}
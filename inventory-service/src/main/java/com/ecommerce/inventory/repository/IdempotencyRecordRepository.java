@@ -0,0 +1,30 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.entity.IdempotencyRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByOperationAndIdempotencyKey(String operation, String idempotencyKey);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query("select r.id from IdempotencyRecord r order by r.id desc")
+    List<Long> findIdsNewestFirst(Pageable pageable);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id <= :id")
+    int deleteUpToId(@Param("id") Long id);
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.entity.InventoryBucket;
+import com.ecommerce.inventory.repository.projection.StockBalanceView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InventoryBucketRepository extends JpaRepository<InventoryBucket, Long> {
+
+    /**
+     * Counters of each listed bucketed product, summed over its buckets.
+     */
+    @Query("select b.productId as productId, sum(b.availableQuantity) as available, sum(b.reservedQuantity) as reserved "
+            + "from InventoryBucket b where b.productId in :productIds group by b.productId")
+    List<StockBalanceView> sumByProductIdIn(@Param("productIds") Collection<Long> productIds);
+}
@@ -1,13 +1,81 @@
 package com.ecommerce.inventory.repository;
 
 import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.repository.projection.AvailableQuantityView;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
 
     Optional<Inventory> findByProductId(Long productId);
+
+    List<Inventory> findByProductIdInOrderByProductIdAsc(Collection<Long> productIds);
+
+    /**
+     * Available quantity of each listed product that has inventory, in one IN query.
+     */
+    @Query("select i.productId as productId, i.availableQuantity as availableQuantity, "
+            + "i.stockBuckets as stockBuckets from Inventory i where i.productId in :productIds")
+    List<AvailableQuantityView> findAvailableQuantities(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Take the row lock a guarded update would take, before locking the product's buckets.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Inventory i where i.productId = :productId")
+    Optional<Inventory> findByProductIdForUpdate(@Param("productId") Long productId);
+
+    /**
+     * Buckets holding the product's stock: 0 while its row holds it, empty when there is no inventory.
+     */
+    @Query("select coalesce(i.stockBuckets, 0) from Inventory i where i.productId = :productId")
+    Optional<Integer> findStockBuckets(@Param("productId") Long productId);
+
+    @Query("select i.productId from Inventory i where i.stockBuckets is not null")
+    List<Long> findBucketedProductIds();
+
+    /**
+     * Move quantity from available to reserved in one guarded statement.
+     * Returns 0 when the product has no inventory, not enough available stock, or is bucketed.
+     */
+    @Modifying
+    @Query("update Inventory i set i.availableQuantity = i.availableQuantity - :quantity, "
+            + "i.reservedQuantity = i.reservedQuantity + :quantity, i.updatedAt = :now, i.version = i.version + 1 "
+            + "where i.productId = :productId and i.availableQuantity >= :quantity and i.stockBuckets is null")
+    int reserve(@Param("productId") Long productId,
+                @Param("quantity") int quantity,
+                @Param("now") LocalDateTime now);
+
+    /**
+     * Move quantity from reserved back to available; 0 when not enough is reserved.
+     */
+    @Modifying
+    @Query("update Inventory i set i.availableQuantity = i.availableQuantity + :quantity, "
+            + "i.reservedQuantity = i.reservedQuantity - :quantity, i.updatedAt = :now, i.version = i.version + 1 "
+            + "where i.productId = :productId and i.reservedQuantity >= :quantity and i.stockBuckets is null")
+    int release(@Param("productId") Long productId,
+                @Param("quantity") int quantity,
+                @Param("now") LocalDateTime now);
+
+    /**
+     * Remove quantity from reserved for good; 0 when not enough is reserved.
+     */
+    @Modifying
+    @Query("update Inventory i set i.reservedQuantity = i.reservedQuantity - :quantity, i.updatedAt = :now, "
+            + "i.version = i.version + 1 "
+            + "where i.productId = :productId and i.reservedQuantity >= :quantity and i.stockBuckets is null")
+    int confirm(@Param("productId") Long productId,
+                @Param("quantity") int quantity,
+                @Param("now") LocalDateTime now);
 }
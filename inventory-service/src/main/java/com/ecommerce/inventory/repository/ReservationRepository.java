@@ -0,0 +1,54 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.entity.Reservation;
+import com.ecommerce.inventory.entity.ReservationStatus;
+import com.ecommerce.inventory.repository.projection.ReservationExpiryView;
+import com.ecommerce.inventory.repository.projection.ReservationStatusCount;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Reservation r where r.id = :id")
+    Optional<Reservation> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Active reservations of one order for a product, oldest deadline first, locked for closing.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Reservation r where r.orderReference = :orderReference and r.productId = :productId "
+            + "and r.status = com.ecommerce.inventory.entity.ReservationStatus.ACTIVE order by r.expiresAt, r.id")
+    List<Reservation> findActiveForUpdate(@Param("orderReference") String orderReference,
+                                          @Param("productId") Long productId);
+
+    /**
+     * Active reservations of a product held for no order, oldest deadline first, locked for closing.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Reservation r where r.orderReference is null and r.productId = :productId "
+            + "and r.status = com.ecommerce.inventory.entity.ReservationStatus.ACTIVE order by r.expiresAt, r.id")
+    List<Reservation> findActiveWithoutOrderForUpdate(@Param("productId") Long productId);
+
+    /**
+     * Every active reservation, read through idx_reservation_status_expires to rebuild the expiry wheel.
+     */
+    @Query("select r.id as id, r.expiresAt as expiresAt from Reservation r "
+            + "where r.status = com.ecommerce.inventory.entity.ReservationStatus.ACTIVE")
+    Stream<ReservationExpiryView> streamActive();
+
+    @Query("select r.status as status, count(r) as count from Reservation r group by r.status")
+    List<ReservationStatusCount> countByStatus();
+
+    long countByStatusAndExpiresAtBefore(ReservationStatus status, LocalDateTime time);
+}
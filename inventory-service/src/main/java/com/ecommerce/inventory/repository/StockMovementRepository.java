@@ -0,0 +1,53 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.entity.StockMovement;
+import com.ecommerce.inventory.repository.projection.StockBalanceView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    Page<StockMovement> findByProductIdOrderByIdDesc(Long productId, Pageable pageable);
+
+    /**
+     * Newest movement recorded before the given time; null when there is none.
+     */
+    @Query("select max(m.id) from StockMovement m where m.createdAt < :before")
+    Long findLastIdCreatedBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * Deltas per product of the movements after afterId up to and including upToId.
+     */
+    @Query("select m.productId as productId, sum(m.availableDelta) as available, sum(m.reservedDelta) as reserved "
+            + "from StockMovement m where m.id > :afterId and m.id <= :upToId group by m.productId")
+    List<StockBalanceView> sumBetween(@Param("afterId") long afterId, @Param("upToId") long upToId);
+
+    /**
+     * Deltas per product of every movement: a full replay of the ledger.
+     */
+    @Query("select m.productId as productId, sum(m.availableDelta) as available, sum(m.reservedDelta) as reserved "
+            + "from StockMovement m group by m.productId")
+    List<StockBalanceView> sumAll();
+
+    /**
+     * Deltas per product of the movements not yet covered by the product's latest snapshot.
+     */
+    @Query("select m.productId as productId, sum(m.availableDelta) as available, sum(m.reservedDelta) as reserved "
+            + "from StockMovement m where m.id > coalesce((select max(s.lastMovementId) from StockSnapshot s "
+            + "where s.productId = m.productId), 0) group by m.productId")
+    List<StockBalanceView> sumSinceLatestSnapshot();
+
+    @Query("select m.productId as productId, sum(m.availableDelta) as available, sum(m.reservedDelta) as reserved "
+            + "from StockMovement m where m.productId in :productIds and m.id > coalesce((select max(s.lastMovementId) "
+            + "from StockSnapshot s where s.productId = m.productId), 0) group by m.productId")
+    List<StockBalanceView> sumSinceLatestSnapshotByProductIdIn(@Param("productIds") Collection<Long> productIds);
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.inventory.repository;
+
+import com.ecommerce.inventory.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    /**
+     * Movement the most recent snapshot run covered up to; null before the first run.
+     */
+    @Query("select max(s.lastMovementId) from StockSnapshot s")
+    Long findLastMovementId();
+
+    /**
+     * The latest snapshot of every product that has one.
+     */
+    @Query("select s from StockSnapshot s where s.lastMovementId = "
+            + "(select max(l.lastMovementId) from StockSnapshot l where l.productId = s.productId)")
+    List<StockSnapshot> findLatest();
+
+    @Query("select s from StockSnapshot s where s.productId in :productIds and s.lastMovementId = "
+            + "(select max(l.lastMovementId) from StockSnapshot l where l.productId = s.productId)")
+    List<StockSnapshot> findLatestByProductIdIn(@Param("productIds") Collection<Long> productIds);
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.inventory.repository.projection;
+
+public interface AvailableQuantityView {
+
+    Long getProductId();
+
+    int getAvailableQuantity();
+
+    Integer getStockBuckets();
+}
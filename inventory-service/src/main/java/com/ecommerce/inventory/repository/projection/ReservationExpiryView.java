@@ -0,0 +1,13 @@
+package com.ecommerce.inventory.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Just enough of an active reservation to schedule its expiry.
+ */
+public interface ReservationExpiryView {
+
+    Long getId();
+
+    LocalDateTime getExpiresAt();
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.inventory.repository.projection;
+
+import com.ecommerce.inventory.entity.ReservationStatus;
+
+public interface ReservationStatusCount {
+
+    ReservationStatus getStatus();
+
+    long getCount();
+}
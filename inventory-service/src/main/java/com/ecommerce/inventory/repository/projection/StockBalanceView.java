@@ -0,0 +1,13 @@
+package com.ecommerce.inventory.repository.projection;
+
+/**
+ * Summed movement deltas of one product.
+ */
+public interface StockBalanceView {
+
+    Long getProductId();
+
+    long getAvailable();
+
+    long getReserved();
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.inventory.reservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a reservation is stored; its expiry is scheduled once the transaction commits.
+ */
+public record ReservationCreatedEvent(Long reservationId, LocalDateTime expiresAt) {
+}
@@ -0,0 +1,112 @@
+package com.ecommerce.inventory.reservation;
+
+import com.ecommerce.inventory.repository.ReservationRepository;
+import com.ecommerce.inventory.repository.projection.ReservationExpiryView;
+import com.ecommerce.inventory.service.InventoryService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.stream.Stream;
+
+/**
+ * Releases reservations that were neither confirmed nor released in time.
+ *
+ * New reservations enter the {@link ReservationExpiryWheel} when their transaction
+ * commits; after a restart the wheel is refilled from the active reservations,
+ * found through the status/expiry index. Each tick expires whatever fell due, and
+ * a reservation closed in the meantime is simply skipped when its turn comes.
+ */
+@Component
+@Slf4j
+public class ReservationExpiryScheduler {
+
+    private final InventoryService inventoryService;
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReservationExpiryWheel wheel;
+    private final long retryDelayMillis;
+    private final Counter expiredCounter;
+
+    public ReservationExpiryScheduler(
+            InventoryService inventoryService,
+            ReservationRepository reservationRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.reservations.expiry-tick:PT1S}") Duration tick,
+            @Value("${app.reservations.wheel-size:512}") int wheelSize
+    ) {
+        this.inventoryService = inventoryService;
+        this.reservationRepository = reservationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.wheel = new ReservationExpiryWheel(tick.toMillis(), wheelSize, System.currentTimeMillis());
+        this.retryDelayMillis = tick.toMillis() * 10;
+        this.expiredCounter = Counter.builder("inventory.reservations.expired")
+                .description("Reservations released by this instance because they expired")
+                .register(meterRegistry);
+        Gauge.builder("inventory.reservations.scheduled", wheel, ReservationExpiryWheel::size)
+                .description("Reservations waiting in this instance's expiry wheel")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveReservations() {
+        long start = System.nanoTime();
+        long[] loaded = {0};
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ReservationExpiryView> active = reservationRepository.streamActive()) {
+                active.forEach(view -> {
+                    wheel.schedule(view.getId(), toMillis(view.getExpiresAt()));
+                    loaded[0]++;
+                });
+            }
+        });
+        log.info("Scheduled expiry of {} active reservations in {} ms",
+                loaded[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationCreated(ReservationCreatedEvent event) {
+        wheel.schedule(event.reservationId(), toMillis(event.expiresAt()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservations.expiry-tick:PT1S}")
+    public void expireDueReservations() {
+        long now = System.currentTimeMillis();
+        long[] due = wheel.advance(now);
+        int expired = 0;
+        for (long reservationId : due) {
+            try {
+                if (inventoryService.expireReservation(reservationId)) {
+                    expired++;
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Could not expire reservation {}, retrying later: {}", reservationId, ex.getMessage());
+                wheel.schedule(reservationId, now + retryDelayMillis);
+            }
+        }
+        if (expired > 0) {
+            expiredCounter.increment(expired);
+            log.info("Expired {} reservations ({} were already closed)", expired, due.length - expired);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
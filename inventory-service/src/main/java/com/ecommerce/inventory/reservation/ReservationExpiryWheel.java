@@ -0,0 +1,112 @@
+package com.ecommerce.inventory.reservation;
+
+import java.util.Arrays;
+
+/**
+ * Hashed timing wheel of reservation deadlines.
+ *
+ * Time is cut into ticks; a reservation due in tick t is kept in slot t mod size,
+ * together with its deadline tick so that reservations due one or more full turns
+ * later can share the slot. Scheduling is O(1), and advancing the clock visits only
+ * the slots of the ticks that elapsed, never the reservations that are not yet due.
+ * Ids and deadlines are kept in primitive arrays per slot.
+ */
+public class ReservationExpiryWheel {
+
+    private final long tickMillis;
+    private final Slot[] slots;
+    private final int mask;
+
+    // last tick whose slot has been processed
+    private long currentTick;
+    private int size;
+
+    public ReservationExpiryWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        int slotCount = Integer.highestOneBit(wheelSize - 1 | 1) << 1;
+        this.tickMillis = tickMillis;
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = slotCount - 1;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedule a reservation; one already due expires on the next {@link #advance}.
+     */
+    public synchronized void schedule(long reservationId, long expiresAtMillis) {
+        // rounded up, so a reservation never expires before its deadline
+        long tick = Math.max(Math.floorDiv(expiresAtMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        slots[(int) (tick & mask)].add(reservationId, tick);
+        size++;
+    }
+
+    /**
+     * Move the clock to now and return the ids of every reservation due by then.
+     */
+    public synchronized long[] advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        long steps = Math.min(targetTick - currentTick, slots.length);
+
+        long[] due = new long[0];
+        int dueCount = 0;
+        for (long step = 1; step <= steps; step++) {
+            Slot slot = slots[(int) ((currentTick + step) & mask)];
+            int before = slot.size;
+            due = slot.removeDue(targetTick, due, dueCount);
+            dueCount += before - slot.size;
+        }
+        if (targetTick > currentTick) {
+            currentTick = targetTick;
+        }
+
+        size -= dueCount;
+        return Arrays.copyOf(due, dueCount);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private static final class Slot {
+
+        private long[] ids = new long[4];
+        private long[] deadlines = new long[4];
+        private int size;
+
+        void add(long id, long deadline) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                deadlines = Arrays.copyOf(deadlines, size * 2);
+            }
+            ids[size] = id;
+            deadlines[size] = deadline;
+            size++;
+        }
+
+        /**
+         * Move the ids due by the tick to the end of due (grown as needed); keeps the rest in place.
+         */
+        long[] removeDue(long tick, long[] due, int dueCount) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (deadlines[i] <= tick) {
+                    if (dueCount == due.length) {
+                        due = Arrays.copyOf(due, Math.max(16, dueCount * 2));
+                    }
+                    due[dueCount++] = ids[i];
+                } else {
+                    ids[kept] = ids[i];
+                    deadlines[kept] = deadlines[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return due;
+        }
+    }
+}
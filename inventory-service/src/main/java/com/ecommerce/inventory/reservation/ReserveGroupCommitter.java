@@ -0,0 +1,177 @@
+package com.ecommerce.inventory.reservation;
+
+import com.ecommerce.inventory.dto.InventoryResponseDTO;
+import com.ecommerce.inventory.dto.ReserveRequestDTO;
+import com.ecommerce.inventory.service.InventoryService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single reservations.
+ *
+ * On its own every reserve call pays for a transaction and its commit, and with it a
+ * log flush. Here callers queue their request and wait; one thread takes the first
+ * request, gathers whatever arrives within max-wait or until max-batch-size requests,
+ * and applies the group in one transaction. A request without enough stock is answered
+ * with its own rejection and does not hold back the rest of its group. A group that loses
+ * a race is run again like any other stock change; only once those retries are used up,
+ * or on any other failure, is every request of it retried in a transaction of its own.
+ */
+@Component
+@Slf4j
+public class ReserveGroupCommitter {
+
+    private static final int QUEUE_CAPACITY = 16 * 1024;
+
+    private final InventoryService inventoryService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final DistributionSummary groupSizes;
+
+    private Thread drainer;
+    private volatile boolean running;
+
+    public ReserveGroupCommitter(
+            InventoryService inventoryService,
+            MeterRegistry meterRegistry,
+            @Value("${app.reserve-batching.enabled:true}") boolean enabled,
+            @Value("${app.reserve-batching.max-batch-size:64}") int maxBatchSize,
+            @Value("${app.reserve-batching.max-wait:500us}") Duration maxWait
+    ) {
+        this.inventoryService = inventoryService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.groupSizes = DistributionSummary.builder("inventory.reserve.group.size")
+                .description("Reserve requests applied per transaction")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("Reserve group commit disabled, each reservation commits on its own");
+            return;
+        }
+        running = true;
+        drainer = new Thread(this::drainLoop, "reserve-group-committer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Lets the requests already queued finish before the service goes away.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (drainer != null) {
+            drainer.join();
+        }
+    }
+
+    /**
+     * Reserve as {@link InventoryService#reserveStock} does, sharing the transaction with concurrent callers.
+     */
+    public InventoryResponseDTO reserve(ReserveRequestDTO request, String idempotencyKey) {
+        Entry entry = new Entry(request, idempotencyKey, new CompletableFuture<>());
+        // disabled, stopping or overloaded: commit alone
+        if (!running || !queue.offer(entry) || (!running && queue.remove(entry))) {
+            return inventoryService.reserveStock(request, idempotencyKey);
+        }
+        try {
+            return entry.done().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private void drainLoop() {
+        List<Entry> group = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                Entry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (group.size() < maxBatchSize) {
+                    Entry next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!group.isEmpty()) {
+                commit(group);
+                group.clear();
+            }
+        }
+
+        while (queue.drainTo(group, maxBatchSize) > 0) {
+            commit(group);
+            group.clear();
+        }
+    }
+
+    private void commit(List<Entry> group) {
+        groupSizes.record(group.size());
+        List<ReserveOutcome> outcomes;
+        try {
+            outcomes = inventoryService.reserveStockGroup(group.stream().map(Entry::request).toList(),
+                    group.stream().map(Entry::idempotencyKey).toList());
+        } catch (RuntimeException ex) {
+            log.warn("Reservation group of {} requests failed, reserving each on its own: {}",
+                    group.size(), ex.getMessage());
+            group.forEach(this::reserveAlone);
+            return;
+        }
+
+        for (int i = 0; i < group.size(); i++) {
+            ReserveOutcome outcome = outcomes.get(i);
+            if (outcome.rejection() != null) {
+                group.get(i).done().completeExceptionally(outcome.rejection());
+            } else {
+                group.get(i).done().complete(outcome.reserved());
+            }
+        }
+    }
+
+    private void reserveAlone(Entry entry) {
+        try {
+            entry.done().complete(inventoryService.reserveStock(entry.request(), entry.idempotencyKey()));
+        } catch (RuntimeException ex) {
+            entry.done().completeExceptionally(ex);
+        }
+    }
+
+    private record Entry(ReserveRequestDTO request, String idempotencyKey,
+                         CompletableFuture<InventoryResponseDTO> done) {
+    }
+}
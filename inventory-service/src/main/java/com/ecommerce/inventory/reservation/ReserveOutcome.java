@@ -0,0 +1,9 @@
+package com.ecommerce.inventory.reservation;
+
+import com.ecommerce.inventory.dto.InventoryResponseDTO;
+
+/**
+ * What one request of a reservation group came to: the reserved stock, or the exception that rejected it.
+ */
+public record ReserveOutcome(InventoryResponseDTO reserved, RuntimeException rejection) {
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.inventory.retry;
+
+import com.ecommerce.common.exception.BusinessException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work again when it lost a race for an inventory row.
+ *
+ * Every write to an inventories row increments its version, so a transaction that writes
+ * back a row someone else changed since it was read fails instead of overwriting their
+ * change; deadlock victims and lock timeouts fail the same way. The work is retried in
+ * a new transaction after a random pause below an exponentially growing bound, at most
+ * max-attempts times in all. Conflicts and retries are counted per product, so hot SKUs
+ * stand out in the metrics; only products that actually conflicted get counters.
+ */
+@Component
+@Slf4j
+public class ConflictRetry {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+
+    public ConflictRetry(
+            MeterRegistry meterRegistry,
+            @Value("${app.conflict-retry.max-attempts:3}") int maxAttempts,
+            @Value("${app.conflict-retry.backoff:PT0.02S}") Duration backoff,
+            @Value("${app.conflict-retry.max-backoff:PT0.2S}") Duration maxBackoff
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+    }
+
+    /**
+     * Run the work, which must start its own transaction, until it does not conflict. A conflict
+     * in work covering several products is counted against each of them.
+     */
+    public <T> T execute(String operation, Collection<Long> productIds, Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.get();
+            } catch (ConcurrencyFailureException ex) {
+                count("inventory.conflicts", "Transactions that lost a race for the product's inventory row",
+                        operation, productIds);
+                if (attempt >= maxAttempts) {
+                    log.warn("{} of product IDs {} still conflicting after {} attempts: {}",
+                            operation, productIds, attempt, ex.getMessage());
+                    throw new BusinessException("Inventory for product IDs " + productIds
+                            + " is being changed concurrently, please retry");
+                }
+                count("inventory.conflict.retries", "Transactions retried after losing a race for the product's row",
+                        operation, productIds);
+                pause(attempt, productIds);
+            }
+        }
+    }
+
+    /**
+     * Sleep anywhere up to the bound, so requests that collided once do not collide again in step.
+     */
+    private void pause(int attempt, Collection<Long> productIds) {
+        long bound = Math.min(maxBackoffMillis, backoffMillis << (attempt - 1));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Interrupted while retrying inventory change for product IDs " + productIds);
+        }
+    }
+
+    private void count(String name, String description, String operation, Collection<Long> productIds) {
+        for (Long productId : productIds) {
+            Counter.builder(name)
+                    .description(description)
+                    .tag("operation", operation)
+                    .tag("productId", String.valueOf(productId))
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.ecommerce.inventory.service;
 
+import com.ecommerce.inventory.dto.AvailabilityMode;
 import com.ecommerce.inventory.dto.ConfirmRequestDTO;
 import com.ecommerce.inventory.dto.InventoryRequestDTO;
 import com.ecommerce.inventory.dto.InventoryResponseDTO;
 import com.ecommerce.inventory.dto.ReleaseRequestDTO;
+import com.ecommerce.inventory.dto.ReservationStatsDTO;
 import com.ecommerce.inventory.dto.ReserveRequestDTO;
+import com.ecommerce.inventory.dto.StockConsistencyReportDTO;
+import com.ecommerce.inventory.dto.StockLineResultDTO;
+import com.ecommerce.inventory.dto.StockMovementDTO;
+import com.ecommerce.inventory.reservation.ReserveOutcome;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 
 public interface InventoryService {
 
@@ -27,6 +34,12 @@ public interface InventoryService {
      */
     InventoryResponseDTO getInventoryByProductId(Long productId);
 
+    /**
+     * Available quantity per product ID, for products that have inventory.
+     * APPROXIMATE may answer from a short-lived cache; EXACT reads the current stock
+     */
+    Map<Long, Integer> getAvailability(List<Long> productIds, AvailabilityMode mode);
+
     /**
      * List all inventory records with pagination
      */
@@ -34,19 +47,74 @@ public interface InventoryService {
 
     /**
      * Reserve stock for an order
-     * Decreases availableQuantity and increases reservedQuantity
+     * Decreases availableQuantity and increases reservedQuantity; the returned reservation
+     * is released automatically unless confirmed or released before it expires.
+     * With an idempotency key (may be null) the change is made once per key; a repeat gets its response back
+     */
+    InventoryResponseDTO reserveStock(ReserveRequestDTO reserveRequestDTO, String idempotencyKey);
+
+    /**
+     * Reserve stock for every line of an order in one transaction: all lines or none.
+     * Lines for the same product are merged; returns the resulting inventory per product
      */
-    InventoryResponseDTO reserveStock(ReserveRequestDTO reserveRequestDTO);
+    List<InventoryResponseDTO> reserveStockBatch(List<ReserveRequestDTO> items, String orderReference,
+                                                 String idempotencyKey);
+
+    /**
+     * Apply unrelated reservations in one transaction, run again when it loses a race. A request without
+     * enough stock is rejected on its own and the others still apply; returns one outcome per request,
+     * in request order.
+     * idempotencyKeys has one key (or null) per request
+     */
+    List<ReserveOutcome> reserveStockGroup(List<ReserveRequestDTO> requests, List<String> idempotencyKeys);
 
     /**
      * Release reserved stock (when order is canceled)
      * Decreases reservedQuantity and increases availableQuantity
      */
-    InventoryResponseDTO releaseStock(ReleaseRequestDTO releaseRequestDTO);
+    InventoryResponseDTO releaseStock(ReleaseRequestDTO releaseRequestDTO, String idempotencyKey);
+
+    /**
+     * Release every line in one transaction. Lines succeed or fail independently;
+     * returns one result per line, in request order
+     */
+    List<StockLineResultDTO> releaseStockBatch(List<ReleaseRequestDTO> items, String idempotencyKey);
 
     /**
      * Confirm reservation (when order is confirmed/paid)
      * Decreases reservedQuantity (stock is now permanently removed from inventory)
      */
-    InventoryResponseDTO confirmStock(ConfirmRequestDTO confirmRequestDTO);
+    InventoryResponseDTO confirmStock(ConfirmRequestDTO confirmRequestDTO, String idempotencyKey);
+
+    /**
+     * Confirm every line in one transaction. Lines succeed or fail independently;
+     * returns one result per line, in request order
+     */
+    List<StockLineResultDTO> confirmStockBatch(List<ConfirmRequestDTO> items, String idempotencyKey);
+
+    /**
+     * Release the stock of a reservation that reached its deadline while still active.
+     * Returns false when it was confirmed or released in the meantime
+     */
+    boolean expireReservation(Long reservationId);
+
+    /**
+     * Keep a product's stock in the given number of counter buckets, or back in its single row when 1
+     */
+    InventoryResponseDTO setStockBuckets(Long productId, int buckets);
+
+    /**
+     * Count reservations by state
+     */
+    ReservationStatsDTO getReservationStats();
+
+    /**
+     * Stock movements of a product, newest first
+     */
+    Page<StockMovementDTO> getStockMovements(Long productId, Pageable pageable);
+
+    /**
+     * Replay the stock movements and report every product whose counters disagree with them
+     */
+    StockConsistencyReportDTO checkStockConsistency();
 }
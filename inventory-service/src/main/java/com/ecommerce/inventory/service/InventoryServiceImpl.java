@@ -2,22 +2,68 @@ package com.ecommerce.inventory.service;
 
 import com.ecommerce.common.exception.BusinessException;
 import com.ecommerce.common.exception.ResourceNotFoundException;
+import com.ecommerce.inventory.availability.AvailabilityNearCache;
+import com.ecommerce.inventory.bucket.BucketedStock;
+import com.ecommerce.inventory.dto.AvailabilityMode;
+import com.ecommerce.inventory.dto.BatchConfirmRequestDTO;
+import com.ecommerce.inventory.dto.BatchReleaseRequestDTO;
+import com.ecommerce.inventory.dto.BatchReserveRequestDTO;
 import com.ecommerce.inventory.dto.ConfirmRequestDTO;
 import com.ecommerce.inventory.dto.InventoryRequestDTO;
 import com.ecommerce.inventory.dto.InventoryResponseDTO;
 import com.ecommerce.inventory.dto.ReleaseRequestDTO;
+import com.ecommerce.inventory.dto.ReservationStatsDTO;
 import com.ecommerce.inventory.dto.ReserveRequestDTO;
+import com.ecommerce.inventory.dto.StockConsistencyReportDTO;
+import com.ecommerce.inventory.dto.StockLineResultDTO;
+import com.ecommerce.inventory.dto.StockMovementDTO;
 import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.entity.MovementType;
+import com.ecommerce.inventory.entity.Reservation;
+import com.ecommerce.inventory.entity.ReservationStatus;
+import com.ecommerce.inventory.idempotency.IdempotencyStore;
+import com.ecommerce.inventory.ledger.FlashSaleLedger;
+import com.ecommerce.inventory.ledger.StockLedger;
 import com.ecommerce.inventory.mapper.InventoryMapper;
+import com.ecommerce.inventory.movement.StockConsistencyChecker;
+import com.ecommerce.inventory.movement.StockMovementRecorder;
 import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.ReservationRepository;
+import com.ecommerce.inventory.repository.StockMovementRepository;
+import com.ecommerce.inventory.repository.projection.AvailableQuantityView;
+import com.ecommerce.inventory.reservation.ReservationCreatedEvent;
+import com.ecommerce.inventory.reservation.ReserveOutcome;
+import com.ecommerce.inventory.retry.ConflictRetry;
+import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Service
@@ -25,8 +71,36 @@ import java.util.List;
 @Transactional
 public class InventoryServiceImpl implements InventoryService {
 
+    // a stock update races a mode switch at most once per switch
+    private static final int MODE_SWITCH_ATTEMPTS = 3;
+
+    private static final String RESERVE = "reserve";
+    private static final TypeReference<InventoryResponseDTO> INVENTORY_RESPONSE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<InventoryResponseDTO>> INVENTORY_RESPONSES = new TypeReference<>() {
+    };
+    private static final TypeReference<List<StockLineResultDTO>> LINE_RESULTS = new TypeReference<>() {
+    };
+
     private final InventoryRepository inventoryRepository;
     private final InventoryMapper inventoryMapper;
+    private final FlashSaleLedger flashSaleLedger;
+    private final ReservationRepository reservationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockMovementRecorder movementRecorder;
+    private final StockMovementRepository movementRepository;
+    private final StockConsistencyChecker consistencyChecker;
+    private final AvailabilityNearCache availabilityNearCache;
+    private final BucketedStock bucketedStock;
+    private final ConflictRetry conflictRetry;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyStore idempotencyStore;
+
+    @Value("${app.reservations.ttl:PT15M}")
+    private Duration reservationTtl;
+
+    @Value("${app.availability.max-products:200}")
+    private int maxAvailabilityProducts;
 
     @Override
     public InventoryResponseDTO createInventory(InventoryRequestDTO inventoryRequestDTO) {
@@ -41,24 +115,49 @@ public class InventoryServiceImpl implements InventoryService {
         inventory.setReservedQuantity(0);
         
         Inventory savedInventory = inventoryRepository.save(inventory);
+        movementRecorder.record(savedInventory.getProductId(), MovementType.OPENING,
+                savedInventory.getAvailableQuantity(), 0, null);
         log.info("Inventory created successfully for product ID: {}", savedInventory.getProductId());
         
         return inventoryMapper.inventoryToInventoryResponseDTO(savedInventory);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public InventoryResponseDTO updateInventory(Long productId, InventoryRequestDTO inventoryRequestDTO) {
-        log.info("Updating inventory for product ID: {}", productId);
-
-        Inventory inventory = inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product ID: " + productId));
-
-        inventory.setAvailableQuantity(inventoryRequestDTO.getAvailableQuantity());
-        inventory.setUpdatedAt(java.time.LocalDateTime.now());
-        Inventory updatedInventory = inventoryRepository.save(inventory);
-        log.info("Inventory updated successfully for product ID: {}", productId);
+        return retryOnConflict("update", List.of(productId), () -> {
+            log.info("Updating inventory for product ID: {}", productId);
+
+            // locked, so no reservation changes the counters between reading them and recording the adjustment;
+            // the version only guards against writing back a copy read elsewhere
+            Inventory inventory = inventoryRepository.findByProductIdForUpdate(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product ID: " + productId));
+            if (flashSaleLedger.owns(productId)) {
+                // the ledger would overwrite the row on its next write-behind
+                throw new BusinessException("Inventory for product ID: " + productId
+                        + " is managed by the flash-sale ledger and cannot be updated directly");
+            }
+
+            int previous = inventory.getAvailableQuantity();
+            if (inventory.getStockBuckets() != null) {
+                // the row only mirrors the buckets; adjust against their sums and refresh the mirror,
+                // with the row locked before the buckets like a mode switch and the rebalance do
+                long[] replaced = bucketedStock.setAvailable(productId, inventoryRequestDTO.getAvailableQuantity(),
+                        LocalDateTime.now());
+                previous = (int) replaced[0];
+                inventory.setReservedQuantity((int) replaced[1]);
+            }
+            int adjustment = inventoryRequestDTO.getAvailableQuantity() - previous;
+            if (adjustment != 0) {
+                movementRecorder.record(productId, MovementType.ADJUST, adjustment, 0, null);
+            }
+            inventory.setAvailableQuantity(inventoryRequestDTO.getAvailableQuantity());
+            inventory.setUpdatedAt(java.time.LocalDateTime.now());
+            Inventory updatedInventory = inventoryRepository.saveAndFlush(inventory);
+            log.info("Inventory updated successfully for product ID: {}", productId);
         
-        return inventoryMapper.inventoryToInventoryResponseDTO(updatedInventory);
+            return inventoryMapper.inventoryToInventoryResponseDTO(updatedInventory);
+        });
     }
 
     @Override
@@ -69,7 +168,44 @@ public class InventoryServiceImpl implements InventoryService {
         Inventory inventory = inventoryRepository.findByProductId(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product ID: " + productId));
 
-        return inventoryMapper.inventoryToInventoryResponseDTO(inventory);
+        return toResponse(inventory);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getAvailability(List<Long> productIds, AvailabilityMode mode) {
+        Set<Long> ids = new LinkedHashSet<>(productIds);
+        if (ids.size() > maxAvailabilityProducts) {
+            throw new BusinessException("At most " + maxAvailabilityProducts + " product IDs can be queried at once");
+        }
+        log.debug("Fetching {} availability for {} products", mode, ids.size());
+
+        if (mode == AvailabilityMode.EXACT) {
+            Map<Long, Integer> quantities = loadAvailableQuantities(ids);
+            availabilityNearCache.putAll(quantities);
+            return quantities;
+        }
+        return availabilityNearCache.getAll(ids, this::loadAvailableQuantities);
+    }
+
+    /**
+     * Current available quantities in one IN query; products owned by the flash-sale ledger are read from it,
+     * bucketed products from one more query summing their buckets.
+     */
+    private Map<Long, Integer> loadAvailableQuantities(Set<? extends Long> productIds) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        List<Long> bucketed = new ArrayList<>();
+        for (AvailableQuantityView view : inventoryRepository.findAvailableQuantities(List.copyOf(productIds))) {
+            Long productId = view.getProductId();
+            quantities.put(productId, flashSaleLedger.owns(productId)
+                    ? StockLedger.available(flashSaleLedger.state(productId))
+                    : view.getAvailableQuantity());
+            if (view.getStockBuckets() != null) {
+                bucketed.add(productId);
+            }
+        }
+        bucketedStock.totals(bucketed).forEach((productId, totals) -> quantities.put(productId, (int) totals[0]));
+        return quantities;
     }
 
     @Override
@@ -78,89 +214,614 @@ public class InventoryServiceImpl implements InventoryService {
         log.info("Listing inventory with pagination: page={}, size={}", pageable.getPageNumber(), pageable.getPageSize());
 
         return inventoryRepository.findAll(pageable)
-                .map(inventoryMapper::inventoryToInventoryResponseDTO);
+                .map(this::toResponse);
     }
 
     @Override
-    public InventoryResponseDTO reserveStock(ReserveRequestDTO reserveRequestDTO) {
-        log.info("Reserving {} units for product ID: {}", 
-                reserveRequestDTO.getQuantity(), reserveRequestDTO.getProductId());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public InventoryResponseDTO reserveStock(ReserveRequestDTO reserveRequestDTO, String idempotencyKey) {
+        return idempotent(RESERVE, idempotencyKey, reserveRequestDTO, INVENTORY_RESPONSE,
+                List.of(reserveRequestDTO.getProductId()), () -> {
+            Long productId = reserveRequestDTO.getProductId();
+            int quantity = reserveRequestDTO.getQuantity();
+            log.info("Reserving {} units for product ID: {}", quantity, productId);
+
+            // the WHERE clause checks and the SET clause applies under the same row lock, so no update is lost
+            LocalDateTime now = LocalDateTime.now();
+            if (reserve(productId, quantity, now) == 0) {
+                InventoryResponseDTO inventory = currentStock(productId);
+                throw new BusinessException(
+                        String.format("Insufficient stock for product ID: %d. Available: %d, Requested: %d",
+                                productId, inventory.getAvailableQuantity(), quantity));
+            }
+            movementRecorder.record(productId, MovementType.RESERVE, quantity, reserveRequestDTO.getOrderReference());
+            Reservation reservation = createReservation(productId, quantity, reserveRequestDTO.getOrderReference(), now);
+
+            log.info("Stock reserved successfully for product ID: {}, reservation ID: {}", productId, reservation.getId());
+            return withReservation(currentStock(productId), reservation);
+        });
+    }
 
-        Inventory inventory = inventoryRepository.findByProductId(reserveRequestDTO.getProductId())
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Inventory not found for product ID: " + reserveRequestDTO.getProductId()));
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<InventoryResponseDTO> reserveStockBatch(List<ReserveRequestDTO> items, String orderReference,
+                                                        String idempotencyKey) {
+        return idempotent("reserve-batch", idempotencyKey, new BatchReserveRequestDTO(items, orderReference),
+                INVENTORY_RESPONSES, productIds(items, ReserveRequestDTO::getProductId), () -> {
+            Map<Long, Integer> quantities = mergeByProductId(items);
+            log.info("Reserving stock for {} products in one batch", quantities.size());
+
+            // ascending productId: every batch takes its row locks in the same order, so two batches cannot deadlock
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+                if (reserve(line.getKey(), line.getValue(), now) == 0) {
+                    InventoryResponseDTO inventory = currentStock(line.getKey());
+                    // thrown from the transaction, so the lines reserved before this one are rolled back,
+                    // in the flash-sale ledger as well as in the table
+                    throw new BusinessException(
+                            String.format("Insufficient stock for product ID: %d. Available: %d, Requested: %d",
+                                    line.getKey(), inventory.getAvailableQuantity(), line.getValue()));
+                }
+                movementRecorder.record(line.getKey(), MovementType.RESERVE, line.getValue(), orderReference);
+            }
+
+            Map<Long, Reservation> reservations = new HashMap<>();
+            quantities.forEach((productId, quantity) ->
+                    reservations.put(productId, createReservation(productId, quantity, orderReference, now)));
+
+            log.info("Stock reserved successfully for products: {}", quantities.keySet());
+            return inventoryRepository.findByProductIdInOrderByProductIdAsc(quantities.keySet()).stream()
+                    .map(inventory -> withReservation(toResponse(inventory), reservations.get(inventory.getProductId())))
+                    .toList();
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ReserveOutcome> reserveStockGroup(List<ReserveRequestDTO> requests, List<String> idempotencyKeys) {
+        return retryOnConflict("reserve-group", productIds(requests, ReserveRequestDTO::getProductId),
+                () -> reserveGroup(requests, idempotencyKeys));
+    }
 
-        // Check if enough quantity is available
-        if (inventory.getAvailableQuantity() < reserveRequestDTO.getQuantity()) {
-            throw new BusinessException(
-                    String.format("Insufficient stock for product ID: %d. Available: %d, Requested: %d",
-                            reserveRequestDTO.getProductId(),
-                            inventory.getAvailableQuantity(),
-                            reserveRequestDTO.getQuantity()));
+    private List<ReserveOutcome> reserveGroup(List<ReserveRequestDTO> requests, List<String> idempotencyKeys) {
+        log.info("Reserving stock for {} grouped requests in one transaction", requests.size());
+        LocalDateTime now = LocalDateTime.now();
+        Reservation[] reservations = new Reservation[requests.size()];
+        RuntimeException[] rejections = new RuntimeException[requests.size()];
+        InventoryResponseDTO[] replayed = new InventoryResponseDTO[requests.size()];
+        Integer[] sameKeyAs = new Integer[requests.size()];
+
+        // a key already committed is replayed; a key repeated within the group gets its first request's outcome
+        Map<String, Integer> firstWithKey = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String key = idempotencyKeys.get(i);
+            if (key == null || key.isBlank()) {
+                continue;
+            }
+            sameKeyAs[i] = firstWithKey.putIfAbsent(key, i);
+            if (sameKeyAs[i] != null) {
+                if (!requests.get(sameKeyAs[i]).equals(requests.get(i))) {
+                    rejections[i] = new BusinessException("Idempotency key " + key
+                            + " was already used for a different " + RESERVE);
+                }
+                continue;
+            }
+            try {
+                replayed[i] = idempotencyStore.find(RESERVE, key, requests.get(i), INVENTORY_RESPONSE).orElse(null);
+            } catch (BusinessException ex) {
+                rejections[i] = ex;
+            }
         }
 
-        // Decrease available quantity and increase reserved quantity
-        inventory.setAvailableQuantity(inventory.getAvailableQuantity() - reserveRequestDTO.getQuantity());
-        inventory.setReservedQuantity(inventory.getReservedQuantity() + reserveRequestDTO.getQuantity());
+        // ascending productId, like reserveStockBatch, so concurrent groups take row locks in the same order
+        IntStream.range(0, requests.size())
+                .filter(i -> rejections[i] == null && replayed[i] == null && sameKeyAs[i] == null)
+                .boxed()
+                .sorted(Comparator.comparing(i -> requests.get(i).getProductId()))
+                .forEach(i -> {
+                    ReserveRequestDTO request = requests.get(i);
+                    if (reserve(request.getProductId(), request.getQuantity(), now) == 0) {
+                        // a rejected update changed nothing, so only this request fails
+                        rejections[i] = insufficientStock(request);
+                        return;
+                    }
+                    movementRecorder.record(request.getProductId(), MovementType.RESERVE, request.getQuantity(),
+                            request.getOrderReference());
+                    reservations[i] = createReservation(request.getProductId(), request.getQuantity(),
+                            request.getOrderReference(), now);
+                });
+
+        // read once after all updates; a product reserved twice reports its stock after both
+        Set<Long> reservedIds = IntStream.range(0, requests.size())
+                .filter(i -> reservations[i] != null)
+                .mapToObj(i -> requests.get(i).getProductId())
+                .collect(Collectors.toSet());
+        Map<Long, Inventory> inventories = inventoryRepository.findByProductIdInOrderByProductIdAsc(reservedIds)
+                .stream()
+                .collect(Collectors.toMap(Inventory::getProductId, Function.identity()));
+
+        List<ReserveOutcome> outcomes = new ArrayList<>(requests.size());
+        int rejected = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            ReserveOutcome outcome;
+            if (rejections[i] != null) {
+                outcome = new ReserveOutcome(null, rejections[i]);
+            } else if (replayed[i] != null) {
+                outcome = new ReserveOutcome(replayed[i], null);
+            } else if (sameKeyAs[i] != null) {
+                outcome = outcomes.get(sameKeyAs[i]);
+            } else {
+                InventoryResponseDTO inventory = toResponse(inventories.get(requests.get(i).getProductId()));
+                outcome = new ReserveOutcome(withReservation(inventory, reservations[i]), null);
+                if (idempotencyKeys.get(i) != null && !idempotencyKeys.get(i).isBlank()) {
+                    idempotencyStore.record(RESERVE, idempotencyKeys.get(i), requests.get(i), outcome.reserved());
+                }
+            }
+            if (outcome.rejection() != null) {
+                rejected++;
+            }
+            outcomes.add(outcome);
+        }
+        if (rejected > 0) {
+            log.warn("Grouped reservations: {} of {} requests rejected", rejected, requests.size());
+        }
+        return outcomes;
+    }
 
-        Inventory updatedInventory = inventoryRepository.save(inventory);
-        log.info("Stock reserved successfully for product ID: {}", reserveRequestDTO.getProductId());
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public InventoryResponseDTO releaseStock(ReleaseRequestDTO releaseRequestDTO, String idempotencyKey) {
+        return idempotent("release", idempotencyKey, releaseRequestDTO, INVENTORY_RESPONSE,
+                List.of(releaseRequestDTO.getProductId()), () -> {
+            Long productId = releaseRequestDTO.getProductId();
+            int quantity = releaseRequestDTO.getQuantity();
+            log.info("Releasing {} units for product ID: {}", quantity, productId);
+
+            // the order's reservations are locked first, so only units they still hold leave reserved
+            List<Reservation> active = lockReservations(productId, releaseRequestDTO.getOrderReference());
+            int held = heldBy(active);
+            if (held < quantity) {
+                throw notHeld("release", productId, quantity, releaseRequestDTO.getOrderReference(), held);
+            }
+            LocalDateTime now = LocalDateTime.now();
+            if (release(productId, quantity, now) == 0) {
+                InventoryResponseDTO inventory = currentStock(productId);
+                throw new BusinessException(
+                        String.format("Cannot release %d units for product ID: %d. Reserved: %d",
+                                quantity, productId, inventory.getReservedQuantity()));
+            }
+            movementRecorder.record(productId, MovementType.RELEASE, quantity, releaseRequestDTO.getOrderReference());
+            closeReservations(active, quantity, ReservationStatus.RELEASED);
+
+            log.info("Stock released successfully for product ID: {}", productId);
+            return currentStock(productId);
+        });
+    }
 
-        return inventoryMapper.inventoryToInventoryResponseDTO(updatedInventory);
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public InventoryResponseDTO confirmStock(ConfirmRequestDTO confirmRequestDTO, String idempotencyKey) {
+        return idempotent("confirm", idempotencyKey, confirmRequestDTO, INVENTORY_RESPONSE,
+                List.of(confirmRequestDTO.getProductId()), () -> {
+            Long productId = confirmRequestDTO.getProductId();
+            int quantity = confirmRequestDTO.getQuantity();
+            log.info("Confirming {} units for product ID: {}", quantity, productId);
+
+            List<Reservation> active = lockReservations(productId, confirmRequestDTO.getOrderReference());
+            int held = heldBy(active);
+            if (held < quantity) {
+                throw notHeld("confirm", productId, quantity, confirmRequestDTO.getOrderReference(), held);
+            }
+            // stock is now permanently removed
+            if (confirm(productId, quantity, LocalDateTime.now()) == 0) {
+                InventoryResponseDTO inventory = currentStock(productId);
+                throw new BusinessException(
+                        String.format("Cannot confirm %d units for product ID: %d. Reserved: %d",
+                                quantity, productId, inventory.getReservedQuantity()));
+            }
+            movementRecorder.record(productId, MovementType.CONFIRM, quantity, confirmRequestDTO.getOrderReference());
+            closeReservations(active, quantity, ReservationStatus.CONFIRMED);
+
+            log.info("Stock confirmed successfully for product ID: {}", productId);
+            return currentStock(productId);
+        });
     }
 
     @Override
-    public InventoryResponseDTO releaseStock(ReleaseRequestDTO releaseRequestDTO) {
-        log.info("Releasing {} units for product ID: {}", 
-                releaseRequestDTO.getQuantity(), releaseRequestDTO.getProductId());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<StockLineResultDTO> releaseStockBatch(List<ReleaseRequestDTO> items, String idempotencyKey) {
+        return idempotent("release-batch", idempotencyKey, new BatchReleaseRequestDTO(items), LINE_RESULTS,
+                productIds(items, ReleaseRequestDTO::getProductId), () -> {
+            log.info("Releasing stock for {} lines in one batch", items.size());
+            return applyLines(items.stream().map(ReleaseRequestDTO::getProductId).toList(),
+                    items.stream().map(ReleaseRequestDTO::getQuantity).toList(),
+                    items.stream().map(ReleaseRequestDTO::getOrderReference).toList(),
+                    this::release, MovementType.RELEASE, ReservationStatus.RELEASED, "release");
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<StockLineResultDTO> confirmStockBatch(List<ConfirmRequestDTO> items, String idempotencyKey) {
+        return idempotent("confirm-batch", idempotencyKey, new BatchConfirmRequestDTO(items), LINE_RESULTS,
+                productIds(items, ConfirmRequestDTO::getProductId), () -> {
+            log.info("Confirming stock for {} lines in one batch", items.size());
+            return applyLines(items.stream().map(ConfirmRequestDTO::getProductId).toList(),
+                    items.stream().map(ConfirmRequestDTO::getQuantity).toList(),
+                    items.stream().map(ConfirmRequestDTO::getOrderReference).toList(),
+                    this::confirm, MovementType.CONFIRM, ReservationStatus.CONFIRMED, "confirm");
+        });
+    }
+
+    /**
+     * Apply one guarded update per line inside the current transaction, recording the movement and
+     * closing the reservations of each applied line. A line its order's reservations do not cover is
+     * rejected before its update; a rejected line is reported and does not undo the others. Results
+     * come back in request order.
+     */
+    private List<StockLineResultDTO> applyLines(List<Long> productIds, List<Integer> quantities,
+                                                List<String> orderReferences, StockUpdate update,
+                                                MovementType movement, ReservationStatus closedAs,
+                                                String action) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean[] applied = new boolean[productIds.size()];
+        String[] errors = new String[productIds.size()];
+
+        // ascending productId, like reserveStockBatch, so concurrent batches take their locks in the same order
+        IntStream.range(0, productIds.size())
+                .boxed()
+                .sorted(Comparator.comparing(productIds::get))
+                .forEach(i -> {
+                    List<Reservation> active = lockReservations(productIds.get(i), orderReferences.get(i));
+                    int held = heldBy(active);
+                    if (held < quantities.get(i)) {
+                        errors[i] = notHeld(action, productIds.get(i), quantities.get(i), orderReferences.get(i), held)
+                                .getMessage();
+                        return;
+                    }
+                    applied[i] = update.apply(productIds.get(i), quantities.get(i), now) > 0;
+                    if (applied[i]) {
+                        movementRecorder.record(productIds.get(i), movement, quantities.get(i),
+                                orderReferences.get(i));
+                        closeReservations(active, quantities.get(i), closedAs);
+                    }
+                });
+
+        Map<Long, InventoryResponseDTO> inventories = inventoryRepository
+                .findByProductIdInOrderByProductIdAsc(new HashSet<>(productIds)).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toMap(InventoryResponseDTO::getProductId, Function.identity()));
+
+        List<StockLineResultDTO> results = new ArrayList<>(productIds.size());
+        for (int i = 0; i < productIds.size(); i++) {
+            Long productId = productIds.get(i);
+            InventoryResponseDTO inventory = inventories.get(productId);
+            StockLineResultDTO.StockLineResultDTOBuilder result = StockLineResultDTO.builder()
+                    .productId(productId)
+                    .quantity(quantities.get(i))
+                    .success(applied[i]);
+            if (inventory == null) {
+                result.error("Inventory not found for product ID: " + productId);
+            } else {
+                result.availableQuantity(inventory.getAvailableQuantity())
+                        .reservedQuantity(inventory.getReservedQuantity());
+                if (errors[i] != null) {
+                    result.error(errors[i]);
+                } else if (!applied[i]) {
+                    result.error(String.format("Cannot %s %d units for product ID: %d. Reserved: %d",
+                            action, quantities.get(i), productId, inventory.getReservedQuantity()));
+                }
+            }
+            results.add(result.build());
+        }
+
+        long failed = results.stream().filter(result -> !result.isSuccess()).count();
+        if (failed > 0) {
+            log.warn("Batch {}: {} of {} lines rejected", action, failed, results.size());
+        }
+        return results;
+    }
+
+    /**
+     * Run work in a transaction of its own, started again when it loses a race for an inventory row.
+     */
+    private <T> T retryOnConflict(String operation, Collection<Long> productIds, Supplier<T> work) {
+        return conflictRetry.execute(operation, productIds,
+                () -> transactionTemplate.execute(status -> work.get()));
+    }
+
+    /**
+     * As retryOnConflict, making the change once per idempotency key: the key and response are
+     * stored in the change's transaction, and a repeat gets the stored response back.
+     */
+    private <T> T idempotent(String operation, String idempotencyKey, Object request, TypeReference<T> responseType,
+                             Collection<Long> productIds, Supplier<T> work) {
+        return retryOnConflict(operation, productIds,
+                () -> idempotencyStore.execute(operation, idempotencyKey, request, responseType, work));
+    }
+
+    private static <T> Set<Long> productIds(List<T> items, Function<T, Long> productId) {
+        return items.stream().map(productId).collect(Collectors.toCollection(TreeSet::new));
+    }
 
-        Inventory inventory = inventoryRepository.findByProductId(releaseRequestDTO.getProductId())
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Inventory not found for product ID: " + releaseRequestDTO.getProductId()));
+    /**
+     * Guarded updates routed to the flash-sale ledger for the products it owns, to the stock
+     * buckets of bucketed products and to the inventories row otherwise; each returns the
+     * number of rows (or ledger entries) changed.
+     */
+    private int reserve(Long productId, int quantity, LocalDateTime now) {
+        if (flashSaleLedger.owns(productId)) {
+            return flashSaleLedger.reserve(productId, quantity) ? 1 : 0;
+        }
+        return updateStock(productId, MovementType.RESERVE, quantity, now, inventoryRepository::reserve);
+    }
+
+    private int release(Long productId, int quantity, LocalDateTime now) {
+        if (flashSaleLedger.owns(productId)) {
+            return flashSaleLedger.release(productId, quantity) ? 1 : 0;
+        }
+        return updateStock(productId, MovementType.RELEASE, quantity, now, inventoryRepository::release);
+    }
 
-        // Check if enough reserved quantity exists
-        if (inventory.getReservedQuantity() < releaseRequestDTO.getQuantity()) {
-            throw new BusinessException(
-                    String.format("Cannot release %d units for product ID: %d. Reserved: %d",
-                            releaseRequestDTO.getQuantity(),
-                            releaseRequestDTO.getProductId(),
-                            inventory.getReservedQuantity()));
+    private int confirm(Long productId, int quantity, LocalDateTime now) {
+        if (flashSaleLedger.owns(productId)) {
+            return flashSaleLedger.confirm(productId, quantity) ? 1 : 0;
         }
+        return updateStock(productId, MovementType.CONFIRM, quantity, now, inventoryRepository::confirm);
+    }
+
+    /**
+     * The row's guarded update, or the buckets' for a bucketed product. The row update only
+     * matches while the product has a single row, so when it fails the mode is read again;
+     * a product switched back from buckets in the meantime is retried on its row.
+     */
+    private int updateStock(Long productId, MovementType type, int quantity, LocalDateTime now,
+                            StockUpdate rowUpdate) {
+        for (int attempt = 0; attempt < MODE_SWITCH_ATTEMPTS; attempt++) {
+            if (rowUpdate.apply(productId, quantity, now) > 0) {
+                return 1;
+            }
+            int buckets = inventoryRepository.findStockBuckets(productId).orElse(0);
+            if (buckets == 0) {
+                return 0;
+            }
+            int updated = bucketedStock.update(productId, buckets, type, quantity, now);
+            if (updated != BucketedStock.NO_BUCKETS) {
+                return updated;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * One of the guarded updates above.
+     */
+    @FunctionalInterface
+    private interface StockUpdate {
+        int apply(Long productId, int quantity, LocalDateTime now);
+    }
 
-        // Increase available quantity and decrease reserved quantity
-        inventory.setAvailableQuantity(inventory.getAvailableQuantity() + releaseRequestDTO.getQuantity());
-        inventory.setReservedQuantity(inventory.getReservedQuantity() - releaseRequestDTO.getQuantity());
+    @Override
+    public boolean expireReservation(Long reservationId) {
+        // reservation lock before stock (row or bucket) lock, the order confirm and release take them in
+        Reservation reservation = reservationRepository.findByIdForUpdate(reservationId).orElse(null);
+        if (reservation == null || reservation.getStatus() != ReservationStatus.ACTIVE) {
+            return false;
+        }
 
-        Inventory updatedInventory = inventoryRepository.save(inventory);
-        log.info("Stock released successfully for product ID: {}", releaseRequestDTO.getProductId());
+        boolean released = release(reservation.getProductId(), reservation.getQuantity(), LocalDateTime.now()) > 0;
+        reservation.setStatus(ReservationStatus.EXPIRED);
+        if (released) {
+            movementRecorder.record(reservation.getProductId(), MovementType.EXPIRE, reservation.getQuantity(),
+                    reservation.getOrderReference());
+        } else {
+            log.warn("Reservation {} expired but product ID: {} no longer has {} units reserved",
+                    reservationId, reservation.getProductId(), reservation.getQuantity());
+        }
+        log.info("Reservation {} expired, released {} units of product ID: {}",
+                reservationId, reservation.getQuantity(), reservation.getProductId());
+        return true;
+    }
 
-        return inventoryMapper.inventoryToInventoryResponseDTO(updatedInventory);
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public InventoryResponseDTO setStockBuckets(Long productId, int buckets) {
+        return retryOnConflict("set-buckets", List.of(productId), () -> {
+            log.info("Setting stock buckets of product ID: {} to {}", productId, buckets);
+
+            // the row lock keeps other switches, adjustments and single-row updates out; bucket updates
+            // already in flight commit before merge can lock their buckets
+            Inventory inventory = inventoryRepository.findByProductIdForUpdate(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product ID: " + productId));
+            if (flashSaleLedger.owns(productId)) {
+                throw new BusinessException("Inventory for product ID: " + productId
+                        + " is managed by the flash-sale ledger and cannot be bucketed");
+            }
+            Integer current = inventory.getStockBuckets();
+            if ((current != null ? current : 1) == buckets) {
+                return toResponse(inventory);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            if (current != null) {
+                long[] totals = bucketedStock.merge(productId);
+                inventory.setAvailableQuantity((int) totals[0]);
+                inventory.setReservedQuantity((int) totals[1]);
+            }
+            if (buckets > 1) {
+                bucketedStock.split(productId, buckets, inventory.getAvailableQuantity(),
+                        inventory.getReservedQuantity(), now);
+            }
+            inventory.setStockBuckets(buckets > 1 ? buckets : null);
+            inventory.setUpdatedAt(now);
+            Inventory updatedInventory = inventoryRepository.save(inventory);
+            log.info("Stock of product ID: {} now kept in {} buckets", productId, buckets);
+
+            return toResponse(updatedInventory);
+        });
     }
 
     @Override
-    public InventoryResponseDTO confirmStock(ConfirmRequestDTO confirmRequestDTO) {
-        log.info("Confirming {} units for product ID: {}", 
-                confirmRequestDTO.getQuantity(), confirmRequestDTO.getProductId());
+    @Transactional(readOnly = true)
+    public ReservationStatsDTO getReservationStats() {
+        Map<ReservationStatus, Long> counts = new EnumMap<>(ReservationStatus.class);
+        reservationRepository.countByStatus().forEach(count -> counts.put(count.getStatus(), count.getCount()));
+
+        return ReservationStatsDTO.builder()
+                .active(counts.getOrDefault(ReservationStatus.ACTIVE, 0L))
+                .overdue(reservationRepository.countByStatusAndExpiresAtBefore(
+                        ReservationStatus.ACTIVE, LocalDateTime.now()))
+                .confirmed(counts.getOrDefault(ReservationStatus.CONFIRMED, 0L))
+                .released(counts.getOrDefault(ReservationStatus.RELEASED, 0L))
+                .expired(counts.getOrDefault(ReservationStatus.EXPIRED, 0L))
+                .build();
+    }
 
-        Inventory inventory = inventoryRepository.findByProductId(confirmRequestDTO.getProductId())
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Inventory not found for product ID: " + confirmRequestDTO.getProductId()));
+    @Override
+    @Transactional(readOnly = true)
+    public Page<StockMovementDTO> getStockMovements(Long productId, Pageable pageable) {
+        log.info("Listing stock movements for product ID: {}", productId);
+        return movementRepository.findByProductIdOrderByIdDesc(productId, pageable)
+                .map(inventoryMapper::stockMovementToStockMovementDTO);
+    }
 
-        // Check if enough reserved quantity exists
-        if (inventory.getReservedQuantity() < confirmRequestDTO.getQuantity()) {
-            throw new BusinessException(
-                    String.format("Cannot confirm %d units for product ID: %d. Reserved: %d",
-                            confirmRequestDTO.getQuantity(),
-                            confirmRequestDTO.getProductId(),
-                            inventory.getReservedQuantity()));
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StockConsistencyReportDTO checkStockConsistency() {
+        log.info("Replaying stock movements against the inventory counters");
+        return consistencyChecker.check();
+    }
+
+    /**
+     * Record units just reserved; their expiry is scheduled once the transaction commits.
+     */
+    private Reservation createReservation(Long productId, int quantity, String orderReference, LocalDateTime now) {
+        Reservation reservation = reservationRepository.save(Reservation.builder()
+                .productId(productId)
+                .orderReference(orderReference)
+                .quantity(quantity)
+                .status(ReservationStatus.ACTIVE)
+                .expiresAt(now.plus(reservationTtl))
+                .build());
+        eventPublisher.publishEvent(new ReservationCreatedEvent(reservation.getId(), reservation.getExpiresAt()));
+        return reservation;
+    }
+
+    /**
+     * Lock the active reservations a confirm or release may close, oldest deadline first: those of
+     * the order, or without a reference those held for no order, never another order's. Taken before
+     * the guarded update, so every path locks reservations before the stock they hold.
+     */
+    private List<Reservation> lockReservations(Long productId, String orderReference) {
+        return orderReference != null
+                ? reservationRepository.findActiveForUpdate(orderReference, productId)
+                : reservationRepository.findActiveWithoutOrderForUpdate(productId);
+    }
+
+    private static int heldBy(List<Reservation> active) {
+        return active.stream().mapToInt(Reservation::getQuantity).sum();
+    }
+
+    private static BusinessException notHeld(String action, Long productId, int quantity, String orderReference,
+                                             int held) {
+        return new BusinessException(String.format("Cannot %s %d units for product ID: %d. Reserved for %s: %d",
+                action, quantity, productId, orderReference != null ? "order " + orderReference : "no order", held));
+    }
+
+    /**
+     * Close locked reservations covering quantity units, which they hold in total, in the order given.
+     * A reservation only partly covered stays active with the units left.
+     */
+    private static void closeReservations(List<Reservation> active, int quantity, ReservationStatus closedAs) {
+        int remaining = quantity;
+        for (Reservation reservation : active) {
+            if (remaining == 0) {
+                break;
+            }
+            if (reservation.getQuantity() <= remaining) {
+                remaining -= reservation.getQuantity();
+                reservation.setStatus(closedAs);
+            } else {
+                reservation.setQuantity(reservation.getQuantity() - remaining);
+                remaining = 0;
+            }
         }
+    }
 
-        // Just decrease reserved quantity (stock is now permanently removed)
-        inventory.setReservedQuantity(inventory.getReservedQuantity() - confirmRequestDTO.getQuantity());
+    /**
+     * Why a reservation of a group was rejected. Read through a projection, so no entity is
+     * loaded that the group's final read would then return with counters from before its updates.
+     */
+    private RuntimeException insufficientStock(ReserveRequestDTO request) {
+        Long productId = request.getProductId();
+        Integer available = loadAvailableQuantities(Set.of(productId)).get(productId);
+        if (available == null) {
+            return new ResourceNotFoundException("Inventory not found for product ID: " + productId);
+        }
+        return new BusinessException(
+                String.format("Insufficient stock for product ID: %d. Available: %d, Requested: %d",
+                        productId, available, request.getQuantity()));
+    }
+
+    private static InventoryResponseDTO withReservation(InventoryResponseDTO response, Reservation reservation) {
+        response.setReservationId(reservation.getId());
+        response.setReservationExpiresAt(reservation.getExpiresAt());
+        return response;
+    }
+
+    /**
+     * Sum the quantities of lines for the same product, sorted by productId.
+     */
+    private static Map<Long, Integer> mergeByProductId(List<ReserveRequestDTO> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (ReserveRequestDTO item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), (a, b) -> {
+                try {
+                    return Math.addExact(a, b);
+                } catch (ArithmeticException ex) {
+                    throw new BusinessException("Quantity too large for product ID: " + item.getProductId());
+                }
+            });
+        }
+        return quantities;
+    }
 
-        Inventory updatedInventory = inventoryRepository.save(inventory);
-        log.info("Stock confirmed successfully for product ID: {}", confirmRequestDTO.getProductId());
+    /**
+     * Read after a guarded update: explains a rejected update (missing row or not enough stock),
+     * or returns the new quantities of a successful one, whose row lock this transaction already holds.
+     * Products owned by the flash-sale ledger are answered from memory.
+     */
+    private InventoryResponseDTO currentStock(Long productId) {
+        if (flashSaleLedger.owns(productId)) {
+            long state = flashSaleLedger.state(productId);
+            return InventoryResponseDTO.builder()
+                    .productId(productId)
+                    .availableQuantity(StockLedger.available(state))
+                    .reservedQuantity(StockLedger.reserved(state))
+                    .build();
+        }
+        return toResponse(inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product ID: " + productId)));
+    }
 
-        return inventoryMapper.inventoryToInventoryResponseDTO(updatedInventory);
+    /**
+     * Map a row; quantities of products owned by the flash-sale ledger come from the ledger,
+     * since the row only catches up on the next write-behind, and those of bucketed products
+     * from their buckets, since the row only catches up on the next rebalance.
+     */
+    private InventoryResponseDTO toResponse(Inventory inventory) {
+        InventoryResponseDTO response = inventoryMapper.inventoryToInventoryResponseDTO(inventory);
+        if (flashSaleLedger.owns(inventory.getProductId())) {
+            long state = flashSaleLedger.state(inventory.getProductId());
+            response.setAvailableQuantity(StockLedger.available(state));
+            response.setReservedQuantity(StockLedger.reserved(state));
+        } else if (inventory.getStockBuckets() != null) {
+            long[] totals = bucketedStock.totals(List.of(inventory.getProductId())).get(inventory.getProductId());
+            if (totals != null) {
+                response.setAvailableQuantity((int) totals[0]);
+                response.setReservedQuantity((int) totals[1]);
+            }
+        }
+        return response;
     }
 }
@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS reservations (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    order_reference VARCHAR(64),
+    quantity INTEGER NOT NULL CHECK (quantity > 0),
+    status VARCHAR(16) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Active reservations by deadline: rebuilds the expiry wheel after a restart and counts overdue ones
+CREATE INDEX IF NOT EXISTS idx_reservation_status_expires ON reservations(status, expires_at);
+
+-- Reservations of an order, closed on confirm and release
+CREATE INDEX IF NOT EXISTS idx_reservation_order_product ON reservations(order_reference, product_id, status);
+
+-- Oldest active reservations of a product, closed when no order reference is given
+CREATE INDEX IF NOT EXISTS idx_reservation_product_status ON reservations(product_id, status, expires_at);
@@ -0,0 +1,28 @@
+-- Append-only: rows are inserted with the stock change they describe and never updated
+CREATE TABLE IF NOT EXISTS stock_movements (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    movement_type VARCHAR(16) NOT NULL,
+    available_delta INTEGER NOT NULL,
+    reserved_delta INTEGER NOT NULL,
+    order_reference VARCHAR(64),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- The only secondary index, kept small so inserts stay cheap: movements of a product in order
+CREATE INDEX IF NOT EXISTS idx_movement_product_id ON stock_movements(product_id, id);
+
+CREATE TABLE IF NOT EXISTS stock_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    last_movement_id BIGINT NOT NULL,
+    available_quantity BIGINT NOT NULL,
+    reserved_quantity BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_snapshot_product_movement UNIQUE (product_id, last_movement_id)
+);
+
+-- Inventories that existed before the ledger start from their current counters
+INSERT INTO stock_movements (product_id, movement_type, available_delta, reserved_delta)
+SELECT i.product_id, 'OPENING', i.available_quantity, i.reserved_quantity FROM inventories i
+WHERE NOT EXISTS (SELECT 1 FROM stock_movements m WHERE m.product_id = i.product_id);
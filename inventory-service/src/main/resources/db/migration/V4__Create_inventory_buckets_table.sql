@@ -0,0 +1,13 @@
+-- NULL keeps the stock in the inventories row; otherwise the number of buckets holding it
+ALTER TABLE inventories ADD COLUMN IF NOT EXISTS stock_buckets INTEGER;
+
+-- Shares of a bucketed product's stock; the inventories row mirrors their sums
+CREATE TABLE IF NOT EXISTS inventory_buckets (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    bucket_no INTEGER NOT NULL,
+    available_quantity INTEGER NOT NULL,
+    reserved_quantity INTEGER NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_bucket_product_bucket UNIQUE (product_id, bucket_no)
+);
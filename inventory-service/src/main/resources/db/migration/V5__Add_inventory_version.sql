@@ -0,0 +1,2 @@
+-- Optimistic locking: every write to a row increments its version, including the guarded updates
+ALTER TABLE inventories ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,12 @@
+-- Idempotency keys of committed stock changes, written in the same transaction as the change
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id BIGSERIAL PRIMARY KEY,
+    operation VARCHAR(32) NOT NULL,
+    idempotency_key VARCHAR(128) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_idempotency_operation_key UNIQUE (operation, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_created_at ON idempotency_keys (created_at);
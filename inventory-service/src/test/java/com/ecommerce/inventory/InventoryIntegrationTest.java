@@ -0,0 +1,37 @@
+package com.ecommerce.inventory;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The full application on an in-memory H2 database. Every class carrying it shares one
+ * context and one database, so each cleans up the rows it wrote.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:inventorydb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "logging.level.com.ecommerce=WARN",
+        "eureka.client.enabled=false",
+        "app.openapi.title=Inventory Service API",
+        "app.openapi.version=test",
+        "app.openapi.description=Inventory Service API",
+        "app.stock-movements.settle-time=PT0S"
+})
+public @interface InventoryIntegrationTest {
+
+    /**
+     * Tag of the throughput comparisons, which only log their rates; run them with -Pbenchmarks.
+     */
+    String BENCHMARK = "benchmark";
+}
@@ -0,0 +1,301 @@
+package com.ecommerce.inventory;
+
+import static com.ecommerce.inventory.RaceSupport.race;
+import static com.ecommerce.inventory.RaceSupport.sellOut;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.common.exception.BusinessException;
+import com.ecommerce.inventory.dto.AvailabilityMode;
+import com.ecommerce.inventory.dto.ConfirmRequestDTO;
+import com.ecommerce.inventory.dto.InventoryRequestDTO;
+import com.ecommerce.inventory.dto.InventoryResponseDTO;
+import com.ecommerce.inventory.dto.ReleaseRequestDTO;
+import com.ecommerce.inventory.dto.ReservationStatsDTO;
+import com.ecommerce.inventory.dto.ReserveRequestDTO;
+import com.ecommerce.inventory.dto.StockLineResultDTO;
+import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.entity.Reservation;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.ReservationRepository;
+import com.ecommerce.inventory.repository.StockMovementRepository;
+import com.ecommerce.inventory.service.InventoryService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Not transactional on purpose: every reservation has to commit on its own
+ * so the guarded UPDATE statements arbitrate between the racing threads.
+ */
+@Slf4j
+@InventoryIntegrationTest
+@DisplayName("Inventory Reservation Concurrency Test Suite")
+class InventoryReservationConcurrencyIntegrationTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAll();
+        reservationRepository.deleteAll();
+        movementRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("shouldNeverOversell_whenThreadsRaceForTheLastUnits")
+    void shouldNeverOversell_whenThreadsRaceForTheLastUnits() throws Exception {
+        stock(1L, 100);
+
+        List<Integer> reserved = race(50, i -> {
+            try {
+                inventoryService.reserveStock(new ReserveRequestDTO(1L, 1, null), null);
+                return 1;
+            } catch (BusinessException ex) {
+                return 0;
+            }
+        });
+
+        assertEquals(100, reserved.stream().mapToInt(Integer::intValue).sum());
+        InventoryResponseDTO inventory = inventoryService.getInventoryByProductId(1L);
+        assertEquals(0, inventory.getAvailableQuantity());
+        assertEquals(100, inventory.getReservedQuantity());
+    }
+
+    @Test
+    @DisplayName("shouldConserveStock_whenReserveReleaseAndConfirmInterleave")
+    void shouldConserveStock_whenReserveReleaseAndConfirmInterleave() throws Exception {
+        stock(2L, 1000);
+
+        List<Integer> confirmed = race(40, i -> {
+            String order = "order-" + i;
+            try {
+                inventoryService.reserveStock(new ReserveRequestDTO(2L, 3, order), null);
+            } catch (BusinessException ex) {
+                return 0;
+            }
+            if (i % 2 == 0) {
+                inventoryService.releaseStock(new ReleaseRequestDTO(2L, 3, order), null);
+                return 0;
+            }
+            inventoryService.confirmStock(new ConfirmRequestDTO(2L, 3, order), null);
+            return 3;
+        });
+
+        int sold = confirmed.stream().mapToInt(Integer::intValue).sum();
+        InventoryResponseDTO inventory = inventoryService.getInventoryByProductId(2L);
+        assertEquals(0, inventory.getReservedQuantity());
+        assertEquals(1000 - sold, inventory.getAvailableQuantity());
+    }
+
+    @Test
+    @DisplayName("shouldReserveNothing_whenAnyBatchLineLacksStock")
+    void shouldReserveNothing_whenAnyBatchLineLacksStock() {
+        stock(3L, 10);
+        stock(4L, 1);
+
+        assertThrows(BusinessException.class, () -> inventoryService.reserveStockBatch(List.of(
+                new ReserveRequestDTO(3L, 5, null), new ReserveRequestDTO(4L, 2, null)), null, null));
+
+        assertEquals(10, inventoryService.getInventoryByProductId(3L).getAvailableQuantity());
+        assertEquals(1, inventoryService.getInventoryByProductId(4L).getAvailableQuantity());
+
+        List<InventoryResponseDTO> reserved = inventoryService.reserveStockBatch(List.of(
+                new ReserveRequestDTO(4L, 1, null),
+                new ReserveRequestDTO(3L, 2, null),
+                new ReserveRequestDTO(3L, 3, null)), null, null);
+        assertEquals(List.of(3L, 4L), reserved.stream().map(InventoryResponseDTO::getProductId).toList());
+        assertEquals(5, reserved.get(0).getReservedQuantity());
+        assertEquals(0, reserved.get(1).getAvailableQuantity());
+    }
+
+    @Test
+    @DisplayName("shouldApplyBatchLinesIndependently_andReportEachInRequestOrder")
+    void shouldApplyBatchLinesIndependently_andReportEachInRequestOrder() {
+        stock(6L, 10);
+        stock(5L, 10);
+        inventoryService.reserveStockBatch(
+                List.of(new ReserveRequestDTO(5L, 4, null), new ReserveRequestDTO(6L, 4, null)), null, null);
+
+        List<StockLineResultDTO> confirmed = inventoryService.confirmStockBatch(List.of(
+                new ConfirmRequestDTO(6L, 3, null), new ConfirmRequestDTO(5L, 9, null), new ConfirmRequestDTO(99L, 1, null)), null);
+
+        assertEquals(List.of(6L, 5L, 99L), confirmed.stream().map(StockLineResultDTO::getProductId).toList());
+        assertTrue(confirmed.get(0).isSuccess());
+        assertEquals(1, confirmed.get(0).getReservedQuantity());
+        assertFalse(confirmed.get(1).isSuccess());
+        assertEquals(4, confirmed.get(1).getReservedQuantity());
+        assertFalse(confirmed.get(2).isSuccess());
+
+        List<StockLineResultDTO> released = inventoryService.releaseStockBatch(List.of(
+                new ReleaseRequestDTO(5L, 4, null), new ReleaseRequestDTO(6L, 1, null)), null);
+
+        assertTrue(released.stream().allMatch(StockLineResultDTO::isSuccess));
+        assertEquals(10, inventoryService.getInventoryByProductId(5L).getAvailableQuantity());
+        assertEquals(7, inventoryService.getInventoryByProductId(6L).getAvailableQuantity());
+    }
+
+    @Test
+    @DisplayName("shouldCloseReservationsOfTheOrder_andReleaseOnlyExpiredActiveOnes")
+    void shouldCloseReservationsOfTheOrder_andReleaseOnlyExpiredActiveOnes() {
+        stock(50L, 100);
+        InventoryResponseDTO paid = inventoryService.reserveStock(new ReserveRequestDTO(50L, 10, "order-1"), null);
+        InventoryResponseDTO abandoned = inventoryService.reserveStock(new ReserveRequestDTO(50L, 7, "order-2"), null);
+        inventoryService.reserveStockBatch(List.of(new ReserveRequestDTO(50L, 5, null)), "order-3", null);
+
+        inventoryService.confirmStock(new ConfirmRequestDTO(50L, 10, "order-1"), null);
+        inventoryService.releaseStock(new ReleaseRequestDTO(50L, 2, "order-3"), null);
+
+        assertFalse(inventoryService.expireReservation(paid.getReservationId()));
+        assertTrue(inventoryService.expireReservation(abandoned.getReservationId()));
+        assertFalse(inventoryService.expireReservation(abandoned.getReservationId()));
+        // the expired order holds nothing, and without a reference no other order's units are taken
+        assertThrows(BusinessException.class,
+                () -> inventoryService.confirmStock(new ConfirmRequestDTO(50L, 7, "order-2"), null));
+        assertThrows(BusinessException.class,
+                () -> inventoryService.releaseStock(new ReleaseRequestDTO(50L, 1, null), null));
+
+        InventoryResponseDTO inventory = inventoryService.getInventoryByProductId(50L);
+        assertEquals(87, inventory.getAvailableQuantity());
+        assertEquals(3, inventory.getReservedQuantity());
+
+        ReservationStatsDTO stats = inventoryService.getReservationStats();
+        assertEquals(1, stats.getActive());
+        assertEquals(1, stats.getConfirmed());
+        assertEquals(1, stats.getExpired());
+        assertEquals(0, stats.getOverdue());
+        Integer heldForOrder3 = transactionTemplate.execute(status -> reservationRepository
+                .findActiveForUpdate("order-3", 50L).stream().mapToInt(Reservation::getQuantity).sum());
+        assertEquals(3, heldForOrder3);
+    }
+
+    @Test
+    @DisplayName("shouldAnswerBulkAvailability_fromTheNearCache_untilAnExactReadRefreshesIt")
+    void shouldAnswerBulkAvailability_fromTheNearCache_untilAnExactReadRefreshesIt() {
+        stock(70L, 10);
+        stock(71L, 20);
+
+        assertEquals(Map.of(70L, 10, 71L, 20), inventoryService.getAvailability(
+                List.of(70L, 71L, 72L, 70L), AvailabilityMode.APPROXIMATE));
+
+        inventoryService.reserveStock(new ReserveRequestDTO(70L, 4, null), null);
+        assertEquals(10, inventoryService.getAvailability(List.of(70L), AvailabilityMode.APPROXIMATE).get(70L));
+        assertEquals(Map.of(70L, 6, 71L, 20),
+                inventoryService.getAvailability(List.of(70L, 71L), AvailabilityMode.EXACT));
+        assertEquals(6, inventoryService.getAvailability(List.of(70L), AvailabilityMode.APPROXIMATE).get(70L));
+    }
+
+    @Test
+    @DisplayName("shouldRejectStaleWrites_andApplyEveryAdminUpdateThatRacesReservations")
+    void shouldRejectStaleWrites_andApplyEveryAdminUpdateThatRacesReservations() throws Exception {
+        inventoryService.createInventory(new InventoryRequestDTO(100L, 1000));
+        Inventory stale = inventoryRepository.findByProductId(100L).orElseThrow();
+        inventoryService.reserveStock(new ReserveRequestDTO(100L, 3, null), null);
+
+        // the guarded update incremented the version, so writing back the old copy fails
+        assertEquals(stale.getVersion() + 1, inventoryRepository.findByProductId(100L).orElseThrow().getVersion());
+        stale.setAvailableQuantity(1000);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> inventoryRepository.save(stale));
+
+        // admin updates race reservations; each one succeeds and is computed from the counters it replaced
+        List<Integer> updated = race(20, i -> {
+            if (i % 4 == 0) {
+                inventoryService.updateInventory(100L, new InventoryRequestDTO(100L, 1000 + i));
+                return 1;
+            }
+            inventoryService.reserveStock(new ReserveRequestDTO(100L, 1, null), null);
+            return 0;
+        });
+
+        assertEquals(20 * RaceSupport.THREADS / 4, updated.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(3 + 20 * RaceSupport.THREADS * 3 / 4,
+                inventoryService.getInventoryByProductId(100L).getReservedQuantity());
+        assertTrue(inventoryService.checkStockConsistency().getMismatches().isEmpty());
+    }
+
+    /**
+     * Same workload through the guarded UPDATE and through the previous read-modify-write
+     * made safe with a row lock (SELECT ... FOR UPDATE, check in Java, dirty-checked UPDATE).
+     * Both must sell exactly the stock; the throughput of each, after one warm-up round,
+     * is logged rather than asserted.
+     */
+    @Test
+    @Tag(InventoryIntegrationTest.BENCHMARK)
+    @DisplayName("shouldSellExactlyTheStock_withGuardedUpdateAndLockedReadModifyWrite")
+    void shouldSellExactlyTheStock_withGuardedUpdateAndLockedReadModifyWrite() throws Exception {
+        LongFunction<Integer> guardedUpdate = this::guardedReserve;
+        LongFunction<Integer> lockedReadModifyWrite = productId -> transactionTemplate.execute(status -> {
+            Inventory inventory = entityManager
+                    .createQuery("select i from Inventory i where i.productId = :productId", Inventory.class)
+                    .setParameter("productId", productId)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getSingleResult();
+            if (inventory.getAvailableQuantity() < 1) {
+                return 0;
+            }
+            inventory.setAvailableQuantity(inventory.getAvailableQuantity() - 1);
+            inventory.setReservedQuantity(inventory.getReservedQuantity() + 1);
+            return 1;
+        });
+
+        stock(10L, 1600);
+        stock(11L, 1600);
+        stock(12L, 1600);
+        stock(13L, 1600);
+        sellOut(10L, 1600, guardedUpdate);
+        sellOut(11L, 1600, lockedReadModifyWrite);
+        long guardedOpsPerSecond = sellOut(12L, 1600, guardedUpdate);
+        long lockedOpsPerSecond = sellOut(13L, 1600, lockedReadModifyWrite);
+
+        assertEquals(0, inventoryRepository.findByProductId(12L).orElseThrow().getAvailableQuantity());
+        assertEquals(0, inventoryRepository.findByProductId(13L).orElseThrow().getAvailableQuantity());
+
+        log.warn("Reservations on one contended row: guarded UPDATE {} ops/s, "
+                + "SELECT FOR UPDATE + UPDATE {} ops/s", guardedOpsPerSecond, lockedOpsPerSecond);
+    }
+
+    private int guardedReserve(long productId) {
+        return transactionTemplate.execute(status -> inventoryRepository.reserve(productId, 1, LocalDateTime.now()));
+    }
+
+    private void stock(Long productId, int quantity) {
+        inventoryRepository.save(Inventory.builder()
+                .productId(productId)
+                .availableQuantity(quantity)
+                .reservedQuantity(0)
+                .build());
+    }
+}
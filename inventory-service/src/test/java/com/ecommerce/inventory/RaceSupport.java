@@ -0,0 +1,76 @@
+package com.ecommerce.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+
+/**
+ * Runs the same operation from many threads released at once, for the concurrency tests.
+ */
+public final class RaceSupport {
+
+    public static final int THREADS = 16;
+
+    private RaceSupport() {
+    }
+
+    /**
+     * Release all threads at once; each runs the operation attemptsPerThread times, numbered
+     * across threads, and the sum of each thread's results is returned.
+     */
+    public static List<Integer> race(int attemptsPerThread, IntFunction<Integer> operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                Callable<Integer> task = () -> {
+                    start.await();
+                    int total = 0;
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        total += operation.apply(thread * attemptsPerThread + i);
+                    }
+                    return total;
+                };
+                futures.add(executor.submit(task));
+            }
+
+            start.countDown();
+
+            List<Integer> outcomes = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                outcomes.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Let every thread reserve single units until twice the stock has been attempted;
+     * asserts exactly the stock was sold and returns attempts per second.
+     */
+    public static long sellOut(Long productId, int stock, LongFunction<Integer> reserveOne) throws Exception {
+        int attemptsPerThread = 2 * stock / THREADS;
+
+        long start = System.nanoTime();
+        int sold = race(attemptsPerThread, i -> reserveOne.apply(productId)).stream()
+                .mapToInt(Integer::intValue).sum();
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(stock, sold);
+        return THREADS * attemptsPerThread * 1_000_000_000L / elapsed;
+    }
+}
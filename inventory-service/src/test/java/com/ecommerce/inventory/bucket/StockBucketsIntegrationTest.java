@@ -0,0 +1,124 @@
+package com.ecommerce.inventory.bucket;
+
+import static com.ecommerce.inventory.RaceSupport.sellOut;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.ecommerce.common.exception.BusinessException;
+import com.ecommerce.inventory.InventoryIntegrationTest;
+import com.ecommerce.inventory.dto.AvailabilityMode;
+import com.ecommerce.inventory.dto.ConfirmRequestDTO;
+import com.ecommerce.inventory.dto.InventoryRequestDTO;
+import com.ecommerce.inventory.dto.InventoryResponseDTO;
+import com.ecommerce.inventory.dto.ReleaseRequestDTO;
+import com.ecommerce.inventory.dto.ReserveRequestDTO;
+import com.ecommerce.inventory.repository.InventoryBucketRepository;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.ReservationRepository;
+import com.ecommerce.inventory.repository.StockMovementRepository;
+import com.ecommerce.inventory.service.InventoryService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@InventoryIntegrationTest
+@DisplayName("Stock Buckets Integration Test Suite")
+class StockBucketsIntegrationTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryBucketRepository bucketRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private BucketedStock bucketedStock;
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAll();
+        bucketRepository.deleteAllInBatch();
+        reservationRepository.deleteAll();
+        movementRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Every read must see the bucket sums, and the movements must still replay to them.
+     */
+    @Test
+    @DisplayName("shouldSellExactlyTheStock_acrossStockBuckets_andReadTheirSums")
+    void shouldSellExactlyTheStock_acrossStockBuckets_andReadTheirSums() throws Exception {
+        inventoryService.createInventory(new InventoryRequestDTO(81L, 800));
+        assertEquals(8, inventoryService.setStockBuckets(81L, 8).getStockBuckets());
+
+        sellOut(81L, 800, this::reserveOne);
+
+        InventoryResponseDTO bucketed = inventoryService.getInventoryByProductId(81L);
+        assertEquals(0, bucketed.getAvailableQuantity());
+        assertEquals(800, bucketed.getReservedQuantity());
+        assertEquals(0, inventoryService.getAvailability(List.of(81L), AvailabilityMode.EXACT).get(81L));
+        bucketedStock.rebalance();
+        assertEquals(800, inventoryRepository.findByProductId(81L).orElseThrow().getReservedQuantity());
+
+        // needs units from several buckets, so it is spread across them
+        inventoryService.confirmStock(new ConfirmRequestDTO(81L, 300, null), null);
+        inventoryService.updateInventory(81L, new InventoryRequestDTO(81L, 50));
+        assertEquals(500, inventoryService.getInventoryByProductId(81L).getReservedQuantity());
+        assertTrue(inventoryService.checkStockConsistency().getMismatches().isEmpty());
+
+        InventoryResponseDTO merged = inventoryService.setStockBuckets(81L, 1);
+        assertNull(merged.getStockBuckets());
+        assertEquals(50, merged.getAvailableQuantity());
+        assertEquals(500, merged.getReservedQuantity());
+        assertEquals(0, bucketRepository.count());
+        inventoryService.releaseStock(new ReleaseRequestDTO(81L, 100, null), null);
+        assertEquals(150, inventoryService.getInventoryByProductId(81L).getAvailableQuantity());
+        assertTrue(inventoryService.checkStockConsistency().getMismatches().isEmpty());
+    }
+
+    /**
+     * Single-unit reservations through the service on a product in its single row and on
+     * one spread over eight buckets; the throughput of each is logged.
+     */
+    @Test
+    @Tag(InventoryIntegrationTest.BENCHMARK)
+    @DisplayName("shouldSellExactlyTheStock_fromASingleRowAndFromStockBuckets")
+    void shouldSellExactlyTheStock_fromASingleRowAndFromStockBuckets() throws Exception {
+        inventoryService.createInventory(new InventoryRequestDTO(82L, 1600));
+        inventoryService.createInventory(new InventoryRequestDTO(83L, 1600));
+        inventoryService.setStockBuckets(83L, 8);
+
+        long singleRowOpsPerSecond = sellOut(82L, 1600, this::reserveOne);
+        long bucketedOpsPerSecond = sellOut(83L, 1600, this::reserveOne);
+
+        log.warn("Reservations on one hot product through the service: single row {} ops/s, 8 buckets {} ops/s",
+                singleRowOpsPerSecond, bucketedOpsPerSecond);
+    }
+
+    private int reserveOne(long productId) {
+        try {
+            inventoryService.reserveStock(new ReserveRequestDTO(productId, 1, null), null);
+            return 1;
+        } catch (BusinessException ex) {
+            return 0;
+        }
+    }
+}
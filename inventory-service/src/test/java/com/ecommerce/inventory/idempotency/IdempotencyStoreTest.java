@@ -0,0 +1,157 @@
+package com.ecommerce.inventory.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+
+import com.ecommerce.common.exception.BusinessException;
+import com.ecommerce.inventory.dto.ReserveRequestDTO;
+import com.ecommerce.inventory.entity.IdempotencyRecord;
+import com.ecommerce.inventory.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyStore Test Suite")
+class IdempotencyStoreTest {
+
+    private static final TypeReference<Integer> UNITS = new TypeReference<>() { };
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyStore store;
+    private ReserveRequestDTO request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new IdempotencyStore(repository, new ObjectMapper(), meterRegistry, 3, Duration.ofHours(24));
+        request = new ReserveRequestDTO(1L, 2, "order-1");
+    }
+
+    @Test
+    @DisplayName("shouldReplayStoredResponse_whenTheSameRequestRepeatsItsKey")
+    void shouldReplayStoredResponse_whenTheSameRequestRepeatsItsKey() {
+        IdempotencyRecord stored = record("reserve", "key-1", request, 7);
+        when(repository.findByOperationAndIdempotencyKey("reserve", "key-1")).thenReturn(Optional.of(stored));
+        when(repository.findByOperationAndIdempotencyKey("release", "key-1")).thenReturn(Optional.empty());
+
+        assertEquals(Optional.of(7), store.find("reserve", "key-1", new ReserveRequestDTO(1L, 2, "order-1"), UNITS));
+        assertEquals(1.0, meterRegistry.counter("inventory.idempotency.replays").count());
+        // the same key on another operation is a new change
+        assertTrue(store.find("release", "key-1", request, UNITS).isEmpty());
+    }
+
+    @Test
+    @DisplayName("shouldRejectKey_whenReusedForDifferentRequest")
+    void shouldRejectKey_whenReusedForDifferentRequest() {
+        IdempotencyRecord stored = record("reserve", "key-1", request, 7);
+        when(repository.findByOperationAndIdempotencyKey("reserve", "key-1")).thenReturn(Optional.of(stored));
+
+        assertThrows(BusinessException.class,
+                () -> store.find("reserve", "key-1", new ReserveRequestDTO(1L, 3, "order-1"), UNITS));
+        assertEquals(0.0, meterRegistry.counter("inventory.idempotency.replays").count());
+    }
+
+    @Test
+    @DisplayName("shouldRejectKey_whenLongerThanTheColumn")
+    void shouldRejectKey_whenLongerThanTheColumn() {
+        assertThrows(BusinessException.class, () -> store.find("reserve", "k".repeat(129), request, UNITS));
+        verify(repository, never()).findByOperationAndIdempotencyKey(any(), any());
+    }
+
+    @Test
+    @DisplayName("shouldFail_whenStoredResponseIsUnreadable")
+    void shouldFail_whenStoredResponseIsUnreadable() {
+        IdempotencyRecord stored = record("reserve", "key-1", request, "not a number");
+        when(repository.findByOperationAndIdempotencyKey("reserve", "key-1")).thenReturn(Optional.of(stored));
+
+        assertThrows(IllegalStateException.class, () -> store.find("reserve", "key-1", request, UNITS));
+    }
+
+    @Test
+    @DisplayName("shouldRetryTheChange_whenAnotherRequestStoredTheKeyFirst")
+    void shouldRetryTheChange_whenAnotherRequestStoredTheKeyFirst() {
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("uk_idempotency_operation_key"));
+
+        assertThrows(ConcurrencyFailureException.class, () -> store.record("reserve", "key-1", request, 7));
+    }
+
+    @Test
+    @DisplayName("shouldRunTheChangeOnce_andStoreItsResponse_whenTheKeyIsNew")
+    void shouldRunTheChangeOnce_andStoreItsResponse_whenTheKeyIsNew() {
+        when(repository.findByOperationAndIdempotencyKey("reserve", "key-1")).thenReturn(Optional.empty());
+
+        assertEquals(7, store.execute("reserve", "key-1", request, UNITS, () -> 7));
+
+        IdempotencyRecord saved = captureSaved();
+        assertEquals("reserve", saved.getOperation());
+        assertEquals("key-1", saved.getIdempotencyKey());
+        assertEquals("7", saved.getResponse());
+        // without a key the change simply runs
+        assertEquals(8, store.execute("reserve", null, request, UNITS, () -> 8));
+    }
+
+    @Test
+    @DisplayName("shouldDeleteExpiredKeys_andTheOldestBeyondTheLimit_whenPurging")
+    void shouldDeleteExpiredKeys_andTheOldestBeyondTheLimit_whenPurging() {
+        when(repository.findIdsNewestFirst(PageRequest.of(3, 1))).thenReturn(List.of(40L));
+
+        LocalDateTime before = LocalDateTime.now().minusHours(24);
+        store.purge();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).deleteCreatedBefore(cutoff.capture());
+        assertTrue(!cutoff.getValue().isBefore(before) && cutoff.getValue().isBefore(before.plusMinutes(1)));
+        verify(repository).deleteUpToId(40L);
+    }
+
+    @Test
+    @DisplayName("shouldKeepUnexpiredKeys_whenWithinTheLimit")
+    void shouldKeepUnexpiredKeys_whenWithinTheLimit() {
+        when(repository.findIdsNewestFirst(PageRequest.of(3, 1))).thenReturn(List.of());
+
+        store.purge();
+
+        verify(repository, never()).deleteUpToId(anyLong());
+    }
+
+    /**
+     * What {@link IdempotencyStore#record} writes for this request and response.
+     */
+    private IdempotencyRecord record(String operation, String key, Object request, Object response) {
+        store.record(operation, key, request, response);
+        return captureSaved();
+    }
+
+    private IdempotencyRecord captureSaved() {
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).saveAndFlush(saved.capture());
+        return saved.getValue();
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.inventory.idempotency;
+
+import static com.ecommerce.inventory.RaceSupport.race;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.common.exception.BusinessException;
+import com.ecommerce.inventory.InventoryIntegrationTest;
+import com.ecommerce.inventory.dto.ConfirmRequestDTO;
+import com.ecommerce.inventory.dto.InventoryResponseDTO;
+import com.ecommerce.inventory.dto.ReserveRequestDTO;
+import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.repository.IdempotencyRecordRepository;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.ReservationRepository;
+import com.ecommerce.inventory.repository.StockMovementRepository;
+import com.ecommerce.inventory.reservation.ReserveGroupCommitter;
+import com.ecommerce.inventory.service.InventoryService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@InventoryIntegrationTest
+@DisplayName("Idempotent Stock Change Integration Test Suite")
+class IdempotentStockChangeIntegrationTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ReserveGroupCommitter reserveGroupCommitter;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAll();
+        reservationRepository.deleteAll();
+        movementRepository.deleteAllInBatch();
+        idempotencyRecordRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("shouldChangeStockOncePerIdempotencyKey_andReplayTheStoredResponse")
+    void shouldChangeStockOncePerIdempotencyKey_andReplayTheStoredResponse() throws Exception {
+        inventoryRepository.save(Inventory.builder()
+                .productId(100L)
+                .availableQuantity(10)
+                .reservedQuantity(0)
+                .build());
+        ReserveRequestDTO request = new ReserveRequestDTO(100L, 2, "order-100");
+
+        // concurrent retries of one request, direct and through the group committer
+        Set<Long> reservationIds = ConcurrentHashMap.newKeySet();
+        race(1, i -> {
+            InventoryResponseDTO response = i % 2 == 0
+                    ? inventoryService.reserveStock(request, "key-1")
+                    : reserveGroupCommitter.reserve(request, "key-1");
+            reservationIds.add(response.getReservationId());
+            return 1;
+        });
+        assertEquals(1, reservationIds.size());
+        assertEquals(8, inventoryService.getInventoryByProductId(100L).getAvailableQuantity());
+
+        // another instance, or this one after a restart, replays from the table
+        IdempotencyStore restarted = new IdempotencyStore(idempotencyRecordRepository, objectMapper,
+                new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+        InventoryResponseDTO replayed = transactionTemplate.execute(status -> restarted.execute("reserve", "key-1",
+                request, new TypeReference<InventoryResponseDTO>() { }, () -> {
+                    throw new AssertionError("replayed request changed stock again");
+                }));
+        assertEquals(reservationIds.iterator().next(), replayed.getReservationId());
+
+        assertThrows(BusinessException.class, () -> inventoryService.reserveStock(
+                new ReserveRequestDTO(100L, 3, "order-100"), "key-1"));
+        // a failed change stores nothing, so its key can be used again
+        assertThrows(BusinessException.class, () -> inventoryService.confirmStock(
+                new ConfirmRequestDTO(100L, 5, "order-100"), "key-2"));
+        inventoryService.confirmStock(new ConfirmRequestDTO(100L, 2, "order-100"), "key-2");
+        inventoryService.confirmStock(new ConfirmRequestDTO(100L, 2, "order-100"), "key-2");
+        assertEquals(0, inventoryService.getInventoryByProductId(100L).getReservedQuantity());
+        assertEquals(2, idempotencyRecordRepository.count());
+    }
+}
@@ -0,0 +1,231 @@
+package com.ecommerce.inventory.ledger;
+
+import static com.ecommerce.inventory.RaceSupport.race;
+import static com.ecommerce.inventory.RaceSupport.sellOut;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import com.ecommerce.common.exception.BusinessException;
+import com.ecommerce.inventory.InventoryIntegrationTest;
+import com.ecommerce.inventory.dto.InventoryRequestDTO;
+import com.ecommerce.inventory.dto.ReserveRequestDTO;
+import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.ReservationRepository;
+import com.ecommerce.inventory.repository.StockMovementRepository;
+import com.ecommerce.inventory.repository.StockSnapshotRepository;
+import com.ecommerce.inventory.service.InventoryService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The application's ledger owns products 31, 33 and 34, stocked by flash-sale-stock.sql before
+ * it recovers; the restart tests start ledgers of their own on other products and journals.
+ */
+@Slf4j
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.defer-datasource-initialization=true",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.data-locations=classpath:flash-sale-stock.sql",
+        "spring.datasource.url=jdbc:h2:mem:flashsaledb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "logging.level.com.ecommerce=WARN",
+        "eureka.client.enabled=false",
+        "app.openapi.title=Inventory Service API",
+        "app.openapi.version=test",
+        "app.openapi.description=Inventory Service API",
+        "app.flash-sale.enabled=true",
+        "app.flash-sale.hot-product-ids=31,33,34"
+})
+@DisplayName("FlashSaleLedger Integration Test Suite")
+class FlashSaleLedgerIntegrationTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private FlashSaleLedger flashSaleLedger;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private StockSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path journalDirectory;
+
+    @DynamicPropertySource
+    static void journalFile(DynamicPropertyRegistry registry) throws IOException {
+        Path journal = Files.createTempDirectory("flash-sale").resolve("stock.journal");
+        registry.add("app.flash-sale.journal-file", journal::toString);
+    }
+
+    @Test
+    @DisplayName("shouldSellExactlyTheStock_throughTheService_withTheFlashSaleLedger")
+    void shouldSellExactlyTheStock_throughTheService_withTheFlashSaleLedger() throws Exception {
+        assertTrue(flashSaleLedger.owns(34L));
+
+        sellOut(34L, 800, this::reserveOne);
+
+        assertEquals(0, StockLedger.available(flashSaleLedger.state(34L)));
+        assertEquals(800, StockLedger.reserved(flashSaleLedger.state(34L)));
+        assertEquals(800, reservationRepository.findAll().stream()
+                .filter(reservation -> reservation.getProductId() == 34L).count());
+        flashSaleLedger.writeBehind();
+        assertEquals(800, inventoryRepository.findByProductId(34L).orElseThrow().getReservedQuantity());
+    }
+
+    /**
+     * Single-unit reservations through InventoryService on a product in its row and on one
+     * the ledger owns, after one warm-up round each. Both pay for the reservation and the
+     * movement insert in a transaction per request; the ledger only takes the row update out
+     * of it. The throughput of each is logged.
+     */
+    @Test
+    @Tag(InventoryIntegrationTest.BENCHMARK)
+    @DisplayName("shouldSellExactlyTheStock_fromTheRowAndFromTheFlashSaleLedger")
+    void shouldSellExactlyTheStock_fromTheRowAndFromTheFlashSaleLedger() throws Exception {
+        sellOut(30L, 1600, this::reserveOne);
+        sellOut(31L, 1600, this::reserveOne);
+        long rowOpsPerSecond = sellOut(32L, 1600, this::reserveOne);
+        long ledgerOpsPerSecond = sellOut(33L, 1600, this::reserveOne);
+
+        log.warn("Reservations on one hot product through the service: guarded UPDATE {} ops/s, "
+                + "flash-sale ledger {} ops/s", rowOpsPerSecond, ledgerOpsPerSecond);
+    }
+
+    @Test
+    @DisplayName("shouldRecoverExactCounts_fromTheJournal_whenRestartedWithoutWriteBehind")
+    void shouldRecoverExactCounts_fromTheJournal_whenRestartedWithoutWriteBehind() throws Exception {
+        Path journal = journalDirectory.resolve("stock.journal");
+        stock(40L, 5000);
+        FlashSaleLedger crashed = startLedger(journal, 40L);
+
+        race(60, i -> {
+            crashed.reserve(40L, 2);
+            if (i % 3 == 0) {
+                crashed.release(40L, 1);
+            } else if (i % 3 == 1) {
+                crashed.confirm(40L, 2);
+            }
+            return 0;
+        });
+        long beforeCrash = crashed.state(40L);
+        // the table still holds the quantities copied when the ledger started
+        assertEquals(5000, inventoryRepository.findByProductId(40L).orElseThrow().getAvailableQuantity());
+        // release the instance lock, then undo the write-behind of shutdown so only the journal has the counts
+        crashed.shutdown();
+        jdbcTemplate.update("update inventories set available_quantity = 5000, reserved_quantity = 0 "
+                + "where product_id = 40");
+
+        FlashSaleLedger restarted = startLedger(journal, 40L);
+        try {
+            assertEquals(beforeCrash, restarted.state(40L));
+            Inventory written = inventoryRepository.findByProductId(40L).orElseThrow();
+            assertEquals(StockLedger.available(beforeCrash), written.getAvailableQuantity());
+            assertEquals(StockLedger.reserved(beforeCrash), written.getReservedQuantity());
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("shouldDropJournaledChanges_thatNeverCommitted_whenRecovering")
+    void shouldDropJournaledChanges_thatNeverCommitted_whenRecovering() throws Exception {
+        Path journal = journalDirectory.resolve("stock.journal");
+        inventoryService.createInventory(new InventoryRequestDTO(41L, 300));
+        inventoryService.createInventory(new InventoryRequestDTO(42L, 300));
+        inventoryService.reserveStock(new ReserveRequestDTO(41L, 20, "order-1"), null);
+        FlashSaleLedger crashed = startLedger(journal, 41L, 42L);
+        try {
+            // journaled and acknowledged, but the transaction recording it never commits
+            assertTrue(crashed.reserve(41L, 50));
+            assertTrue(crashed.reserve(42L, 30));
+        } finally {
+            crashed.shutdown();
+        }
+
+        FlashSaleLedger restarted = startLedger(journal, 41L, 42L);
+        try {
+            assertEquals(280, StockLedger.available(restarted.state(41L)));
+            assertEquals(20, StockLedger.reserved(restarted.state(41L)));
+            assertEquals(300, StockLedger.available(restarted.state(42L)));
+            assertEquals(0, StockLedger.reserved(restarted.state(42L)));
+            assertEquals(280, inventoryRepository.findByProductId(41L).orElseThrow().getAvailableQuantity());
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("shouldRefuseToStart_whileAnotherLedgerUsesTheJournal")
+    void shouldRefuseToStart_whileAnotherLedgerUsesTheJournal() throws Exception {
+        Path journal = journalDirectory.resolve("stock.journal");
+        stock(43L, 100);
+        FlashSaleLedger running = startLedger(journal, 43L);
+        try {
+            assertThrows(IllegalStateException.class, () -> startLedger(journal, 43L));
+            assertTrue(running.reserve(43L, 1));
+        } finally {
+            running.shutdown();
+        }
+
+        FlashSaleLedger restarted = startLedger(journal, 43L);
+        restarted.shutdown();
+    }
+
+    private int reserveOne(long productId) {
+        try {
+            inventoryService.reserveStock(new ReserveRequestDTO(productId, 1, null), null);
+            return 1;
+        } catch (BusinessException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * A ledger owning the given products, started the way the application starts its own.
+     */
+    private FlashSaleLedger startLedger(Path journal, long... productIds) throws Exception {
+        FlashSaleLedger ledger = new FlashSaleLedger(inventoryRepository, movementRepository, snapshotRepository,
+                jdbcTemplate, true, productIds, journal, 64 * 1024 * 1024);
+        ledger.recover();
+        return ledger;
+    }
+
+    private void stock(Long productId, int quantity) {
+        inventoryRepository.save(Inventory.builder()
+                .productId(productId)
+                .availableQuantity(quantity)
+                .reservedQuantity(0)
+                .build());
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.inventory.ledger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("StockJournal Test Suite")
+class StockJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("shouldReplayExactTotals_ofEveryAcknowledgedChange")
+    void shouldReplayExactTotals_ofEveryAcknowledgedChange() throws IOException {
+        Path file = directory.resolve("stock.journal");
+        try (StockJournal journal = new StockJournal(file, initial(), Long.MAX_VALUE)) {
+            CompletableFuture.allOf(
+                    journal.append(1L, -3, 3),
+                    journal.append(2L, 5, -5),
+                    journal.append(1L, 0, -2)).join();
+        }
+
+        Map<Long, long[]> totals = StockJournal.replay(file);
+        assertArrayEquals(new long[] {97, 1}, totals.get(1L));
+        assertArrayEquals(new long[] {15, 0}, totals.get(2L));
+    }
+
+    @Test
+    @DisplayName("shouldIgnoreATornTail_leftByACrashDuringAWrite")
+    void shouldIgnoreATornTail_leftByACrashDuringAWrite() throws IOException {
+        Path file = directory.resolve("stock.journal");
+        try (StockJournal journal = new StockJournal(file, initial(), Long.MAX_VALUE)) {
+            journal.append(1L, -1, 1).join();
+        }
+        Files.write(file, new byte[] {2, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0}, StandardOpenOption.APPEND);
+
+        assertArrayEquals(new long[] {99, 1}, StockJournal.replay(file).get(1L));
+    }
+
+    @Test
+    @DisplayName("shouldKeepTotals_whenCompactingIntoSnapshots")
+    void shouldKeepTotals_whenCompactingIntoSnapshots() throws IOException {
+        Path file = directory.resolve("stock.journal");
+        try (StockJournal journal = new StockJournal(file, initial(), 1024)) {
+            for (int i = 0; i < 60; i++) {
+                journal.append(1L, -1, 1).join();
+            }
+        }
+
+        assertTrue(Files.size(file) < 1024);
+        assertArrayEquals(new long[] {40, 60}, StockJournal.replay(file).get(1L));
+        assertArrayEquals(new long[] {10, 5}, StockJournal.replay(file).get(2L));
+    }
+
+    private static Map<Long, int[]> initial() {
+        Map<Long, int[]> initial = new LinkedHashMap<>();
+        initial.put(1L, new int[] {100, 0});
+        initial.put(2L, new int[] {10, 5});
+        return initial;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.inventory.ledger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("StockLedger Test Suite")
+class StockLedgerTest {
+
+    private StockLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new StockLedger(new long[] {7L, 42L, 1_000_003L});
+        ledger.set(42L, 10, 0);
+    }
+
+    @Test
+    @DisplayName("shouldOwnOnlyTheRegisteredProducts")
+    void shouldOwnOnlyTheRegisteredProducts() {
+        assertTrue(ledger.owns(7L));
+        assertTrue(ledger.owns(1_000_003L));
+        assertFalse(ledger.owns(8L));
+        assertFalse(ledger.owns(0L));
+        assertThrows(IllegalArgumentException.class, () -> ledger.reserve(8L, 1));
+    }
+
+    @Test
+    @DisplayName("shouldMoveUnitsBetweenAvailableAndReserved")
+    void shouldMoveUnitsBetweenAvailableAndReserved() {
+        long reserved = ledger.reserve(42L, 4);
+        assertEquals(6, StockLedger.available(reserved));
+        assertEquals(4, StockLedger.reserved(reserved));
+
+        ledger.release(42L, 1);
+        long confirmed = ledger.confirm(42L, 3);
+        assertEquals(7, StockLedger.available(confirmed));
+        assertEquals(0, StockLedger.reserved(confirmed));
+    }
+
+    @Test
+    @DisplayName("shouldRejectChanges_thatWouldMakeAQuantityNegative")
+    void shouldRejectChanges_thatWouldMakeAQuantityNegative() {
+        assertEquals(StockLedger.REJECTED, ledger.reserve(42L, 11));
+        assertEquals(StockLedger.REJECTED, ledger.release(42L, 1));
+        assertEquals(StockLedger.REJECTED, ledger.confirm(7L, 1));
+        assertEquals(10, StockLedger.available(ledger.state(42L)));
+    }
+
+    @Test
+    @DisplayName("shouldSellExactlyTheStock_whenThreadsRace")
+    void shouldSellExactlyTheStock_whenThreadsRace() throws Exception {
+        ledger.set(7L, 50_000, 0);
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    if (ledger.reserve(7L, 1) != StockLedger.REJECTED) {
+                        sold.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(50_000, sold.get());
+        assertEquals(0, StockLedger.available(ledger.state(7L)));
+        assertEquals(50_000, StockLedger.reserved(ledger.state(7L)));
+    }
+}
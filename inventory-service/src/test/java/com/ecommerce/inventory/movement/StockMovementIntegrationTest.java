@@ -0,0 +1,95 @@
+package com.ecommerce.inventory.movement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.ecommerce.common.exception.BusinessException;
+import com.ecommerce.inventory.InventoryIntegrationTest;
+import com.ecommerce.inventory.dto.ConfirmRequestDTO;
+import com.ecommerce.inventory.dto.InventoryRequestDTO;
+import com.ecommerce.inventory.dto.ReleaseRequestDTO;
+import com.ecommerce.inventory.dto.ReserveRequestDTO;
+import com.ecommerce.inventory.dto.StockConsistencyReportDTO;
+import com.ecommerce.inventory.dto.StockMismatchDTO;
+import com.ecommerce.inventory.dto.StockMovementDTO;
+import com.ecommerce.inventory.entity.MovementType;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.ReservationRepository;
+import com.ecommerce.inventory.repository.StockMovementRepository;
+import com.ecommerce.inventory.repository.StockSnapshotRepository;
+import com.ecommerce.inventory.service.InventoryService;
+
+@InventoryIntegrationTest
+@DisplayName("Stock Movement Integration Test Suite")
+class StockMovementIntegrationTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private StockSnapshotScheduler snapshotScheduler;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private StockSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAll();
+        reservationRepository.deleteAll();
+        movementRepository.deleteAllInBatch();
+        snapshotRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("shouldRecordEveryMovement_andReplayThemToTheCounters")
+    void shouldRecordEveryMovement_andReplayThemToTheCounters() {
+        inventoryService.createInventory(new InventoryRequestDTO(60L, 100));
+        inventoryService.reserveStockBatch(List.of(new ReserveRequestDTO(60L, 10, null)), "order-1", null);
+        inventoryService.confirmStock(new ConfirmRequestDTO(60L, 4, "order-1"), null);
+        assertEquals(1, snapshotScheduler.takeSnapshots());
+        inventoryService.releaseStockBatch(List.of(new ReleaseRequestDTO(60L, 6, "order-1")), null);
+        inventoryService.updateInventory(60L, new InventoryRequestDTO(60L, 120));
+        // rolled back, so nothing is recorded
+        assertThrows(BusinessException.class,
+                () -> inventoryService.reserveStock(new ReserveRequestDTO(60L, 500, null), null));
+
+        List<MovementType> types = inventoryService.getStockMovements(60L, PageRequest.of(0, 10)).getContent().stream()
+                .map(StockMovementDTO::getType)
+                .toList();
+        assertEquals(List.of(MovementType.ADJUST, MovementType.RELEASE, MovementType.CONFIRM,
+                MovementType.RESERVE, MovementType.OPENING), types);
+        StockConsistencyReportDTO report = inventoryService.checkStockConsistency();
+        assertEquals(1, report.getProductsChecked());
+        assertTrue(report.getMismatches().isEmpty());
+
+        // a counter changed without a movement is caught by the replay
+        jdbcTemplate.update("update inventories set available_quantity = available_quantity + 1 where product_id = 60");
+        List<StockMismatchDTO> mismatches = inventoryService.checkStockConsistency().getMismatches();
+        assertEquals(1, mismatches.size());
+        assertEquals(121, mismatches.get(0).getAvailableQuantity());
+        assertEquals(120, mismatches.get(0).getReplayedAvailable());
+        assertEquals(120, mismatches.get(0).getSnapshotAvailable());
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.inventory.reservation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ReservationExpiryWheel Test Suite")
+class ReservationExpiryWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private ReservationExpiryWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        // 100 ms ticks, 8 slots: one turn of the wheel is 800 ms
+        wheel = new ReservationExpiryWheel(100, 8, START);
+    }
+
+    @Test
+    @DisplayName("shouldExpireReservations_onlyOnceTheirDeadlinePassed")
+    void shouldExpireReservations_onlyOnceTheirDeadlinePassed() {
+        wheel.schedule(1L, START + 250);
+        wheel.schedule(2L, START + 300);
+
+        assertArrayEquals(new long[0], wheel.advance(START + 299));
+        assertArrayEquals(new long[] {1L, 2L}, sorted(wheel.advance(START + 300)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("shouldKeepReservationsDueLaterTurns_inTheSharedSlot")
+    void shouldKeepReservationsDueLaterTurns_inTheSharedSlot() {
+        wheel.schedule(1L, START + 200);
+        wheel.schedule(2L, START + 1000);
+        wheel.schedule(3L, START + 1800);
+
+        assertArrayEquals(new long[] {1L}, wheel.advance(START + 900));
+        assertArrayEquals(new long[] {2L}, wheel.advance(START + 1700));
+        assertArrayEquals(new long[] {3L}, wheel.advance(START + 1800));
+    }
+
+    @Test
+    @DisplayName("shouldExpireEverythingDue_whenTheClockJumpsPastAFullTurn")
+    void shouldExpireEverythingDue_whenTheClockJumpsPastAFullTurn() {
+        for (long id = 1; id <= 20; id++) {
+            wheel.schedule(id, START + id * 100);
+        }
+        wheel.schedule(21L, START + 10_000);
+
+        assertEquals(20, wheel.advance(START + 5000).length);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    @DisplayName("shouldExpireOverdueReservations_onTheNextTick")
+    void shouldExpireOverdueReservations_onTheNextTick() {
+        wheel.advance(START + 500);
+        wheel.schedule(1L, START - 60_000);
+
+        assertArrayEquals(new long[] {1L}, wheel.advance(START + 600));
+    }
+
+    private static long[] sorted(long[] ids) {
+        Arrays.sort(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,123 @@
+package com.ecommerce.inventory.reservation;
+
+import static com.ecommerce.inventory.RaceSupport.sellOut;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.common.exception.BusinessException;
+import com.ecommerce.inventory.InventoryIntegrationTest;
+import com.ecommerce.inventory.dto.InventoryResponseDTO;
+import com.ecommerce.inventory.dto.ReserveRequestDTO;
+import com.ecommerce.inventory.entity.Inventory;
+import com.ecommerce.inventory.entity.Reservation;
+import com.ecommerce.inventory.repository.InventoryRepository;
+import com.ecommerce.inventory.repository.ReservationRepository;
+import com.ecommerce.inventory.repository.StockMovementRepository;
+import com.ecommerce.inventory.service.InventoryService;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@InventoryIntegrationTest
+@DisplayName("ReserveGroupCommitter Integration Test Suite")
+class ReserveGroupCommitterIntegrationTest {
+
+    @Autowired
+    private ReserveGroupCommitter reserveGroupCommitter;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAll();
+        reservationRepository.deleteAll();
+        movementRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("shouldSellExactlyTheStock_whenConcurrentReservationsShareGroupCommits")
+    void shouldSellExactlyTheStock_whenConcurrentReservationsShareGroupCommits() throws Exception {
+        stock(91L, 800);
+        DistributionSummary groupSizes = meterRegistry.get("inventory.reserve.group.size").summary();
+        long groupsBefore = groupSizes.count();
+
+        sellOut(91L, 800, this::reserveGrouped);
+
+        InventoryResponseDTO inventory = inventoryService.getInventoryByProductId(91L);
+        assertEquals(0, inventory.getAvailableQuantity());
+        assertEquals(800, inventory.getReservedQuantity());
+        Integer reservedUnits = transactionTemplate.execute(status -> reservationRepository
+                .findActiveForUpdate("order-91", 91L).stream().mapToInt(Reservation::getQuantity).sum());
+        assertEquals(800, reservedUnits);
+        // 1600 requests, fewer transactions
+        assertTrue(groupSizes.count() - groupsBefore < 2 * 800);
+    }
+
+    /**
+     * Single-unit reservations through the service, each in its own transaction, and
+     * through the group committer, which lets concurrent ones share a transaction; the
+     * throughput of each is logged.
+     */
+    @Test
+    @Tag(InventoryIntegrationTest.BENCHMARK)
+    @DisplayName("shouldSellExactlyTheStock_aloneAndInGroupCommits")
+    void shouldSellExactlyTheStock_aloneAndInGroupCommits() throws Exception {
+        stock(92L, 1600);
+        stock(93L, 1600);
+
+        long aloneOpsPerSecond = sellOut(92L, 1600, productId -> {
+            try {
+                inventoryService.reserveStock(new ReserveRequestDTO(productId, 1, null), null);
+                return 1;
+            } catch (BusinessException ex) {
+                return 0;
+            }
+        });
+        long groupedOpsPerSecond = sellOut(93L, 1600, this::reserveGrouped);
+
+        log.warn("Reservations on one hot product: one transaction each {} ops/s, group commit {} ops/s",
+                aloneOpsPerSecond, groupedOpsPerSecond);
+    }
+
+    private int reserveGrouped(long productId) {
+        try {
+            return reserveGroupCommitter.reserve(new ReserveRequestDTO(productId, 1, "order-" + productId), null)
+                    .getReservationId() != null ? 1 : 0;
+        } catch (BusinessException ex) {
+            return 0;
+        }
+    }
+
+    private void stock(Long productId, int quantity) {
+        inventoryRepository.save(Inventory.builder()
+                .productId(productId)
+                .availableQuantity(quantity)
+                .reservedQuantity(0)
+                .build());
+    }
+}
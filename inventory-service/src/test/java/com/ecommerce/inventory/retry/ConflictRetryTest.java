@@ -0,0 +1,78 @@
+package com.ecommerce.inventory.retry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.ecommerce.common.exception.BusinessException;
+import com.ecommerce.inventory.entity.Inventory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("ConflictRetry Test Suite")
+class ConflictRetryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConflictRetry retry;
+    private AtomicInteger attempts;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retry = new ConflictRetry(meterRegistry, 3, Duration.ofMillis(5), Duration.ofMillis(20));
+        attempts = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("shouldRetryConflicts_andCountThemPerProduct")
+    void shouldRetryConflicts_andCountThemPerProduct() {
+        String result = retry.execute("update", List.of(7L), () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Inventory.class, 1L);
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, meterRegistry.get("inventory.conflicts")
+                .tag("operation", "update").tag("productId", "7").counter().count());
+        assertEquals(2.0, meterRegistry.get("inventory.conflict.retries").tag("productId", "7").counter().count());
+    }
+
+    @Test
+    @DisplayName("shouldGiveUpAfterMaxAttempts_andCountEveryProductOfTheBatch")
+    void shouldGiveUpAfterMaxAttempts_andCountEveryProductOfTheBatch() {
+        assertThrows(BusinessException.class, () -> retry.execute("reserve-batch", List.of(1L, 2L), () -> {
+            attempts.incrementAndGet();
+            throw new CannotAcquireLockException("deadlock");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(3.0, meterRegistry.get("inventory.conflicts").tag("productId", "1").counter().count());
+        assertEquals(3.0, meterRegistry.get("inventory.conflicts").tag("productId", "2").counter().count());
+        assertEquals(2.0, meterRegistry.get("inventory.conflict.retries").tag("productId", "2").counter().count());
+    }
+
+    @Test
+    @DisplayName("shouldNotRetry_whenWorkFailsForAnotherReason")
+    void shouldNotRetry_whenWorkFailsForAnotherReason() {
+        assertThrows(BusinessException.class, () -> retry.execute("reserve", List.of(3L), () -> {
+            attempts.incrementAndGet();
+            throw new BusinessException("Insufficient stock");
+        }));
+
+        assertEquals(1, attempts.get());
+        assertNull(meterRegistry.find("inventory.conflicts").counter());
+    }
+}
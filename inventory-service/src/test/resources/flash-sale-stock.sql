@@ -0,0 +1,7 @@
+-- Stock the flash-sale ledger finds when the test context starts; 31, 33 and 34 are hot
+INSERT INTO inventories (product_id, available_quantity, reserved_quantity, version, created_at, updated_at) VALUES
+    (30, 1600, 0, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    (31, 1600, 0, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    (32, 1600, 0, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    (33, 1600, 0, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    (34, 800, 0, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
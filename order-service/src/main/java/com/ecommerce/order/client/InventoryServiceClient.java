@@ -1,19 +1,30 @@
 package com.ecommerce.order.client;
 
 import com.ecommerce.common.exception.BusinessException;
+import com.ecommerce.order.client.dto.InventoryBatchConfirmRequest;
+import com.ecommerce.order.client.dto.InventoryBatchReleaseRequest;
+import com.ecommerce.order.client.dto.InventoryBatchReserveRequest;
 import com.ecommerce.order.client.dto.InventoryConfirmRequest;
+import com.ecommerce.order.client.dto.InventoryLineResult;
 import com.ecommerce.order.client.dto.InventoryReleaseRequest;
 import com.ecommerce.order.client.dto.InventoryReserveRequest;
 import com.ecommerce.order.client.dto.InventoryResponse;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 @Slf4j
 @Component
@@ -23,6 +34,15 @@ public class InventoryServiceClient {
     private final WebClient.Builder webClientBuilder;  
 
     private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    // every call carries an idempotency key, so a retry never applies a stock change twice
+    private static final int MAX_RETRIES = 2;
+    private static final Duration RETRY_BACKOFF = Duration.ofMillis(200);
+    private static final ParameterizedTypeReference<List<InventoryResponse>> INVENTORY_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<List<InventoryLineResult>> LINE_RESULTS =
+            new ParameterizedTypeReference<>() {
+            };
 
     /**
      * Reserve stock
@@ -36,6 +56,20 @@ public class InventoryServiceClient {
         return callInventoryApi("/api/inventory/reserve", request, "reserve", productId);
     }
 
+    /**
+     * Reserve stock for all lines of an order in one call; the inventory service reserves all or none,
+     * holding the stock under orderReference until confirmed, released or expired
+     */
+    public List<InventoryResponse> reserveStockBatch(List<InventoryReserveRequest> items, String orderReference) {
+        InventoryBatchReserveRequest request = InventoryBatchReserveRequest.builder()
+                .items(items)
+                .orderReference(orderReference)
+                .build();
+
+        return callInventoryApi("/api/inventory/reserve/batch", request, "reserve",
+                "products " + productIds(items, InventoryReserveRequest::getProductId), INVENTORY_LIST);
+    }
+
     /**
      * Release stock
      */
@@ -48,6 +82,18 @@ public class InventoryServiceClient {
         return callInventoryApi("/api/inventory/release", request, "release", productId);
     }
 
+    /**
+     * Release stock for several lines in one call; returns one result per line, in request order
+     */
+    public List<InventoryLineResult> releaseStockBatch(List<InventoryReleaseRequest> items) {
+        InventoryBatchReleaseRequest request = InventoryBatchReleaseRequest.builder()
+                .items(items)
+                .build();
+
+        return callInventoryApi("/api/inventory/release/batch", request, "release",
+                "products " + productIds(items, InventoryReleaseRequest::getProductId), LINE_RESULTS);
+    }
+
     /**
      * Confirm stock
      */
@@ -61,17 +107,41 @@ public class InventoryServiceClient {
     }
 
     /**
-     * Common WebClient executor
+     * Confirm stock for several lines in one call; returns one result per line, in request order
      */
+    public List<InventoryLineResult> confirmStockBatch(List<InventoryConfirmRequest> items) {
+        InventoryBatchConfirmRequest request = InventoryBatchConfirmRequest.builder()
+                .items(items)
+                .build();
+
+        return callInventoryApi("/api/inventory/confirm/batch", request, "confirm",
+                "products " + productIds(items, InventoryConfirmRequest::getProductId), LINE_RESULTS);
+    }
+
     private InventoryResponse callInventoryApi(String path, Object body, String action, Long productId) {
+        return callInventoryApi(path, body, action, "product " + productId,
+                ParameterizedTypeReference.forType(InventoryResponse.class));
+    }
+
+    private static <T> List<Long> productIds(List<T> items, Function<T, Long> productId) {
+        return items.stream().map(productId).toList();
+    }
+
+    /**
+     * Common WebClient executor; timeouts and connection failures are retried with the same idempotency key
+     */
+    private <T> T callInventoryApi(String path, Object body, String action, String target,
+                                   ParameterizedTypeReference<T> responseType) {
 
-        log.info("Calling Inventory Service to {} stock for productId={}", action, productId);
+        String idempotencyKey = UUID.randomUUID().toString();
+        log.info("Calling Inventory Service to {} stock for {} (idempotency key {})", action, target, idempotencyKey);
 
         return webClientBuilder.build()
                 .post()
                 .uri("lb://inventory-service" + path) 
                 .header("X-User-Id", "SYSTEM")
                 .header("X-User-Roles", "INTERNAL")
+                .header("Idempotency-Key", idempotencyKey)
                 .bodyValue(body)
                 .retrieve()
                 //handle HTTP errors
@@ -80,15 +150,19 @@ public class InventoryServiceClient {
                                 .flatMap(errorBody -> {
                                     log.error("Inventory service error: {}", errorBody);
                                     return Mono.error(new BusinessException(
-                                            "Inventory service failed during " + action +
-                                                    " for product " + productId));
+                                            "Inventory service failed during " + action + " for " + target));
                                 })
                 )
-                .bodyToMono(InventoryResponse.class)
+                .bodyToMono(responseType)
                 .timeout(TIMEOUT)
+                .retryWhen(Retry.backoff(MAX_RETRIES, RETRY_BACKOFF)
+                        .filter(error -> error instanceof TimeoutException
+                                || error instanceof WebClientRequestException)
+                        .doBeforeRetry(retry -> log.warn("Retrying {} stock for {} after: {}",
+                                action, target, retry.failure().getMessage()))
+                        .onRetryExhaustedThrow((spec, retry) -> retry.failure()))
                 .doOnError(error ->
-                        log.error("Error during {} stock for productId={}: {}",
-                                action, productId, error.getMessage())
+                        log.error("Error during {} stock for {}: {}", action, target, error.getMessage())
                 )
                 .block();
     }
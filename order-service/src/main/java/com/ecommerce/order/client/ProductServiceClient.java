@@ -1,6 +1,8 @@
 package com.ecommerce.order.client;
 
 import com.ecommerce.common.exception.BusinessException;
+import com.ecommerce.order.client.dto.ProductBulkRequest;
+import com.ecommerce.order.client.dto.ProductBulkResponse;
 import com.ecommerce.order.client.dto.ProductResponse;
 
 import lombok.RequiredArgsConstructor;
@@ -10,6 +12,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -37,4 +42,33 @@ public class ProductServiceClient {
                 .bodyToMono(ProductResponse.class)
                 .block();
     }
-}
\ No newline at end of file
+
+    /**
+     * Name and price for all given products in a single call; unknown IDs come back in missingIds
+     */
+    public ProductBulkResponse getProducts(Collection<Long> productIds) {
+
+        log.info("Fetching product details for {} products", productIds.size());
+
+        ProductBulkRequest request = ProductBulkRequest.builder()
+                .ids(List.copyOf(productIds))
+                .build();
+
+        return webClientBuilder.build()
+                .post()
+                .uri("lb://product-service/api/products/bulk")
+                .header("X-User-Id", "SYSTEM")
+                .header("X-User-Roles", "INTERNAL")
+                .bodyValue(request)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, response ->
+                        response.bodyToMono(String.class)
+                                .flatMap(error -> {
+                                    log.error("Product service error: {}", error);
+                                    return Mono.error(new BusinessException("Failed to fetch products " + productIds));
+                                })
+                )
+                .bodyToMono(ProductBulkResponse.class)
+                .block();
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.order.client.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryBatchReleaseRequest {
+
+    private List<InventoryReleaseRequest> items;
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.order.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InventoryLineResult {
+    private Long productId;
+    private Integer quantity;
+    private boolean success;
+    private String error;
+    private Integer availableQuantity;
+    private Integer reservedQuantity;
+}
@@ -12,4 +12,5 @@ import lombok.NoArgsConstructor;
 public class InventoryReserveRequest {
     private Long productId;
     private Integer quantity;
+    private String orderReference;
 }
@@ -35,6 +35,10 @@ public class Order {
     @Column(name = "payment_success")
     private Boolean paymentSuccess;
 
+    // identifies the stock reservations of this order in inventory-service
+    @Column(name = "reservation_reference", length = 64)
+    private String reservationReference;
+
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
     @JoinColumn(name = "order_id")
     private List<OrderItem> items = new ArrayList<>();
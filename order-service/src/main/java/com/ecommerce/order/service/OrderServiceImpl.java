@@ -4,8 +4,13 @@ import com.ecommerce.common.exception.BusinessException;
 import com.ecommerce.common.exception.ResourceNotFoundException;
 import com.ecommerce.order.client.InventoryServiceClient;
 import com.ecommerce.order.client.ProductServiceClient;
+import com.ecommerce.order.client.dto.InventoryConfirmRequest;
+import com.ecommerce.order.client.dto.InventoryLineResult;
+import com.ecommerce.order.client.dto.InventoryReleaseRequest;
+import com.ecommerce.order.client.dto.InventoryReserveRequest;
 import com.ecommerce.order.client.dto.InventoryResponse;
-import com.ecommerce.order.client.dto.ProductResponse;
+import com.ecommerce.order.client.dto.ProductBulkItem;
+import com.ecommerce.order.client.dto.ProductBulkResponse;
 import com.ecommerce.order.dto.OrderItemDTO;
 import com.ecommerce.order.dto.OrderRequestDTO;
 import com.ecommerce.order.dto.OrderResponseDTO;
@@ -21,7 +26,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -49,33 +57,35 @@ public class OrderServiceImpl implements OrderService {
                 .status(OrderStatus.CREATED)
                 .items(new ArrayList<>())
                 .paymentSuccess(orderRequestDTO.getPaymentSuccess())
+                .reservationReference(UUID.randomUUID().toString())
                 .build();
 
         List<OrderItem> orderItems = new ArrayList<>();
-        List<OrderItemDTO> reservedItems = new ArrayList<>();
 
         BigDecimal totalAmount = BigDecimal.ZERO;
 
+        // one lookup for all lines, before any stock is reserved
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (OrderItemDTO itemDTO : orderRequestDTO.getItems()) {
+            productIds.add(itemDTO.getProductId());
+        }
+
+        ProductBulkResponse products = productServiceClient.getProducts(productIds);
+        if (products == null || products.getProducts() == null) {
+            throw new BusinessException("Failed to fetch products for order");
+        }
+        if (products.getMissingIds() != null && !products.getMissingIds().isEmpty()) {
+            throw new BusinessException("Product not found: " + products.getMissingIds().get(0));
+        }
+
         for (OrderItemDTO itemDTO : orderRequestDTO.getItems()) {
 
-            ProductResponse product = productServiceClient.getProduct(itemDTO.getProductId());
+            ProductBulkItem product = products.getProducts().get(itemDTO.getProductId());
             if (product == null) {
                 throw new BusinessException("Product not found: " + itemDTO.getProductId());
             }
             BigDecimal price = product.getPrice();
 
-            // reserve stock
-            try {
-                InventoryResponse response = inventoryServiceClient.reserveStock(itemDTO.getProductId(), itemDTO.getQuantity());
-                if (response == null) {
-                    releaseReservedStockForOrder(reservedItems);
-                    throw new BusinessException("Failed to reserve stock for product: " + itemDTO.getProductId());
-                }
-                reservedItems.add(itemDTO); // track reserved items for potential rollback
-            } catch (Exception e) {
-                releaseReservedStockForOrder(reservedItems); // rollback previous reservations
-                throw new BusinessException("Failed to reserve stock for product: " + itemDTO.getProductId());
-            }
             OrderItem orderItem = OrderItem.builder()
                     .productId(itemDTO.getProductId())
                     .quantity(itemDTO.getQuantity())
@@ -89,6 +99,25 @@ public class OrderServiceImpl implements OrderService {
             orderItems.add(orderItem);
         }
 
+        // every line in one call and one inventory transaction: all reserved or none, nothing to compensate
+        List<InventoryReserveRequest> reserveLines = orderRequestDTO.getItems().stream()
+                .map(itemDTO -> InventoryReserveRequest.builder()
+                        .productId(itemDTO.getProductId())
+                        .quantity(itemDTO.getQuantity())
+                        .build())
+                .toList();
+        try {
+            List<InventoryResponse> reserved = inventoryServiceClient.reserveStockBatch(
+                    reserveLines, order.getReservationReference());
+            if (reserved == null) {
+                throw new BusinessException("Failed to reserve stock for order");
+            }
+        } catch (Exception e) {
+            log.warn("Batch reservation failed for userId={}: {}", userId, e.getMessage());
+            throw new BusinessException("Failed to reserve stock for order");
+        }
+        List<OrderItemDTO> reservedItems = orderRequestDTO.getItems();
+
         order.setItems(orderItems);
         order.setTotalAmount(totalAmount);
         order.setStatus(OrderStatus.RESERVED);
@@ -96,22 +125,19 @@ public class OrderServiceImpl implements OrderService {
         // Payment flow
         if (Boolean.TRUE.equals(orderRequestDTO.getPaymentSuccess())) {
 
-            for (OrderItemDTO itemDTO : orderRequestDTO.getItems()) {
-                try {
-                    inventoryServiceClient.confirmStock(itemDTO.getProductId(), itemDTO.getQuantity());
-                    log.info("Confirmed stock for productId={} qty={}", itemDTO.getProductId(), itemDTO.getQuantity());
-                } catch (Exception ex) {
-                    log.error("Confirm failed for productId={}", itemDTO.getProductId());
-                    releaseReservedStockForOrder(reservedItems);
-                    throw new BusinessException("Failed to confirm stock for product: " + itemDTO.getProductId());
-                }
+            List<OrderItemDTO> unconfirmedItems =
+                    confirmReservedStockForOrder(reservedItems, order.getReservationReference());
+            if (!unconfirmedItems.isEmpty()) {
+                releaseReservedStockForOrder(unconfirmedItems, order.getReservationReference());
+                throw new BusinessException("Failed to confirm stock for product: "
+                        + unconfirmedItems.get(0).getProductId());
             }
 
             order.setStatus(OrderStatus.PAID);
 
         } else {
 
-            releaseReservedStockForOrder(reservedItems);
+            releaseReservedStockForOrder(reservedItems, order.getReservationReference());
             order.setStatus(OrderStatus.FAILED);
         }
 
@@ -151,9 +177,13 @@ public class OrderServiceImpl implements OrderService {
         }
 
         if (order.getStatus() == OrderStatus.RESERVED) {
-            for (OrderItem item : order.getItems()) {
-                inventoryServiceClient.releaseStock(item.getProductId(), item.getQuantity());
-            }
+            releaseStock(order.getItems().stream()
+                    .map(item -> InventoryReleaseRequest.builder()
+                            .productId(item.getProductId())
+                            .quantity(item.getQuantity())
+                            .orderReference(order.getReservationReference())
+                            .build())
+                    .toList());
         }
 
         order.setStatus(OrderStatus.CANCELLED);
@@ -162,9 +192,64 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.orderToOrderResponseDTO(updatedOrder);
     }
 
-    private void releaseReservedStockForOrder(List<OrderItemDTO> items) {
-        for (OrderItemDTO itemDTO : items) {
-            inventoryServiceClient.releaseStock(itemDTO.getProductId(), itemDTO.getQuantity());
+    /**
+     * Confirm all lines in one inventory call; returns the lines that were not confirmed
+     */
+    private List<OrderItemDTO> confirmReservedStockForOrder(List<OrderItemDTO> items, String reservationReference) {
+        List<InventoryConfirmRequest> lines = items.stream()
+                .map(itemDTO -> InventoryConfirmRequest.builder()
+                        .productId(itemDTO.getProductId())
+                        .quantity(itemDTO.getQuantity())
+                        .orderReference(reservationReference)
+                        .build())
+                .toList();
+
+        List<InventoryLineResult> results;
+        try {
+            results = inventoryServiceClient.confirmStockBatch(lines);
+        } catch (Exception ex) {
+            log.error("Confirm failed for order lines: {}", ex.getMessage());
+            return items;
+        }
+        if (results == null || results.size() != items.size()) {
+            return items;
+        }
+
+        List<OrderItemDTO> unconfirmed = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (results.get(i).isSuccess()) {
+                log.info("Confirmed stock for productId={} qty={}", items.get(i).getProductId(), items.get(i).getQuantity());
+            } else {
+                log.error("Confirm failed for productId={}: {}", items.get(i).getProductId(), results.get(i).getError());
+                unconfirmed.add(items.get(i));
+            }
+        }
+        return unconfirmed;
+    }
+
+    private void releaseReservedStockForOrder(List<OrderItemDTO> items, String reservationReference) {
+        releaseStock(items.stream()
+                .map(itemDTO -> InventoryReleaseRequest.builder()
+                        .productId(itemDTO.getProductId())
+                        .quantity(itemDTO.getQuantity())
+                        .orderReference(reservationReference)
+                        .build())
+                .toList());
+    }
+
+    /**
+     * Release all lines in one inventory call; fails on the first line that was not released
+     */
+    private void releaseStock(List<InventoryReleaseRequest> lines) {
+        List<InventoryLineResult> results = inventoryServiceClient.releaseStockBatch(lines);
+        if (results == null) {
+            throw new BusinessException("Failed to release stock for order");
+        }
+        for (InventoryLineResult result : results) {
+            if (!result.isSuccess()) {
+                log.error("Release failed for productId={}: {}", result.getProductId(), result.getError());
+                throw new BusinessException("Failed to release stock for product: " + result.getProductId());
+            }
         }
     }
 }
\ No newline at end of file
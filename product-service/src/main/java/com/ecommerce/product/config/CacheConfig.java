@@ -0,0 +1,70 @@
+package com.ecommerce.product.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache for product lookups by ID.
+ * Set app.cache.products.enabled=false to switch it off (the @Cacheable annotations become no-ops).
+ */
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(prefix = "app.cache.products", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CacheConfig {
+
+    public static final String PRODUCTS_CACHE = "products";
+
+    @Bean
+    public Cache<Object, Object> productCache(
+            @Value("${app.cache.products.max-size:10000}") long maxSize,
+            @Value("${app.cache.products.ttl:10m}") Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Bean
+    public CacheManager cacheManager(Cache<Object, Object> productCache) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(PRODUCTS_CACHE, productCache);
+
+        // evictions from update/delete are applied only after the transaction commits
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    /**
+     * Hit ratio and load latency; the standard cache.gets / cache.size meters are bound by actuator.
+     */
+    @Bean
+    public MeterBinder productCacheMetrics(Cache<Object, Object> productCache) {
+        return registry -> {
+            Gauge.builder("product.cache.hit.ratio", productCache, cache -> cache.stats().hitRate())
+                    .description("Share of product lookups served from the cache")
+                    .register(registry);
+
+            FunctionTimer.builder("product.cache.load", productCache,
+                            cache -> cache.stats().loadCount(),
+                            cache -> cache.stats().totalLoadTime(),
+                            TimeUnit.NANOSECONDS)
+                    .description("Database loads on cache miss")
+                    .register(registry);
+        };
+    }
+}
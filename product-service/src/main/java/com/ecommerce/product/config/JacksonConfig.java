@@ -0,0 +1,30 @@
+package com.ecommerce.product.config;
+
+import com.ecommerce.common.web.SparseFieldsetResponseBodyAdvice;
+import com.ecommerce.common.web.SparseFieldsets;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets (?fields=) for product responses.
+ */
+@Configuration
+public class JacksonConfig {
+
+    public static final String SUMMARY_ALIAS = "summary";
+    public static final Set<String> SUMMARY_FIELDS = Set.of("id", "name", "price");
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetDefaults() {
+        return builder -> builder.filters(SparseFieldsets.serializeAll());
+    }
+
+    @Bean
+    public SparseFieldsetResponseBodyAdvice sparseFieldsetResponseBodyAdvice() {
+        return new SparseFieldsetResponseBodyAdvice(Map.of(SUMMARY_ALIAS, SUMMARY_FIELDS));
+    }
+}
@@ -1,9 +1,15 @@
 package com.ecommerce.product.controller;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,10 +22,23 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.ecommerce.common.web.SparseFieldsets;
+import com.ecommerce.product.config.JacksonConfig;
+import com.ecommerce.product.dto.ProductBulkRequestDTO;
+import com.ecommerce.product.dto.ProductBulkResponseDTO;
+import com.ecommerce.product.dto.ProductChangesResponseDTO;
+import com.ecommerce.product.dto.ProductCursorPageDTO;
+import com.ecommerce.product.dto.ProductPriceFacetsDTO;
 import com.ecommerce.product.dto.ProductRequestDTO;
 import com.ecommerce.product.dto.ProductResponseDTO;
+import com.ecommerce.product.dto.ProductSortOrder;
+import com.ecommerce.product.dto.ProductSuggestionDTO;
+import com.ecommerce.product.dto.ProductSummaryDTO;
+import com.ecommerce.product.service.ProductChangeService;
 import com.ecommerce.product.service.ProductService;
+import com.ecommerce.product.util.ProductETags;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -35,7 +54,17 @@ import lombok.RequiredArgsConstructor;
 @Tag(name = "Products", description = "Product Management API")
 public class ProductController {
 
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final int MAX_CHANGES_LIMIT = 1000;
+    private static final int MAX_AUTOCOMPLETE_LIMIT = 20;
+    private static final String FIELDS_DESCRIPTION =
+            "Comma-separated properties to return, e.g. id,name,price; 'summary' = id,name,price";
+    private static final Map<String, Set<String>> FIELD_ALIASES =
+            Map.of(JacksonConfig.SUMMARY_ALIAS, JacksonConfig.SUMMARY_FIELDS);
+
     private final ProductService productService;
+    private final ProductChangeService productChangeService;
 
     @PostMapping
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
@@ -57,27 +86,155 @@ public class ProductController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
     })
-    public ResponseEntity<Page<ProductResponseDTO>> getAllProducts(
+    public ResponseEntity<Page<?>> getAllProducts(
             @Parameter(description = "Page number (0-indexed)")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size")
-            @RequestParam(defaultValue = "20") int size) {
-        Page<ProductResponseDTO> products = productService.getAllProducts(PageRequest.of(page, size));
-        return ResponseEntity.ok(products);
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Lowest price to include")
+            @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Highest price to include")
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Sort order")
+            @RequestParam(defaultValue = "ID") ProductSortOrder sort,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields) {
+        PageRequest pageRequest = PageRequest.of(page, size, sort.toSort());
+        Set<String> requested = SparseFieldsets.parse(fields, FIELD_ALIASES);
+        boolean priceFiltered = minPrice != null || maxPrice != null;
+
+        // a matching If-None-Match is answered with 304 before the page is serialized
+        if (fitsSummary(requested)) {
+            Page<ProductSummaryDTO> summaries = priceFiltered
+                    ? productService.getProductSummariesByPrice(minPrice, maxPrice, pageRequest)
+                    : productService.getProductSummaries(pageRequest);
+            String eTag = ProductETags.forSummaries(summaries.getContent(), summaries.getNumber(),
+                    summaries.getSize(), summaries.getTotalElements(), requested, minPrice, maxPrice, sort);
+            return ResponseEntity.ok().eTag(eTag).body(summaries);
+        }
+
+        Page<ProductResponseDTO> products = priceFiltered
+                ? productService.getProductsByPrice(minPrice, maxPrice, pageRequest)
+                : productService.getAllProducts(pageRequest);
+        String eTag = ProductETags.forProducts(products.getContent(), products.getNumber(),
+                products.getSize(), products.getTotalElements(), requested, minPrice, maxPrice, sort);
+        return ResponseEntity.ok().eTag(eTag).body(products);
+    }
+
+    @GetMapping("/facets/price")
+    @PreAuthorize("permitAll()")
+    @Operation(summary = "Price facets",
+            description = "Number of products in each price bucket, for building price filters")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Facet counts retrieved"),
+    })
+    public ResponseEntity<ProductPriceFacetsDTO> getPriceFacets() {
+        return ResponseEntity.ok(productService.getPriceFacets());
+    }
+
+    @GetMapping("/scroll")
+    @PreAuthorize("permitAll()")
+    @Operation(summary = "Scroll products",
+            description = "Retrieve products in ID order using an opaque cursor; no total count is computed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+    })
+    public ResponseEntity<ProductCursorPageDTO> scrollProducts(
+            @Parameter(description = "Cursor returned as nextCursor by the previous call; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-" + MAX_SCROLL_SIZE + ")")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields) {
+        int boundedSize = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        ProductCursorPageDTO products = productService.getProductsAfter(cursor, boundedSize);
+        String eTag = ProductETags.forProducts(products.getContent(), products.getNextCursor(),
+                SparseFieldsets.parse(fields, FIELD_ALIASES));
+        return ResponseEntity.ok().eTag(eTag).body(products);
+    }
+
+    @GetMapping("/bulk")
+    @PreAuthorize("hasAnyAuthority('ROLE_INTERNAL', 'ROLE_ADMIN')")
+    @Operation(summary = "Bulk product lookup",
+            description = "Name and price for up to 500 product IDs in one call (INTERNAL/ADMIN only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lookup completed; unknown IDs are listed in missingIds"),
+            @ApiResponse(responseCode = "400", description = "Too many IDs requested"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Internal access required"),
+    })
+    public ResponseEntity<ProductBulkResponseDTO> getProductsByIds(
+            @Parameter(description = "Comma-separated product IDs")
+            @RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAnyAuthority('ROLE_INTERNAL', 'ROLE_ADMIN')")
+    @Operation(summary = "Bulk product lookup (body)",
+            description = "Same as GET /bulk with the IDs in the request body, for lists too long for a URL")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lookup completed; unknown IDs are listed in missingIds"),
+            @ApiResponse(responseCode = "400", description = "Too many IDs requested"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Internal access required"),
+    })
+    public ResponseEntity<ProductBulkResponseDTO> lookupProducts(
+            @Valid @RequestBody ProductBulkRequestDTO requestDTO) {
+        return ResponseEntity.ok(productService.getProductsByIds(requestDTO.getIds()));
+    }
+
+    @GetMapping("/changes")
+    @PreAuthorize("hasAnyAuthority('ROLE_INTERNAL', 'ROLE_ADMIN')")
+    @Operation(summary = "Product change feed",
+            description = "Creates, updates and deletes (as tombstones) after a change version, oldest first. "
+                    + "Start with since=0 and pass nextSince back (INTERNAL/ADMIN only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes retrieved"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Internal access required"),
+    })
+    public ResponseEntity<ProductChangesResponseDTO> getChanges(
+            @Parameter(description = "Last change version already applied by the caller")
+            @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Maximum number of changes (1-" + MAX_CHANGES_LIMIT + ")")
+            @RequestParam(defaultValue = "100") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_CHANGES_LIMIT));
+        return ResponseEntity.ok(productChangeService.getChangesSince(since, boundedLimit));
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("permitAll()")
-    @Operation(summary = "Get product by ID", description = "Retrieve a specific product by its ID")
+    @Operation(summary = "Get product by ID",
+            description = "Retrieve a specific product by its ID. Supports If-None-Match / If-Modified-Since")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Product found"),
+            @ApiResponse(responseCode = "304", description = "Product not modified"),
             @ApiResponse(responseCode = "404", description = "Product not found"),
     })
     public ResponseEntity<ProductResponseDTO> getProductById(
             @Parameter(description = "Product ID")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        Set<String> requested = SparseFieldsets.parse(fields, FIELD_ALIASES);
+
+        // revalidation only needs updated_at, so the entity is neither loaded nor serialized
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            Optional<LocalDateTime> lastModified = productService.getProductLastModified(id);
+            if (lastModified.isPresent() && webRequest.checkNotModified(
+                    ProductETags.forProduct(id, lastModified.get(), requested),
+                    ProductETags.toEpochMilli(lastModified.get()))) {
+                return null;
+            }
+        }
+
         ProductResponseDTO product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+        productService.recordProductView(id);
+        return ResponseEntity.ok()
+                .eTag(ProductETags.forProduct(product.getId(), product.getUpdatedAt(), requested))
+                .lastModified(ProductETags.toEpochMilli(product.getUpdatedAt()))
+                .body(product);
     }
 
     @PutMapping("/{id}")
@@ -114,14 +271,45 @@ public class ProductController {
 
     @GetMapping("/search")
     @PreAuthorize("permitAll()")
-    @Operation(summary = "Search products", description = "Search products by name (case-insensitive)")
+    @Operation(summary = "Search products", description = "Search products by name (case-insensitive), best matches first")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Products found"),
     })
-    public ResponseEntity<List<ProductResponseDTO>> searchProducts(
+    public ResponseEntity<List<?>> searchProducts(
             @Parameter(description = "Product name to search for")
-            @RequestParam String name) {
-        List<ProductResponseDTO> products = productService.searchProductsByName(name);
+            @RequestParam String name,
+            @Parameter(description = "Maximum number of results (1-" + MAX_SEARCH_LIMIT + ")")
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        if (fitsSummary(SparseFieldsets.parse(fields, FIELD_ALIASES))) {
+            return ResponseEntity.ok(productService.searchProductSummariesByName(name, boundedLimit));
+        }
+        List<ProductResponseDTO> products = productService.searchProductsByName(name, boundedLimit);
         return ResponseEntity.ok(products);
     }
+
+    @GetMapping("/autocomplete")
+    @PreAuthorize("permitAll()")
+    @Operation(summary = "Autocomplete product names",
+            description = "Products whose name starts with the prefix (case-insensitive), most viewed first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions retrieved"),
+    })
+    public ResponseEntity<List<ProductSuggestionDTO>> autocomplete(
+            @Parameter(description = "Beginning of the product name")
+            @RequestParam String prefix,
+            @Parameter(description = "Maximum number of suggestions (1-" + MAX_AUTOCOMPLETE_LIMIT + ")")
+            @RequestParam(defaultValue = "10") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_AUTOCOMPLETE_LIMIT));
+        return ResponseEntity.ok(productService.suggestProducts(prefix, boundedLimit));
+    }
+
+    /**
+     * Fields covered by the summary projection can be served without reading descriptions
+     */
+    private static boolean fitsSummary(Set<String> requested) {
+        return !requested.isEmpty() && JacksonConfig.SUMMARY_FIELDS.containsAll(requested);
+    }
 }
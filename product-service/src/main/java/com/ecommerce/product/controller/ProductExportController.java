@@ -0,0 +1,45 @@
+package com.ecommerce.product.controller;
+
+import com.ecommerce.product.service.ProductExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/products/export")
+@RequiredArgsConstructor
+@Tag(name = "Product Export", description = "Full catalog export for downstream jobs")
+public class ProductExportController {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final ProductExportService productExportService;
+
+    @GetMapping(produces = NDJSON)
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_INTERNAL')")
+    @Operation(summary = "Export all products",
+            description = "Stream every product as NDJSON in ID order, consistent as of the start of the export "
+                    + "(ADMIN/INTERNAL only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin or internal access required"),
+    })
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        log.info("Product export request received");
+        StreamingResponseBody body = productExportService::exportNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+}
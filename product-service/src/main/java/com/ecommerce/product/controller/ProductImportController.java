@@ -0,0 +1,63 @@
+package com.ecommerce.product.controller;
+
+import com.ecommerce.product.dto.ProductImportResponseDTO;
+import com.ecommerce.product.service.ProductImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/products/import")
+@RequiredArgsConstructor
+@Tag(name = "Product Import", description = "Admin APIs for bulk catalog loads")
+public class ProductImportController {
+
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    private final ProductImportService productImportService;
+
+    @PostMapping(consumes = NDJSON)
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(summary = "Import products (NDJSON)",
+            description = "Stream one product record per line. Records with a SKU update the product with that "
+                    + "SKU or create it; invalid records are reported per line and skipped. Admin only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed",
+                    content = @Content(schema = @Schema(implementation = ProductImportResponseDTO.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required"),
+    })
+    public ResponseEntity<ProductImportResponseDTO> importNdjson(InputStream body) {
+        log.info("Product NDJSON import request received");
+        return ResponseEntity.ok(productImportService.importNdjson(body));
+    }
+
+    @PostMapping(consumes = CSV)
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @Operation(summary = "Import products (CSV)",
+            description = "CSV with a header row naming the columns: name, price, description, sku "
+                    + "(any order, name and price required). Same rules as the NDJSON import. Admin only.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import processed",
+                    content = @Content(schema = @Schema(implementation = ProductImportResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid header row"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required"),
+    })
+    public ResponseEntity<ProductImportResponseDTO> importCsv(InputStream body) {
+        log.info("Product CSV import request received");
+        return ResponseEntity.ok(productImportService.importCsv(body));
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Products priced in [min, max); min is null for the lowest bucket, max for the highest.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceFacetBucketDTO {
+
+    private BigDecimal min;
+    private BigDecimal max;
+    private long count;
+}
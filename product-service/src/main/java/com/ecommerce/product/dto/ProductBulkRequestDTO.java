@@ -0,0 +1,20 @@
+package com.ecommerce.product.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBulkRequestDTO {
+
+    @NotEmpty(message = "At least one product ID is required")
+    private List<@NotNull(message = "Product ID cannot be null") Long> ids;
+}
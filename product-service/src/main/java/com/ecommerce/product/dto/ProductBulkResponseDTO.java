@@ -0,0 +1,26 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBulkResponseDTO {
+
+    /**
+     * Found products keyed by ID
+     */
+    private Map<Long, ProductBulkItemDTO> products;
+
+    /**
+     * Requested IDs with no matching product
+     */
+    private List<Long> missingIds;
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangeDTO {
+
+    private long version;
+    private Long productId;
+    private boolean deleted;
+
+    /**
+     * Current state of the product, null for tombstones
+     */
+    private ProductResponseDTO product;
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangesResponseDTO {
+
+    private List<ProductChangeDTO> changes;
+
+    /**
+     * Pass as since on the next call
+     */
+    private long nextSince;
+    private boolean hasMore;
+
+    /**
+     * Tombstones newer than since have been purged; the client must re-read the full catalog
+     */
+    private boolean resyncRequired;
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductCursorPageDTO {
+
+    private List<ProductResponseDTO> content;
+    private int size;
+
+    /**
+     * Pass back as the cursor parameter to fetch the next page; null on the last page
+     */
+    private String nextCursor;
+    private boolean hasNext;
+}
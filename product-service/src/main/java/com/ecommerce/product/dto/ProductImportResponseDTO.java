@@ -0,0 +1,26 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportResponseDTO {
+
+    private long totalRecords;
+    private long createdCount;
+    private long updatedCount;
+    private long failedCount;
+
+    /**
+     * Per-record failures, capped so a bad file cannot grow the response without bound
+     */
+    private List<ProductImportErrorDTO> errors;
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductPriceFacetsDTO {
+
+    private List<PriceFacetBucketDTO> buckets;
+    private long total;
+}
@@ -18,6 +18,9 @@ public class ProductRequestDTO {
     @Size(min = 3, max = 100, message = "Product name must be between 3 and 100 characters")
     private String name;
 
+    @Size(max = 64, message = "Product SKU cannot exceed 64 characters")
+    private String sku;
+
     @Size(max = 500, message = "Product description cannot exceed 500 characters")
     private String description;
 
@@ -1,5 +1,7 @@
 package com.ecommerce.product.dto;
 
+import com.ecommerce.common.web.SparseFieldsets;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,10 +14,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonFilter(SparseFieldsets.FILTER_ID)
 public class ProductResponseDTO {
 
     private Long id;
     private String name;
+    private String sku;
     private String description;
     private BigDecimal price;
     private LocalDateTime createdAt;
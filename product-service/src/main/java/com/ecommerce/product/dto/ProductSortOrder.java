@@ -0,0 +1,25 @@
+package com.ecommerce.product.dto;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Orders offered by the product list. Every order ends with the id, so pages
+ * are stable, and each one is served by an index on its columns.
+ */
+public enum ProductSortOrder {
+
+    ID(Sort.by("id")),
+    PRICE_ASC(Sort.by(Sort.Order.asc("price"), Sort.Order.asc("id"))),
+    PRICE_DESC(Sort.by(Sort.Order.desc("price"), Sort.Order.desc("id"))),
+    NAME(Sort.by(Sort.Order.asc("name"), Sort.Order.asc("id")));
+
+    private final Sort sort;
+
+    ProductSortOrder(Sort sort) {
+        this.sort = sort;
+    }
+
+    public Sort toSort() {
+        return sort;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One autocomplete entry: just enough to render the suggestion and link to the product.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSuggestionDTO {
+
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.product.dto;
+
+import com.ecommerce.common.web.SparseFieldsets;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Grid view of a product. Built directly by JPQL constructor expressions,
+ * so the description column is never read.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonFilter(SparseFieldsets.FILTER_ID)
+public class ProductSummaryDTO {
+
+    private Long id;
+    private String name;
+    private BigDecimal price;
+}
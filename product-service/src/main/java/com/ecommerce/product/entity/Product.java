@@ -5,9 +5,13 @@ import lombok.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_product_price_id", columnList = "price, id"),
+        @Index(name = "idx_product_name_id", columnList = "name, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,12 +26,25 @@ public class Product {
     @Column(nullable = false, length = 100)
     private String name;
 
+    /**
+     * Optional business key, unique when present; bulk imports upsert on it
+     */
+    @Column(unique = true, length = 64)
+    private String sku;
+
     @Column(columnDefinition = "TEXT", length = 500)
     private String description;
 
     @Column(nullable = false)
     private BigDecimal price;
 
+    /**
+     * Ranking signal for autocomplete (detail views). Maintained only by
+     * ProductAutocompleteIndexer with relative SQL updates, never written through the entity
+     */
+    @Column(insertable = false, updatable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long popularity;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -36,12 +53,20 @@ public class Product {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = now();
+        updatedAt = createdAt;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = now();
+    }
+
+    /**
+     * Current time at the database's microsecond precision, so the value held in memory
+     * matches what is read back (updatedAt feeds the ETag)
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
@@ -0,0 +1,36 @@
+package com.ecommerce.product.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest change of one product. Every create, update and delete moves the row to a new,
+ * strictly increasing change version; deletes leave a tombstone (deleted = true) that is
+ * purged after the retention window.
+ */
+@Entity
+@Table(name = "product_changes", indexes = {
+        @Index(name = "idx_product_change_version", columnList = "change_version", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChange {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "change_version", nullable = false)
+    private Long changeVersion;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.product.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Single row remembering the highest change version whose tombstone has been purged.
+ * Clients syncing from an older version may have missed deletes and must resync.
+ */
+@Entity
+@Table(name = "product_change_purges")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangePurge {
+
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long purgedThrough;
+}
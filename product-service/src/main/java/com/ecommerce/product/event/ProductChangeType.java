@@ -0,0 +1,7 @@
+package com.ecommerce.product.event;
+
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Published by ProductServiceImpl on every write. Listeners that maintain
+ * in-memory views of the catalog consume it after the transaction commits.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@ToString
+public class ProductChangedEvent {
+
+    private final ProductChangeType type;
+    private final Long productId;
+
+    /**
+     * Product name after the change, null for DELETED
+     */
+    private final String name;
+
+    /**
+     * Product price after the change, null for DELETED
+     */
+    private final BigDecimal price;
+}
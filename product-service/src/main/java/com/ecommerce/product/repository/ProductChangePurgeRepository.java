@@ -0,0 +1,9 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.entity.ProductChangePurge;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProductChangePurgeRepository extends JpaRepository<ProductChangePurge, Integer> {
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.entity.ProductChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    /**
+     * Changes after a version in version order, served by idx_product_change_version
+     */
+    List<ProductChange> findByChangeVersionGreaterThanOrderByChangeVersionAsc(Long since, Limit limit);
+
+    @Query("select max(c.changeVersion) from ProductChange c")
+    Optional<Long> findMaxChangeVersion();
+
+    @Query("select max(c.changeVersion) from ProductChange c where c.deleted = true and c.changedAt < :cutoff")
+    Optional<Long> findMaxExpiredTombstoneVersion(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("delete from ProductChange c where c.deleted = true and c.changedAt < :cutoff")
+    int deleteExpiredTombstones(@Param("cutoff") LocalDateTime cutoff);
+}
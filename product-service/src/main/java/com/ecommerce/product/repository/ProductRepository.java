@@ -1,23 +1,106 @@
 package com.ecommerce.product.repository;
 
+import com.ecommerce.product.dto.ProductSuggestionDTO;
+import com.ecommerce.product.dto.ProductSummaryDTO;
 import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.repository.projection.ProductNameView;
+import com.ecommerce.product.repository.projection.ProductPriceView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     /**
-     * Search products by name (case-insensitive)
+     * Search products by name (case-insensitive), bounded by the pageable without a count query
      */
-    List<Product> findByNameContainingIgnoreCase(String name);
+    List<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
     /**
-     * Search products by name with pagination
+     * Summary page: id, name and price only, without the description column
      */
-    Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    @Query(value = "select new com.ecommerce.product.dto.ProductSummaryDTO(p.id, p.name, p.price) from Product p",
+            countQuery = "select count(p) from Product p")
+    Page<ProductSummaryDTO> findAllSummaries(Pageable pageable);
+
+    @Query("select new com.ecommerce.product.dto.ProductSummaryDTO(p.id, p.name, p.price) "
+            + "from Product p where p.id in :ids")
+    List<ProductSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.ecommerce.product.dto.ProductSummaryDTO(p.id, p.name, p.price) "
+            + "from Product p where lower(p.name) like lower(concat('%', :name, '%'))")
+    List<ProductSummaryDTO> findSummariesByNameContaining(@Param("name") String name, Pageable pageable);
+
+    /**
+     * Products within an optional price range (either bound may be null); sorted through the
+     * pageable, which the (price, id) index serves for price order
+     */
+    @Query(value = "select p from Product p where (:minPrice is null or p.price >= :minPrice) "
+            + "and (:maxPrice is null or p.price <= :maxPrice)",
+            countQuery = "select count(p) from Product p where (:minPrice is null or p.price >= :minPrice) "
+                    + "and (:maxPrice is null or p.price <= :maxPrice)")
+    Page<Product> findByPriceRange(@Param("minPrice") BigDecimal minPrice,
+                                   @Param("maxPrice") BigDecimal maxPrice,
+                                   Pageable pageable);
+
+    @Query(value = "select new com.ecommerce.product.dto.ProductSummaryDTO(p.id, p.name, p.price) from Product p "
+            + "where (:minPrice is null or p.price >= :minPrice) and (:maxPrice is null or p.price <= :maxPrice)",
+            countQuery = "select count(p) from Product p where (:minPrice is null or p.price >= :minPrice) "
+                    + "and (:maxPrice is null or p.price <= :maxPrice)")
+    Page<ProductSummaryDTO> findSummariesByPriceRange(@Param("minPrice") BigDecimal minPrice,
+                                                      @Param("maxPrice") BigDecimal maxPrice,
+                                                      Pageable pageable);
+
+    /**
+     * Keyset page: products after the given id in id order, served straight from the primary key index
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long lastId, Limit limit);
+
+    /**
+     * Version check for conditional requests: only the updated_at column, by primary key
+     */
+    @Query("select p.updatedAt from Product p where p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    /**
+     * Autocomplete fallback: names starting with the prefix, most popular first
+     */
+    @Query("select new com.ecommerce.product.dto.ProductSuggestionDTO(p.id, p.name) from Product p "
+            + "where lower(p.name) like concat(lower(:prefix), '%') order by p.popularity desc, lower(p.name), p.id")
+    List<ProductSuggestionDTO> findSuggestionsByNamePrefix(@Param("prefix") String prefix, Limit limit);
+
+    /**
+     * Stream id, name and popularity of every product; must be consumed inside a transaction
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p.id as id, p.name as name, p.popularity as popularity from Product p")
+    Stream<ProductNameView> streamAllNames();
+
+    /**
+     * Stream id and price of every product; must be consumed inside a transaction
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p.id as id, p.price as price from Product p")
+    Stream<ProductPriceView> streamAllPrices();
 }
@@ -0,0 +1,13 @@
+package com.ecommerce.product.repository.projection;
+
+/**
+ * Id, name and popularity only, used to build in-memory name indexes without loading descriptions.
+ */
+public interface ProductNameView {
+
+    Long getId();
+
+    String getName();
+
+    long getPopularity();
+}
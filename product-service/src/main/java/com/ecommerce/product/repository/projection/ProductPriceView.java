@@ -0,0 +1,13 @@
+package com.ecommerce.product.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Id and price only, used to build the in-memory price histogram.
+ */
+public interface ProductPriceView {
+
+    Long getId();
+
+    BigDecimal getPrice();
+}
@@ -0,0 +1,147 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.event.ProductChangeType;
+import com.ecommerce.product.event.ProductChangedEvent;
+import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.repository.projection.ProductNameView;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the in-memory {@link ProductPrefixIndex} in sync with the products table
+ * and owns the popularity signal it ranks by: product detail views, counted in
+ * memory and added to products.popularity in one batch per flush interval.
+ * Until the first build finishes, autocomplete falls back to the database.
+ */
+@Component
+@Slf4j
+public class ProductAutocompleteIndexer {
+
+    private static final String ADD_POPULARITY_SQL =
+            "UPDATE products SET popularity = popularity + ? WHERE id = ?";
+
+    private final ProductPrefixIndex index = new ProductPrefixIndex();
+    private final Map<Long, Long> pendingViews = new ConcurrentHashMap<>();
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private volatile boolean ready;
+
+    public ProductAutocompleteIndexer(
+            ProductRepository productRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.autocomplete.index.enabled:true}") boolean enabled
+    ) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        if (!enabled) {
+            log.info("Product autocomplete index disabled, autocomplete uses the database");
+            return;
+        }
+
+        long start = System.nanoTime();
+        index.beginLoad();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductNameView> names = productRepository.streamAllNames()) {
+                    names.forEach(view -> index.load(view.getId(), view.getName(), view.getPopularity()));
+                }
+            });
+            ready = true;
+        } catch (RuntimeException ex) {
+            log.error("Failed to build product autocomplete index, autocomplete keeps using the database", ex);
+        } finally {
+            index.endLoad();
+        }
+
+        if (ready) {
+            log.info("Product autocomplete index built with {} products in {} ms",
+                    index.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        if (event.getType() == ProductChangeType.DELETED) {
+            index.remove(event.getProductId());
+        } else {
+            index.put(event.getProductId(), event.getName());
+        }
+    }
+
+    public void recordView(Long productId) {
+        pendingViews.merge(productId, 1L, Long::sum);
+    }
+
+    /**
+     * Persist the views counted since the last flush and apply them to the index.
+     * Counts that fail to persist are put back and retried on the next flush.
+     */
+    @Scheduled(fixedDelayString = "${app.autocomplete.popularity-flush-interval:PT10S}")
+    public void flushViews() {
+        if (pendingViews.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> increments = new ArrayList<>(pendingViews.size());
+        for (Long productId : pendingViews.keySet()) {
+            Long views = pendingViews.remove(productId);
+            if (views != null) {
+                increments.add(new Object[] {views, productId});
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(ADD_POPULARITY_SQL, increments);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to persist {} product view counts, retrying on next flush", increments.size(), ex);
+            increments.forEach(increment -> pendingViews.merge((Long) increment[1], (Long) increment[0], Long::sum));
+            return;
+        }
+
+        if (enabled) {
+            increments.forEach(increment -> index.addPopularity((Long) increment[1], (Long) increment[0]));
+        }
+    }
+
+    /**
+     * Most popular products whose name starts with the prefix, or empty when the index is not available.
+     */
+    public Optional<List<ProductPrefixIndex.Suggestion>> suggest(String prefix, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.of(index.suggest(prefix, limit));
+    }
+}
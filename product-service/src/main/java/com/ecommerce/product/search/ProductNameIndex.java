@@ -0,0 +1,343 @@
+package com.ecommerce.product.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index over product names, answering case-insensitive
+ * substring queries with the same semantics as {@code lower(name) LIKE '%q%'}:
+ * names and queries are lower-cased but not trimmed, so surrounding spaces in a
+ * query must match as they would in the database.
+ *
+ * Every product is a dense document number; each distinct 3-character gram of
+ * its lower-cased name maps to an ascending posting list of document numbers.
+ * A query intersects the posting lists of its own grams and verifies the few
+ * survivors with {@link String#contains}. Queries shorter than a gram scan the
+ * names directly.
+ *
+ * Removed documents are only marked deleted and skipped; the index compacts
+ * itself once deletions make up a quarter of it.
+ */
+public class ProductNameIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_COMPACTION_SIZE = 1024;
+
+    private static final Comparator<Match> RANKING = Comparator
+            .comparingInt(Match::score)
+            .thenComparingInt(Match::length)
+            .thenComparingLong(Match::productId);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int documentCount;
+    private BitSet deleted = new BitSet();
+    private int deletedCount;
+    private Map<Long, Integer> documentByProductId = new HashMap<>();
+    private Map<Long, PostingList> postings = new HashMap<>();
+
+    // products removed while a bulk load is running must not be resurrected by it
+    private Set<Long> removedDuringLoad;
+
+    /**
+     * Add or replace the name indexed for a product.
+     */
+    public void put(long productId, String name) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+            addDocument(productId, name);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+            if (removedDuringLoad != null) {
+                removedDuringLoad.add(productId);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Start a bulk load. Until {@link #endLoad()} entries added through
+     * {@link #load} never overwrite concurrent {@link #put}/{@link #remove} calls,
+     * which always carry newer data than the load snapshot.
+     */
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            removedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void load(long productId, String name) {
+        lock.writeLock().lock();
+        try {
+            if (!documentByProductId.containsKey(productId)
+                    && (removedDuringLoad == null || !removedDuringLoad.contains(productId))) {
+                addDocument(productId, name);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endLoad() {
+        lock.writeLock().lock();
+        try {
+            removedDuringLoad = null;
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentByProductId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents held, including removed ones not compacted away yet.
+     */
+    int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Product ids whose name contains the query, best match first:
+     * exact name, then prefix, then start of a word, then anywhere; shorter names
+     * and lower ids break ties.
+     */
+    public List<Long> search(String query, int limit) {
+        String needle = lowerCase(query);
+        if (needle.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // max-heap on ranking so the worst of the current top-k is evicted first
+        PriorityQueue<Match> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+
+        lock.readLock().lock();
+        try {
+            if (needle.length() < GRAM_LENGTH) {
+                for (int doc = 0; doc < documentCount; doc++) {
+                    offer(top, limit, doc, needle);
+                }
+            } else {
+                PostingList[] lists = postingListsFor(needle);
+                if (lists != null) {
+                    PostingList smallest = lists[0];
+                    for (int i = 0; i < smallest.size; i++) {
+                        int doc = smallest.docs[i];
+                        if (containsInAll(lists, doc)) {
+                            offer(top, limit, doc, needle);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Match> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+
+        List<Long> result = new ArrayList<>(ranked.size());
+        for (Match match : ranked) {
+            result.add(match.productId());
+        }
+        return result;
+    }
+
+    private void offer(PriorityQueue<Match> top, int limit, int doc, String needle) {
+        String name = names[doc];
+        if (name == null || deleted.get(doc)) {
+            return;
+        }
+
+        int position = name.indexOf(needle);
+        if (position < 0) {
+            return;
+        }
+
+        Match match = new Match(score(name, needle, position), name.length(), productIds[doc]);
+        if (top.size() < limit) {
+            top.add(match);
+        } else if (RANKING.compare(match, top.peek()) < 0) {
+            top.poll();
+            top.add(match);
+        }
+    }
+
+    private static int score(String name, String needle, int position) {
+        if (position == 0) {
+            return name.length() == needle.length() ? 0 : 1;
+        }
+        return Character.isLetterOrDigit(name.charAt(position - 1)) ? 3 : 2;
+    }
+
+    /**
+     * Posting lists for every distinct gram of the query, smallest first,
+     * or null when one of the grams does not occur at all.
+     */
+    private PostingList[] postingListsFor(String needle) {
+        long[] grams = distinctGrams(needle);
+        PostingList[] lists = new PostingList[grams.length];
+
+        for (int i = 0; i < grams.length; i++) {
+            PostingList list = postings.get(grams[i]);
+            if (list == null) {
+                return null;
+            }
+            lists[i] = list;
+        }
+
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        return lists;
+    }
+
+    private static boolean containsInAll(PostingList[] lists, int doc) {
+        for (int i = 1; i < lists.length; i++) {
+            if (Arrays.binarySearch(lists[i].docs, 0, lists[i].size, doc) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addDocument(long productId, String rawName) {
+        String name = lowerCase(rawName);
+        int doc = documentCount++;
+
+        if (doc == productIds.length) {
+            int capacity = productIds.length * 2;
+            productIds = Arrays.copyOf(productIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+        }
+
+        productIds[doc] = productId;
+        names[doc] = name;
+        documentByProductId.put(productId, doc);
+
+        // documents are numbered in insertion order, so appends keep every list sorted
+        for (long gram : distinctGrams(name)) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(doc);
+        }
+    }
+
+    private void removeDocument(long productId) {
+        Integer doc = documentByProductId.remove(productId);
+        if (doc != null) {
+            deleted.set(doc);
+            names[doc] = null;
+            deletedCount++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (removedDuringLoad != null
+                || documentCount < MIN_COMPACTION_SIZE
+                || deletedCount * 4 < documentCount) {
+            return;
+        }
+
+        long[] oldIds = productIds;
+        String[] oldNames = names;
+        int oldCount = documentCount;
+
+        productIds = new long[Math.max(INITIAL_CAPACITY, documentByProductId.size() * 2)];
+        names = new String[productIds.length];
+        documentCount = 0;
+        deleted = new BitSet();
+        deletedCount = 0;
+        documentByProductId = new HashMap<>();
+        postings = new HashMap<>();
+
+        for (int doc = 0; doc < oldCount; doc++) {
+            if (oldNames[doc] != null) {
+                addDocument(oldIds[doc], oldNames[doc]);
+            }
+        }
+    }
+
+    private static String lowerCase(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Each gram packs its three UTF-16 chars into one long.
+     */
+    private static long[] distinctGrams(String value) {
+        int count = value.length() - GRAM_LENGTH + 1;
+        if (count <= 0) {
+            return new long[0];
+        }
+
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) value.charAt(i) << 32)
+                    | ((long) value.charAt(i + 1) << 16)
+                    | value.charAt(i + 2);
+        }
+
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static final class PostingList {
+
+        private int[] docs = new int[4];
+        private int size;
+
+        private void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+
+    private record Match(int score, int length, long productId) {
+    }
+}
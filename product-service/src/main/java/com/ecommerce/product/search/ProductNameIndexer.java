@@ -0,0 +1,99 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.event.ProductChangeType;
+import com.ecommerce.product.event.ProductChangedEvent;
+import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.repository.projection.ProductNameView;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the in-memory {@link ProductNameIndex} in sync with the products table:
+ * a full build once the application is ready, then one update per committed write.
+ * Until the first build finishes, search falls back to the database.
+ */
+@Component
+@Slf4j
+public class ProductNameIndexer {
+
+    private final ProductNameIndex index = new ProductNameIndex();
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private volatile boolean ready;
+
+    public ProductNameIndexer(
+            ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.search.index.enabled:true}") boolean enabled
+    ) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        if (!enabled) {
+            log.info("Product name index disabled, search uses the database");
+            return;
+        }
+
+        long start = System.nanoTime();
+        index.beginLoad();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductNameView> names = productRepository.streamAllNames()) {
+                    names.forEach(view -> index.load(view.getId(), view.getName()));
+                }
+            });
+            ready = true;
+        } catch (RuntimeException ex) {
+            log.error("Failed to build product name index, search keeps using the database", ex);
+        } finally {
+            index.endLoad();
+        }
+
+        if (ready) {
+            log.info("Product name index built with {} products in {} ms",
+                    index.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        if (event.getType() == ProductChangeType.DELETED) {
+            index.remove(event.getProductId());
+        } else {
+            index.put(event.getProductId(), event.getName());
+        }
+    }
+
+    /**
+     * Ranked product ids matching the name, or empty when the index is not available.
+     */
+    public Optional<List<Long>> search(String name, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.of(index.search(name, limit));
+    }
+}
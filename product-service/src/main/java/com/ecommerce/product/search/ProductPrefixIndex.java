@@ -0,0 +1,460 @@
+package com.ecommerce.product.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix index over product names for type-ahead, returning the most popular
+ * names that start with a query.
+ *
+ * The bulk of the names live in arrays sorted by lower-cased name, so every
+ * prefix is one contiguous range found by binary search. A max segment tree over
+ * the popularity of that array yields the top-k of any range in O(k log n)
+ * without visiting the rest of it, whatever the size of the range.
+ *
+ * Writes stay cheap: new and renamed products go to a small sorted delta that
+ * queries scan alongside the arrays, removals only mark the array slot, and
+ * popularity changes update the segment tree in place. The delta is merged into
+ * the arrays once it reaches 1/64 of their size (at least {@link #MIN_MERGE_SIZE}
+ * entries), so the O(n) merge is amortized over many writes, or once deletions
+ * make up a quarter of the arrays.
+ */
+public class ProductPrefixIndex {
+
+    static final int MIN_MERGE_SIZE = 1024;
+
+    private static final int MIN_COMPACTION_SIZE = 1024;
+    private static final long DELETED = Long.MIN_VALUE;
+
+    private static final Comparator<Entry> NAME_ORDER = Comparator
+            .comparing((Entry entry) -> entry.key)
+            .thenComparingLong(entry -> entry.productId);
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong((Entry entry) -> entry.popularity).reversed()
+            .thenComparing(NAME_ORDER);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // merged part, sorted by (key, product id)
+    private String[] keys = new String[0];
+    private String[] names = new String[0];
+    private long[] productIds = new long[0];
+    private long[] popularity = new long[0];
+    private int size;
+    private int deletedCount;
+
+    // keys of the live products in the arrays; positions move on merge, the (key, id) pair does not
+    private final Map<Long, String> keyByProductId = new HashMap<>();
+
+    // tree[1] is the root; each node holds the array position with the highest popularity below it, -1 if none
+    private int[] tree = {-1, -1};
+    private int leaves = 1;
+
+    private final NavigableSet<Entry> delta = new TreeSet<>(NAME_ORDER);
+    private final Map<Long, Entry> deltaByProductId = new HashMap<>();
+
+    // products written while a bulk load is running must not be overwritten by it
+    private Set<Long> changedDuringLoad;
+
+    /**
+     * Add a product or replace its name, keeping the popularity it already has.
+     */
+    public void put(long productId, String name) {
+        lock.writeLock().lock();
+        try {
+            long previous = removeEntry(productId);
+            addToDelta(productId, name, Math.max(previous, 0));
+            if (changedDuringLoad != null) {
+                changedDuringLoad.add(productId);
+            }
+            mergeIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(productId);
+            if (changedDuringLoad != null) {
+                changedDuringLoad.add(productId);
+            }
+            mergeIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Raise (or lower) the popularity of an indexed product; unknown products are ignored.
+     */
+    public void addPopularity(long productId, long amount) {
+        lock.writeLock().lock();
+        try {
+            addPopularityInternal(productId, amount);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Start a bulk load. Until {@link #endLoad()} entries added through
+     * {@link #load} never overwrite concurrent {@link #put}/{@link #remove} calls;
+     * a product put during the load only takes over the loaded popularity.
+     */
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void load(long productId, String name, long productPopularity) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringLoad != null && changedDuringLoad.contains(productId)) {
+                addPopularityInternal(productId, productPopularity);
+            } else if (!contains(productId)) {
+                addToDelta(productId, name, productPopularity);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endLoad() {
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = null;
+            merge();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return keyByProductId.size() + deltaByProductId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Products whose name starts with the prefix (case-insensitive), most popular
+     * first; equally popular names are returned in alphabetical order.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String needle = normalize(prefix);
+        if (needle.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        List<Entry> candidates = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            String upperBound = needle + Character.MAX_VALUE;
+            collectTop(lowerBound(needle), lowerBound(upperBound), limit, candidates);
+
+            // the delta is sorted by name, so its matches are ranked with a bounded heap
+            PriorityQueue<Entry> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            for (Entry entry : delta.subSet(new Entry(Long.MIN_VALUE, needle, null, 0), true,
+                    new Entry(Long.MIN_VALUE, upperBound, null, 0), false)) {
+                if (top.size() < limit) {
+                    top.add(entry.copy());
+                } else if (RANKING.compare(entry, top.peek()) < 0) {
+                    top.poll();
+                    top.add(entry.copy());
+                }
+            }
+            candidates.addAll(top);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        candidates.sort(RANKING);
+
+        List<Suggestion> result = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (Entry entry : candidates.subList(0, Math.min(limit, candidates.size()))) {
+            result.add(new Suggestion(entry.productId, entry.name, entry.popularity));
+        }
+        return result;
+    }
+
+    /**
+     * Best-first walk of the segment tree: take the best position of a range,
+     * then continue with the two ranges on either side of it.
+     */
+    private void collectTop(int from, int to, int limit, List<Entry> out) {
+        if (from >= to) {
+            return;
+        }
+
+        PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> compare(a[2], b[2]));
+        ranges.add(new int[] {from, to, bestIn(from, to)});
+
+        while (!ranges.isEmpty() && out.size() < limit) {
+            int[] range = ranges.poll();
+            int best = range[2];
+            if (best < 0 || popularity[best] == DELETED) {
+                return;
+            }
+
+            out.add(new Entry(productIds[best], keys[best], names[best], popularity[best]));
+            if (range[0] < best) {
+                ranges.add(new int[] {range[0], best, bestIn(range[0], best)});
+            }
+            if (best + 1 < range[1]) {
+                ranges.add(new int[] {best + 1, range[1], bestIn(best + 1, range[1])});
+            }
+        }
+    }
+
+    private int bestIn(int from, int to) {
+        int best = -1;
+        for (int left = from + leaves, right = to + leaves; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                best = better(best, tree[left++]);
+            }
+            if ((right & 1) == 1) {
+                best = better(best, tree[--right]);
+            }
+        }
+        return best;
+    }
+
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        return compare(a, b) <= 0 ? a : b;
+    }
+
+    /**
+     * Higher popularity first, then array (= alphabetical) order; empty ranges sort last.
+     */
+    private int compare(int a, int b) {
+        if (a < 0 || b < 0) {
+            return Integer.compare(b, a);
+        }
+        int byPopularity = Long.compare(popularity[b], popularity[a]);
+        return byPopularity != 0 ? byPopularity : Integer.compare(a, b);
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Array position of a live product, found by binary search on its (key, id) pair; -1 if absent.
+     */
+    private int positionOf(long productId) {
+        String key = keyByProductId.get(productId);
+        if (key == null) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int byKey = keys[mid].compareTo(key);
+            int order = byKey != 0 ? byKey : Long.compare(productIds[mid], productId);
+            if (order < 0) {
+                low = mid + 1;
+            } else if (order > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private boolean contains(long productId) {
+        return keyByProductId.containsKey(productId) || deltaByProductId.containsKey(productId);
+    }
+
+    private void addToDelta(long productId, String name, long productPopularity) {
+        Entry entry = new Entry(productId, normalize(name), name, productPopularity);
+        delta.add(entry);
+        deltaByProductId.put(productId, entry);
+    }
+
+    private void addPopularityInternal(long productId, long amount) {
+        Entry entry = deltaByProductId.get(productId);
+        if (entry != null) {
+            // the popularity is part of no ordering of the delta, so it can change in place
+            entry.popularity += amount;
+            return;
+        }
+
+        int position = positionOf(productId);
+        if (position >= 0) {
+            popularity[position] += amount;
+            updateTree(position);
+        }
+    }
+
+    /**
+     * @return the popularity of the removed product, or -1 if it was not indexed
+     */
+    private long removeEntry(long productId) {
+        Entry entry = deltaByProductId.remove(productId);
+        if (entry != null) {
+            delta.remove(entry);
+            return entry.popularity;
+        }
+
+        int position = positionOf(productId);
+        if (position < 0) {
+            return -1;
+        }
+        keyByProductId.remove(productId);
+
+        long previous = popularity[position];
+        popularity[position] = DELETED;
+        names[position] = null;
+        deletedCount++;
+        updateTree(position);
+        return previous;
+    }
+
+    private void updateTree(int position) {
+        for (int node = (position + leaves) >> 1; node >= 1; node >>= 1) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    private void mergeIfNeeded() {
+        if (changedDuringLoad != null) {
+            return;
+        }
+        if (delta.size() >= Math.max(MIN_MERGE_SIZE, size >> 6)
+                || (size >= MIN_COMPACTION_SIZE && deletedCount * 4 >= size)) {
+            merge();
+        }
+    }
+
+    /**
+     * Rebuild the arrays from their live positions and the delta, both already sorted.
+     */
+    private void merge() {
+        int newSize = keyByProductId.size() + delta.size();
+        String[] newKeys = new String[newSize];
+        String[] newNames = new String[newSize];
+        long[] newProductIds = new long[newSize];
+        long[] newPopularity = new long[newSize];
+
+        Iterator<Entry> pending = delta.iterator();
+        Entry next = pending.hasNext() ? pending.next() : null;
+        int position = 0;
+        int target = 0;
+
+        while (target < newSize) {
+            while (position < size && popularity[position] == DELETED) {
+                position++;
+            }
+
+            boolean takeDelta = next != null && (position == size || compareToPosition(next, position) < 0);
+            if (takeDelta) {
+                newKeys[target] = next.key;
+                newNames[target] = next.name;
+                newProductIds[target] = next.productId;
+                newPopularity[target] = next.popularity;
+                keyByProductId.put(next.productId, next.key);
+                next = pending.hasNext() ? pending.next() : null;
+            } else {
+                newKeys[target] = keys[position];
+                newNames[target] = names[position];
+                newProductIds[target] = productIds[position];
+                newPopularity[target] = popularity[position];
+                position++;
+            }
+            target++;
+        }
+
+        keys = newKeys;
+        names = newNames;
+        productIds = newProductIds;
+        popularity = newPopularity;
+        size = newSize;
+        deletedCount = 0;
+        delta.clear();
+        deltaByProductId.clear();
+        buildTree();
+    }
+
+    private int compareToPosition(Entry entry, int position) {
+        int byKey = entry.key.compareTo(keys[position]);
+        return byKey != 0 ? byKey : Long.compare(entry.productId, productIds[position]);
+    }
+
+    private void buildTree() {
+        leaves = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        tree = new int[2 * leaves];
+        for (int i = 0; i < leaves; i++) {
+            tree[leaves + i] = i < size ? i : -1;
+        }
+        for (int node = leaves - 1; node >= 1; node--) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    public record Suggestion(long productId, String name, long popularity) {
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+
+        private final long productId;
+        private final String key;
+        private final String name;
+        private long popularity;
+
+        private Entry(long productId, String key, String name, long popularity) {
+            this.productId = productId;
+            this.key = key;
+            this.name = name;
+            this.popularity = popularity;
+        }
+
+        private Entry copy() {
+            return new Entry(productId, key, name, popularity);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.event.ProductChangeType;
+import com.ecommerce.product.event.ProductChangedEvent;
+import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.repository.projection.ProductPriceView;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the in-memory {@link ProductPriceHistogram} in sync with the products table:
+ * a full build once the application is ready, then one update per committed write.
+ * Until the first build finishes, facet counts are computed by the database.
+ */
+@Component
+@Slf4j
+public class ProductPriceFacetIndexer {
+
+    // width_bucket over a threshold array numbers buckets exactly like ProductPriceHistogram.bucketOf
+    private static final String COUNT_BY_BUCKET_SQL =
+            "SELECT width_bucket(price, ?) AS bucket, count(*) AS products FROM products GROUP BY 1";
+
+    private final ProductPriceHistogram histogram;
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private volatile boolean ready;
+
+    public ProductPriceFacetIndexer(
+            ProductRepository productRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.facets.price.boundaries:10,25,50,100,250,500,1000}") BigDecimal[] boundaries,
+            @Value("${app.facets.price.enabled:true}") boolean enabled
+    ) {
+        this.histogram = new ProductPriceHistogram(boundaries);
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildHistogram() {
+        if (!enabled) {
+            log.info("Price histogram disabled, price facets use the database");
+            return;
+        }
+
+        long start = System.nanoTime();
+        histogram.beginLoad();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductPriceView> prices = productRepository.streamAllPrices()) {
+                    prices.forEach(view -> histogram.load(view.getId(), view.getPrice()));
+                }
+            });
+            ready = true;
+        } catch (RuntimeException ex) {
+            log.error("Failed to build price histogram, price facets keep using the database", ex);
+        } finally {
+            histogram.endLoad();
+        }
+
+        if (ready) {
+            log.info("Price histogram built in {} ms", (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        if (event.getType() == ProductChangeType.DELETED) {
+            histogram.remove(event.getProductId());
+        } else {
+            histogram.put(event.getProductId(), event.getPrice());
+        }
+    }
+
+    public BigDecimal[] getBoundaries() {
+        return histogram.getBoundaries();
+    }
+
+    /**
+     * Product count per price bucket, from memory once the histogram is built.
+     */
+    public long[] countByBucket() {
+        if (ready) {
+            return histogram.counts();
+        }
+
+        BigDecimal[] boundaries = histogram.getBoundaries();
+        long[] counts = new long[boundaries.length + 1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(COUNT_BY_BUCKET_SQL);
+            statement.setArray(1, connection.createArrayOf("numeric", boundaries));
+            return statement;
+        }, rs -> {
+            counts[rs.getInt("bucket")] = rs.getLong("products");
+        });
+        return counts;
+    }
+}
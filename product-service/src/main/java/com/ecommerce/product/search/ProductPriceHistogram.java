@@ -0,0 +1,140 @@
+package com.ecommerce.product.search;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Product counts per price bucket, kept current on every write so facet counts
+ * never need a {@code GROUP BY} over the products table.
+ *
+ * Buckets are delimited by ascending boundaries: bucket 0 holds prices below
+ * the first boundary, bucket i prices in [boundary[i-1], boundary[i]), and the
+ * last bucket everything from the last boundary up. The bucket of every product
+ * is remembered so an update or delete can decrement the right count.
+ */
+public class ProductPriceHistogram {
+
+    private final BigDecimal[] boundaries;
+    private final long[] counts;
+    private final Map<Long, Integer> bucketByProductId = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // products written while a bulk load is running must not be overwritten by it
+    private Set<Long> changedDuringLoad;
+
+    public ProductPriceHistogram(BigDecimal[] boundaries) {
+        this.boundaries = boundaries.clone();
+        Arrays.sort(this.boundaries);
+        this.counts = new long[this.boundaries.length + 1];
+    }
+
+    public void put(long productId, BigDecimal price) {
+        lock.writeLock().lock();
+        try {
+            removeProduct(productId);
+            addProduct(productId, price);
+            if (changedDuringLoad != null) {
+                changedDuringLoad.add(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            removeProduct(productId);
+            if (changedDuringLoad != null) {
+                changedDuringLoad.add(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Start a bulk load. Until {@link #endLoad()} entries added through
+     * {@link #load} never overwrite concurrent {@link #put}/{@link #remove} calls.
+     */
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void load(long productId, BigDecimal price) {
+        lock.writeLock().lock();
+        try {
+            if (!bucketByProductId.containsKey(productId)
+                    && (changedDuringLoad == null || !changedDuringLoad.contains(productId))) {
+                addProduct(productId, price);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endLoad() {
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public BigDecimal[] getBoundaries() {
+        return boundaries.clone();
+    }
+
+    /**
+     * Snapshot of the count of every bucket, one more than there are boundaries.
+     */
+    public long[] counts() {
+        lock.readLock().lock();
+        try {
+            return counts.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Index of the bucket holding the price: the number of boundaries at or below it.
+     */
+    public int bucketOf(BigDecimal price) {
+        int low = 0;
+        int high = boundaries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (boundaries[mid].compareTo(price) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void addProduct(long productId, BigDecimal price) {
+        int bucket = bucketOf(price);
+        bucketByProductId.put(productId, bucket);
+        counts[bucket]++;
+    }
+
+    private void removeProduct(long productId) {
+        Integer bucket = bucketByProductId.remove(productId);
+        if (bucket != null) {
+            counts[bucket]--;
+        }
+    }
+}
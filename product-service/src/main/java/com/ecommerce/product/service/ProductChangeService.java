@@ -0,0 +1,19 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductChangesResponseDTO;
+
+import java.util.Collection;
+
+public interface ProductChangeService {
+
+    /**
+     * Assign the next change versions to the given products, in iteration order.
+     * Must run inside the transaction that writes the products, so versions commit with them.
+     */
+    void recordChanges(Collection<Long> productIds, boolean deleted);
+
+    /**
+     * Changes with a version greater than since, oldest first, at most limit entries
+     */
+    ProductChangesResponseDTO getChangesSince(long since, int limit);
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.product.service;
+
+import java.io.OutputStream;
+
+public interface ProductExportService {
+
+    /**
+     * Write every product as NDJSON (one ProductResponseDTO per line) in ID order.
+     * The output reflects a single snapshot taken when the export starts.
+     */
+    void exportNdjson(OutputStream out);
+}
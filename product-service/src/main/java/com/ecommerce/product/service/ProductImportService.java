@@ -0,0 +1,20 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductImportResponseDTO;
+
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    /**
+     * Import products from an NDJSON stream (one ProductRequestDTO per line).
+     * Records with a SKU update the existing product with that SKU, others are created.
+     */
+    ProductImportResponseDTO importNdjson(InputStream ndjson);
+
+    /**
+     * Import products from CSV with a header row naming the columns (name, price, description, sku).
+     * Same upsert rules as the NDJSON import.
+     */
+    ProductImportResponseDTO importCsv(InputStream csv);
+}
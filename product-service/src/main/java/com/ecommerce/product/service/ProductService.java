@@ -1,11 +1,19 @@
 package com.ecommerce.product.service;
 
+import com.ecommerce.product.dto.ProductBulkResponseDTO;
+import com.ecommerce.product.dto.ProductCursorPageDTO;
+import com.ecommerce.product.dto.ProductPriceFacetsDTO;
 import com.ecommerce.product.dto.ProductRequestDTO;
 import com.ecommerce.product.dto.ProductResponseDTO;
+import com.ecommerce.product.dto.ProductSuggestionDTO;
+import com.ecommerce.product.dto.ProductSummaryDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ProductService {
 
@@ -19,11 +27,36 @@ public interface ProductService {
      */
     Page<ProductResponseDTO> getAllProducts(Pageable pageable);
 
+    /**
+     * Get products priced within the range (either bound may be null) with pagination and sorting
+     */
+    Page<ProductResponseDTO> getProductsByPrice(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
+    /**
+     * Product counts per price bucket across the catalog, from the in-memory histogram
+     */
+    ProductPriceFacetsDTO getPriceFacets();
+
+    /**
+     * Get products after the cursor in id order, without a total count
+     */
+    ProductCursorPageDTO getProductsAfter(String cursor, int size);
+
     /**
      * Get product by ID
      */
     ProductResponseDTO getProductById(Long id);
 
+    /**
+     * Last modification time of a product, read without loading the entity; empty if it does not exist
+     */
+    Optional<LocalDateTime> getProductLastModified(Long id);
+
+    /**
+     * Get name and price for many products in one query, reporting IDs that do not exist
+     */
+    ProductBulkResponseDTO getProductsByIds(List<Long> ids);
+
     /**
      * Update existing product
      */
@@ -35,7 +68,32 @@ public interface ProductService {
     void deleteProduct(Long id);
 
     /**
-     * Search products by name
+     * Search products by name, best matches first, at most limit results
+     */
+    List<ProductResponseDTO> searchProductsByName(String name, int limit);
+
+    /**
+     * Suggest products whose name starts with the prefix, most popular first
+     */
+    List<ProductSuggestionDTO> suggestProducts(String prefix, int limit);
+
+    /**
+     * Count a product detail view towards its autocomplete popularity
+     */
+    void recordProductView(Long id);
+
+    /**
+     * Get id, name and price of all products with pagination, without reading descriptions
+     */
+    Page<ProductSummaryDTO> getProductSummaries(Pageable pageable);
+
+    /**
+     * Get id, name and price of products priced within the range, without reading descriptions
+     */
+    Page<ProductSummaryDTO> getProductSummariesByPrice(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
+    /**
+     * Search products by name like searchProductsByName, returning summaries only
      */
-    List<ProductResponseDTO> searchProductsByName(String name);
+    List<ProductSummaryDTO> searchProductSummariesByName(String name, int limit);
 }
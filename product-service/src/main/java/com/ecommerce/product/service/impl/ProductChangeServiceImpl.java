@@ -0,0 +1,186 @@
+package com.ecommerce.product.service.impl;
+
+import com.ecommerce.product.dto.ProductChangeDTO;
+import com.ecommerce.product.dto.ProductChangesResponseDTO;
+import com.ecommerce.product.dto.ProductResponseDTO;
+import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.entity.ProductChange;
+import com.ecommerce.product.entity.ProductChangePurge;
+import com.ecommerce.product.mapper.ProductMapper;
+import com.ecommerce.product.repository.ProductChangePurgeRepository;
+import com.ecommerce.product.repository.ProductChangeRepository;
+import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.service.ProductChangeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ProductChangeServiceImpl implements ProductChangeService {
+
+    /**
+     * Transaction-scoped advisory lock taken before a version is assigned. Writers hand out
+     * versions one at a time and commit in that order, so a reader that has seen version N
+     * can never later find a smaller version appearing.
+     */
+    private static final long VERSION_LOCK_KEY = 0x70726f6463686eL;
+
+    private static final String VERSION_LOCK_SQL = "SELECT pg_advisory_xact_lock(?)";
+
+    private static final String UPSERT_CHANGE_SQL =
+            "INSERT INTO product_changes (product_id, change_version, deleted, changed_at) VALUES (?, ?, ?, ?) "
+                    + "ON CONFLICT (product_id) DO UPDATE SET change_version = EXCLUDED.change_version, "
+                    + "deleted = EXCLUDED.deleted, changed_at = EXCLUDED.changed_at";
+
+    // products written before the change feed existed get a version once, in id order
+    private static final String BACKFILL_SQL =
+            "INSERT INTO product_changes (product_id, change_version, deleted, changed_at) "
+                    + "SELECT p.id, ? + ROW_NUMBER() OVER (ORDER BY p.id), false, p.updated_at FROM products p "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM product_changes c WHERE c.product_id = p.id)";
+
+    private final ProductChangeRepository productChangeRepository;
+    private final ProductChangePurgeRepository productChangePurgeRepository;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration tombstoneRetention;
+
+    public ProductChangeServiceImpl(
+            ProductChangeRepository productChangeRepository,
+            ProductChangePurgeRepository productChangePurgeRepository,
+            ProductRepository productRepository,
+            ProductMapper productMapper,
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.changes.tombstone-retention:30d}") Duration tombstoneRetention
+    ) {
+        this.productChangeRepository = productChangeRepository;
+        this.productChangePurgeRepository = productChangePurgeRepository;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanges(Collection<Long> productIds, boolean deleted) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        lockVersions();
+        AtomicLong version = new AtomicLong(productChangeRepository.findMaxChangeVersion().orElse(0L));
+        Timestamp now = Timestamp.valueOf(Product.now());
+
+        jdbcTemplate.batchUpdate(UPSERT_CHANGE_SQL, productIds, productIds.size(), (ps, productId) -> {
+            ps.setLong(1, productId);
+            ps.setLong(2, version.incrementAndGet());
+            ps.setBoolean(3, deleted);
+            ps.setTimestamp(4, now);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ProductChangesResponseDTO getChangesSince(long since, int limit) {
+        log.info("Fetching product changes since version: {} limit: {}", since, limit);
+
+        // one extra row tells whether more changes follow
+        List<ProductChange> changes = productChangeRepository
+                .findByChangeVersionGreaterThanOrderByChangeVersionAsc(since, Limit.of(limit + 1));
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+
+        List<Long> liveIds = changes.stream()
+                .filter(change -> !change.isDeleted())
+                .map(ProductChange::getProductId)
+                .toList();
+
+        // same snapshot as the changes, so every live change finds its product
+        Map<Long, ProductResponseDTO> products = productRepository.findAllById(liveIds).stream()
+                .map(productMapper::toDTO)
+                .collect(Collectors.toMap(ProductResponseDTO::getId, Function.identity()));
+
+        List<ProductChangeDTO> result = new ArrayList<>(changes.size());
+        for (ProductChange change : changes) {
+            result.add(ProductChangeDTO.builder()
+                    .version(change.getChangeVersion())
+                    .productId(change.getProductId())
+                    .deleted(change.isDeleted())
+                    .product(change.isDeleted() ? null : products.get(change.getProductId()))
+                    .build());
+        }
+
+        long purgedThrough = productChangePurgeRepository.findById(ProductChangePurge.SINGLETON_ID)
+                .map(ProductChangePurge::getPurgedThrough)
+                .orElse(0L);
+
+        return ProductChangesResponseDTO.builder()
+                .changes(result)
+                .nextSince(changes.isEmpty() ? since : changes.get(changes.size() - 1).getChangeVersion())
+                .hasMore(hasMore)
+                .resyncRequired(since > 0 && since < purgedThrough)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillMissingChanges() {
+        lockVersions();
+        long base = productChangeRepository.findMaxChangeVersion().orElse(0L);
+        int inserted = jdbcTemplate.update(BACKFILL_SQL, base);
+        if (inserted > 0) {
+            log.info("Assigned change versions to {} existing products", inserted);
+        }
+    }
+
+    /**
+     * Drop tombstones older than the retention window and remember the newest purged version,
+     * so clients that fell further behind are told to resync.
+     */
+    @Scheduled(fixedDelayString = "${app.changes.purge-interval:PT1H}", initialDelayString = "PT5M")
+    @Transactional
+    public void purgeExpiredTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(tombstoneRetention);
+
+        productChangeRepository.findMaxExpiredTombstoneVersion(cutoff).ifPresent(maxVersion -> {
+            int purged = productChangeRepository.deleteExpiredTombstones(cutoff);
+
+            ProductChangePurge purge = productChangePurgeRepository.findById(ProductChangePurge.SINGLETON_ID)
+                    .orElseGet(() -> ProductChangePurge.builder()
+                            .id(ProductChangePurge.SINGLETON_ID)
+                            .purgedThrough(0L)
+                            .build());
+            purge.setPurgedThrough(Math.max(purge.getPurgedThrough(), maxVersion));
+            productChangePurgeRepository.save(purge);
+
+            log.info("Purged {} product tombstones up to version {}", purged, maxVersion);
+        });
+    }
+
+    private void lockVersions() {
+        jdbcTemplate.query(VERSION_LOCK_SQL, rs -> null, VERSION_LOCK_KEY);
+    }
+}
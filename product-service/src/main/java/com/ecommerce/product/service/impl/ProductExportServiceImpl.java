@@ -0,0 +1,104 @@
+package com.ecommerce.product.service.impl;
+
+import com.ecommerce.product.dto.ProductResponseDTO;
+import com.ecommerce.product.service.ProductExportService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Service
+public class ProductExportServiceImpl implements ProductExportService {
+
+    private static final String EXPORT_SQL =
+            "SELECT id, name, sku, description, price, created_at, updated_at FROM products ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter productWriter;
+
+    public ProductExportServiceImpl(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${app.export.fetch-size:1000}") int fetchSize
+    ) {
+        // PostgreSQL only streams through a cursor with a fetch size inside a transaction;
+        // otherwise the driver buffers the whole result set
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+
+        // one REPEATABLE READ snapshot for the whole stream, so concurrent writes never show up half way
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        this.objectMapper = objectMapper;
+        // flushing is left to the generator's buffer instead of once per product
+        this.productWriter = objectMapper.writerFor(ProductResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public void exportNdjson(OutputStream out) {
+
+        log.info("Product export started");
+        long start = System.nanoTime();
+
+        long exported = snapshotTransaction.execute(status -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+                // the stream belongs to the servlet container
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+
+                long[] count = {0};
+                jdbcTemplate.query(EXPORT_SQL, rs -> {
+                    ProductResponseDTO product = ProductResponseDTO.builder()
+                            .id(rs.getLong("id"))
+                            .name(rs.getString("name"))
+                            .sku(rs.getString("sku"))
+                            .description(rs.getString("description"))
+                            .price(rs.getBigDecimal("price"))
+                            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                            .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+                            .build();
+                    try {
+                        productWriter.writeValue(generator, product);
+                        generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    count[0]++;
+                });
+
+                generator.flush();
+                return count[0];
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+
+        log.info("Product export finished products={} in {} ms", exported, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,441 @@
+package com.ecommerce.product.service.impl;
+
+import com.ecommerce.common.exception.BusinessException;
+import com.ecommerce.product.config.CacheConfig;
+import com.ecommerce.product.dto.ProductImportErrorDTO;
+import com.ecommerce.product.dto.ProductImportResponseDTO;
+import com.ecommerce.product.dto.ProductRequestDTO;
+import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.event.ProductChangeType;
+import com.ecommerce.product.event.ProductChangedEvent;
+import com.ecommerce.product.service.ProductChangeService;
+import com.ecommerce.product.service.ProductImportService;
+import com.ecommerce.product.util.CsvLineParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    // ids come from the column's own sequence, so they never collide with rows created through the API
+    private static final String NEXT_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('products', 'id')) FROM generate_series(1, ?)";
+
+    // a row with a SKU returns its id, inserted or updated, and xmax is 0 only for a freshly inserted row;
+    // rows without a SKU never conflict (NULLs are distinct) and carry their id in the statement
+    private static final String UPSERT_PRODUCTS_SQL =
+            "INSERT INTO products (id, name, sku, description, price, created_at, updated_at) VALUES ";
+    private static final String SKU_ROW_SQL = "(DEFAULT, ?, ?, ?, ?, ?, ?)";
+    private static final String NEW_ROW_SQL = "(?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_CONFLICT_SQL =
+            " ON CONFLICT (sku) DO UPDATE SET name = EXCLUDED.name, description = EXCLUDED.description, "
+                    + "price = EXCLUDED.price, updated_at = EXCLUDED.updated_at "
+                    + "RETURNING id, sku, xmax = 0 AS inserted";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<CacheManager> cacheManager;
+    private final ProductChangeService productChangeService;
+
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public ProductImportServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            Validator validator,
+            ApplicationEventPublisher eventPublisher,
+            ObjectProvider<CacheManager> cacheManager,
+            ProductChangeService productChangeService,
+            @Value("${app.import.batch-size:500}") int batchSize,
+            @Value("${app.import.max-reported-errors:1000}") int maxReportedErrors
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.productChangeService = productChangeService;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public ProductImportResponseDTO importNdjson(InputStream ndjson) {
+        return importRecords(ndjson, "NDJSON", (line, lineNumber, result) -> {
+            try {
+                return objectMapper.readValue(line, ProductRequestDTO.class);
+            } catch (JsonProcessingException ex) {
+                result.fail(lineNumber, null, "Malformed JSON record");
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public ProductImportResponseDTO importCsv(InputStream csv) {
+        return importRecords(csv, "CSV", new CsvRecordParser());
+    }
+
+    private ProductImportResponseDTO importRecords(InputStream input, String format, RecordParser parser) {
+
+        log.info("Product import started format={} batchSize={}", format, batchSize);
+
+        ImportResult result = new ImportResult(maxReportedErrors);
+        List<PendingProduct> batch = new ArrayList<>(batchSize);
+        Set<String> batchSkus = new HashSet<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (line.isBlank() || parser.isHeader(line, lineNumber)) {
+                    continue;
+                }
+
+                result.total++;
+
+                ProductRequestDTO dto = parser.parse(line, lineNumber, result);
+                if (dto == null || !isValid(dto, lineNumber, result)) {
+                    continue;
+                }
+
+                // one statement may not upsert the same SKU twice, so a repeat starts a new batch
+                if (dto.getSku() != null && !batchSkus.add(dto.getSku())) {
+                    flush(batch, result);
+                    batch.clear();
+                    batchSkus.clear();
+                    batchSkus.add(dto.getSku());
+                }
+
+                batch.add(new PendingProduct(lineNumber, dto));
+
+                if (batch.size() >= batchSize) {
+                    flush(batch, result);
+                    batch.clear();
+                    batchSkus.clear();
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch, result);
+            }
+
+        } catch (IOException ex) {
+            throw new BusinessException("Failed to read import stream", ex);
+        }
+
+        log.info("Product import finished total={} created={} updated={} failed={}",
+                result.total, result.created, result.updated, result.failed);
+
+        return result.toResponse();
+    }
+
+    private boolean isValid(ProductRequestDTO dto, long lineNumber, ImportResult result) {
+
+        if (dto.getSku() != null) {
+            dto.setSku(dto.getSku().isBlank() ? null : dto.getSku().trim());
+        }
+
+        Set<ConstraintViolation<ProductRequestDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return true;
+        }
+
+        String message = violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+        result.fail(lineNumber, dto.getSku(), message);
+        return false;
+    }
+
+    private void flush(List<PendingProduct> batch, ImportResult result) {
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                upsert(batch);
+                productChangeService.recordChanges(batch.stream().map(product -> product.id).toList(), false);
+            });
+            batch.forEach(result::saved);
+            publishChanges(batch);
+
+        } catch (DataIntegrityViolationException ex) {
+            log.warn("Batch upsert of {} products hit a constraint, retrying row by row", batch.size());
+            insertIndividually(batch, result);
+        }
+    }
+
+    /**
+     * Upsert the products with one statement, in the caller's transaction. A product with a SKU
+     * takes its id, and whether it already existed, from the row the statement returns for that
+     * SKU, so both are decided by the same write; one without a SKU is always new and gets an id
+     * from the sequence first.
+     */
+    private void upsert(List<PendingProduct> products) {
+
+        List<PendingProduct> withoutSku = products.stream()
+                .filter(product -> product.request.getSku() == null)
+                .toList();
+        if (!withoutSku.isEmpty()) {
+            Iterator<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, withoutSku.size()).iterator();
+            withoutSku.forEach(product -> {
+                product.id = ids.next();
+                product.existing = false;
+            });
+        }
+
+        String sql = UPSERT_PRODUCTS_SQL
+                + products.stream()
+                        .map(product -> product.request.getSku() != null ? SKU_ROW_SQL : NEW_ROW_SQL)
+                        .collect(Collectors.joining(", "))
+                + UPSERT_CONFLICT_SQL;
+
+        Map<String, PendingProduct> bySku = products.stream()
+                .filter(product -> product.request.getSku() != null)
+                .collect(Collectors.toMap(product -> product.request.getSku(), Function.identity()));
+
+        jdbcTemplate.query(sql, ps -> bind(ps, products), rs -> {
+            String sku = rs.getString("sku");
+            if (sku != null) {
+                PendingProduct product = bySku.get(sku);
+                product.id = rs.getLong("id");
+                product.existing = !rs.getBoolean("inserted");
+            }
+        });
+    }
+
+    private void bind(PreparedStatement ps, List<PendingProduct> products) throws SQLException {
+        Timestamp now = Timestamp.valueOf(Product.now());
+        int index = 0;
+        for (PendingProduct product : products) {
+            if (product.request.getSku() == null) {
+                ps.setLong(++index, product.id);
+            }
+            ps.setString(++index, product.request.getName());
+            ps.setString(++index, product.request.getSku());
+            ps.setString(++index, product.request.getDescription());
+            ps.setBigDecimal(++index, product.request.getPrice());
+            ps.setTimestamp(++index, now);
+            ps.setTimestamp(++index, now);
+        }
+    }
+
+    private void insertIndividually(List<PendingProduct> batch, ImportResult result) {
+
+        List<PendingProduct> saved = new ArrayList<>(batch.size());
+
+        for (PendingProduct product : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    upsert(List.of(product));
+                    productChangeService.recordChanges(List.of(product.id), false);
+                });
+                result.saved(product);
+                saved.add(product);
+            } catch (DataIntegrityViolationException ex) {
+                result.fail(product.line, product.request.getSku(), "Product violates a database constraint");
+            }
+        }
+
+        publishChanges(saved);
+    }
+
+    /**
+     * Keep the name index and the by-id cache in line with rows written outside JPA.
+     */
+    private void publishChanges(List<PendingProduct> saved) {
+
+        Cache cache = cacheManager.getIfAvailable() == null
+                ? null
+                : cacheManager.getIfAvailable().getCache(CacheConfig.PRODUCTS_CACHE);
+
+        for (PendingProduct product : saved) {
+            if (product.existing && cache != null) {
+                cache.evict(product.id);
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.builder()
+                    .type(product.existing ? ProductChangeType.UPDATED : ProductChangeType.CREATED)
+                    .productId(product.id)
+                    .name(product.request.getName())
+                    .price(product.request.getPrice())
+                    .build());
+        }
+    }
+
+    @FunctionalInterface
+    private interface RecordParser {
+
+        ProductRequestDTO parse(String line, long lineNumber, ImportResult result);
+
+        default boolean isHeader(String line, long lineNumber) {
+            return false;
+        }
+    }
+
+    /**
+     * Maps columns by the names in the header row, so column order is free and unknown columns are ignored.
+     */
+    private static final class CsvRecordParser implements RecordParser {
+
+        private Map<String, Integer> columns;
+
+        @Override
+        public boolean isHeader(String line, long lineNumber) {
+            if (columns != null) {
+                return false;
+            }
+
+            columns = new HashMap<>();
+            List<String> header = CsvLineParser.parse(line);
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+
+            if (!columns.containsKey("name") || !columns.containsKey("price")) {
+                throw new BusinessException("CSV header must contain name and price columns");
+            }
+            return true;
+        }
+
+        @Override
+        public ProductRequestDTO parse(String line, long lineNumber, ImportResult result) {
+
+            List<String> fields;
+            try {
+                fields = CsvLineParser.parse(line);
+            } catch (IllegalArgumentException ex) {
+                result.fail(lineNumber, null, "Malformed CSV record");
+                return null;
+            }
+
+            String sku = field(fields, "sku");
+            String price = field(fields, "price");
+
+            ProductRequestDTO dto = ProductRequestDTO.builder()
+                    .name(field(fields, "name"))
+                    .description(field(fields, "description"))
+                    .sku(sku)
+                    .build();
+
+            if (price != null) {
+                try {
+                    dto.setPrice(new BigDecimal(price.trim()));
+                } catch (NumberFormatException ex) {
+                    result.fail(lineNumber, sku, "Invalid price: " + price);
+                    return null;
+                }
+            }
+
+            return dto;
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+                return null;
+            }
+            return fields.get(index);
+        }
+    }
+
+    private static final class PendingProduct {
+
+        private final long line;
+        private final ProductRequestDTO request;
+        private long id;
+        private boolean existing;
+
+        private PendingProduct(long line, ProductRequestDTO request) {
+            this.line = line;
+            this.request = request;
+        }
+    }
+
+    private static final class ImportResult {
+
+        private final int maxReportedErrors;
+        private final List<ProductImportErrorDTO> errors = new ArrayList<>();
+
+        private long total;
+        private long created;
+        private long updated;
+        private long failed;
+
+        private ImportResult(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void saved(PendingProduct product) {
+            if (product.existing) {
+                updated++;
+            } else {
+                created++;
+            }
+        }
+
+        private void fail(long line, String sku, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(ProductImportErrorDTO.builder()
+                        .line(line)
+                        .sku(sku)
+                        .message(message)
+                        .build());
+            }
+        }
+
+        private ProductImportResponseDTO toResponse() {
+            return ProductImportResponseDTO.builder()
+                    .totalRecords(total)
+                    .createdCount(created)
+                    .updatedCount(updated)
+                    .failedCount(failed)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+    }
+}
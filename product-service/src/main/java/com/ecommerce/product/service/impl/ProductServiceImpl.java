@@ -1,24 +1,59 @@
 package com.ecommerce.product.service.impl;
 
+import com.ecommerce.product.config.CacheConfig;
+import com.ecommerce.product.dto.PriceFacetBucketDTO;
+import com.ecommerce.product.dto.ProductBulkItemDTO;
+import com.ecommerce.product.dto.ProductBulkResponseDTO;
+import com.ecommerce.product.dto.ProductCursorPageDTO;
+import com.ecommerce.product.dto.ProductPriceFacetsDTO;
 import com.ecommerce.product.dto.ProductRequestDTO;
 import com.ecommerce.product.dto.ProductResponseDTO;
+import com.ecommerce.product.dto.ProductSuggestionDTO;
+import com.ecommerce.product.dto.ProductSummaryDTO;
 import com.ecommerce.product.entity.Product;
+import com.ecommerce.product.event.ProductChangeType;
+import com.ecommerce.product.event.ProductChangedEvent;
 import com.ecommerce.product.mapper.ProductMapper;
 import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.search.ProductAutocompleteIndexer;
+import com.ecommerce.product.search.ProductNameIndexer;
+import com.ecommerce.product.search.ProductPriceFacetIndexer;
+import com.ecommerce.product.service.ProductChangeService;
 import com.ecommerce.product.service.ProductService;
+import com.ecommerce.product.util.DuplicateSkuErrors;
+import com.ecommerce.product.util.ProductCursor;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+import com.ecommerce.common.exception.BusinessException;
 import com.ecommerce.common.exception.ResourceNotFoundException;
 
 @Service
@@ -27,15 +62,23 @@ import com.ecommerce.common.exception.ResourceNotFoundException;
 @Transactional
 public class ProductServiceImpl implements ProductService {
 
+    static final int MAX_BULK_IDS = 500;
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ProductNameIndexer productNameIndexer;
+    private final ProductAutocompleteIndexer productAutocompleteIndexer;
+    private final ProductPriceFacetIndexer productPriceFacetIndexer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductChangeService productChangeService;
 
     @Override
     public ProductResponseDTO createProduct(ProductRequestDTO requestDTO) {
         log.info("Creating new product with name: {}", requestDTO.getName());
 
         Product product = productMapper.toEntity(requestDTO);
-        Product savedProduct = productRepository.save(product);
+        Product savedProduct = saveUnique(product);
+        publishChange(ProductChangeType.CREATED, savedProduct);
 
         log.info("Product created successfully with ID: {}", savedProduct.getId());
         return productMapper.toDTO(savedProduct);
@@ -52,6 +95,64 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional(readOnly = true)
+    public Page<ProductResponseDTO> getProductsByPrice(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        validatePriceRange(minPrice, maxPrice);
+        log.info("Fetching products priced {} - {} with pagination: {}", minPrice, maxPrice, pageable);
+
+        return productRepository.findByPriceRange(minPrice, maxPrice, pageable).map(productMapper::toDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPriceFacetsDTO getPriceFacets() {
+        BigDecimal[] boundaries = productPriceFacetIndexer.getBoundaries();
+        long[] counts = productPriceFacetIndexer.countByBucket();
+
+        List<PriceFacetBucketDTO> buckets = new ArrayList<>(counts.length);
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(PriceFacetBucketDTO.builder()
+                    .min(i == 0 ? null : boundaries[i - 1])
+                    .max(i == boundaries.length ? null : boundaries[i])
+                    .count(counts[i])
+                    .build());
+            total += counts[i];
+        }
+
+        return ProductPriceFacetsDTO.builder()
+                .buckets(buckets)
+                .total(total)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductCursorPageDTO getProductsAfter(String cursor, int size) {
+        long lastId = ProductCursor.decode(cursor);
+        log.info("Fetching products after ID: {} size: {}", lastId, size);
+
+        // one extra row tells whether another page exists without counting
+        List<Product> products = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(size + 1));
+        boolean hasNext = products.size() > size;
+        if (hasNext) {
+            products = products.subList(0, size);
+        }
+
+        List<ProductResponseDTO> content = products.stream()
+                .map(productMapper::toDTO)
+                .collect(Collectors.toList());
+
+        return ProductCursorPageDTO.builder()
+                .content(content)
+                .size(content.size())
+                .nextCursor(hasNext ? ProductCursor.encode(products.get(products.size() - 1).getId()) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id", sync = true)
     public ProductResponseDTO getProductById(Long id) {
         log.info("Fetching product with ID: {}", id);
 
@@ -65,6 +166,44 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getProductLastModified(Long id) {
+        return productRepository.findUpdatedAtById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductBulkResponseDTO getProductsByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > MAX_BULK_IDS) {
+            throw new BusinessException("At most " + MAX_BULK_IDS + " product IDs can be requested at once");
+        }
+
+        log.info("Fetching {} products by ID", requested.size());
+
+        Map<Long, ProductBulkItemDTO> products = new LinkedHashMap<>();
+        for (Product product : productRepository.findAllById(requested)) {
+            products.put(product.getId(), ProductBulkItemDTO.builder()
+                    .name(product.getName())
+                    .price(product.getPrice())
+                    .build());
+        }
+
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            if (!products.containsKey(id)) {
+                missingIds.add(id);
+            }
+        }
+
+        return ProductBulkResponseDTO.builder()
+                .products(products)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public ProductResponseDTO updateProduct(Long id, ProductRequestDTO requestDTO) {
         log.info("Updating product with ID: {}", id);
 
@@ -75,14 +214,16 @@ public class ProductServiceImpl implements ProductService {
                 });
 
         productMapper.updateEntityFromDTO(requestDTO, product);
-        product.setUpdatedAt(LocalDateTime.now());
-        Product updatedProduct = productRepository.save(product);
+        product.setUpdatedAt(Product.now());
+        Product updatedProduct = saveUnique(product);
+        publishChange(ProductChangeType.UPDATED, updatedProduct);
 
         log.info("Product updated successfully with ID: {}", id);
         return productMapper.toDTO(updatedProduct);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public void deleteProduct(Long id) {
         log.info("Deleting product with ID: {}", id);
 
@@ -92,17 +233,132 @@ public class ProductServiceImpl implements ProductService {
         }
 
         productRepository.deleteById(id);
+        productChangeService.recordChanges(List.of(id), true);
+        eventPublisher.publishEvent(ProductChangedEvent.builder()
+                .type(ProductChangeType.DELETED)
+                .productId(id)
+                .build());
         log.info("Product deleted successfully with ID: {}", id);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductResponseDTO> searchProductsByName(String name) {
-        log.info("Searching products by name: {}", name);
+    public List<ProductResponseDTO> searchProductsByName(String name, int limit) {
+        log.info("Searching products by name: {} limit: {}", name, limit);
+
+        Optional<List<Long>> rankedIds = productNameIndexer.search(name, limit);
+        if (rankedIds.isEmpty()) {
+            List<Product> products = productRepository.findByNameContainingIgnoreCase(
+                    name, PageRequest.of(0, limit, Sort.by("id")));
+            return products.stream()
+                    .map(productMapper::toDTO)
+                    .collect(Collectors.toList());
+        }
 
-        List<Product> products = productRepository.findByNameContainingIgnoreCase(name);
-        return products.stream()
+        // the index may briefly return a product deleted after the lookup; findAllById just skips it
+        List<Long> ids = rankedIds.get();
+        return inRankOrder(ids, productRepository.findAllById(ids), Product::getId).stream()
                 .map(productMapper::toDTO)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSuggestionDTO> suggestProducts(String prefix, int limit) {
+        log.debug("Suggesting products for prefix: {} limit: {}", prefix, limit);
+
+        // served from memory; the database is only read until the index is built
+        return productAutocompleteIndexer.suggest(prefix, limit)
+                .map(suggestions -> suggestions.stream()
+                        .map(suggestion -> ProductSuggestionDTO.builder()
+                                .id(suggestion.productId())
+                                .name(suggestion.name())
+                                .build())
+                        .collect(Collectors.toList()))
+                .orElseGet(() -> productRepository.findSuggestionsByNamePrefix(prefix.trim(), Limit.of(limit)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void recordProductView(Long id) {
+        productAutocompleteIndexer.recordView(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryDTO> getProductSummaries(Pageable pageable) {
+        log.info("Fetching product summaries with pagination: {}", pageable);
+
+        return productRepository.findAllSummaries(pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryDTO> getProductSummariesByPrice(BigDecimal minPrice, BigDecimal maxPrice,
+                                                              Pageable pageable) {
+        validatePriceRange(minPrice, maxPrice);
+        log.info("Fetching product summaries priced {} - {} with pagination: {}", minPrice, maxPrice, pageable);
+
+        return productRepository.findSummariesByPriceRange(minPrice, maxPrice, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSummaryDTO> searchProductSummariesByName(String name, int limit) {
+        log.info("Searching product summaries by name: {} limit: {}", name, limit);
+
+        Optional<List<Long>> rankedIds = productNameIndexer.search(name, limit);
+        if (rankedIds.isEmpty()) {
+            return productRepository.findSummariesByNameContaining(name, PageRequest.of(0, limit, Sort.by("id")));
+        }
+
+        List<Long> ids = rankedIds.get();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return inRankOrder(ids, productRepository.findSummariesByIdIn(ids), ProductSummaryDTO::getId);
+    }
+
+    private static <T> List<T> inRankOrder(List<Long> rankedIds, List<T> items, Function<T, Long> idOf) {
+        Map<Long, Integer> rank = new HashMap<>(rankedIds.size() * 2);
+        for (int i = 0; i < rankedIds.size(); i++) {
+            rank.put(rankedIds.get(i), i);
+        }
+
+        List<T> ordered = new ArrayList<>(items);
+        ordered.sort(Comparator.comparing(item -> rank.get(idOf.apply(item))));
+        return ordered;
+    }
+
+    private static void validatePriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new BusinessException("minPrice must not be greater than maxPrice");
+        }
+    }
+
+    /**
+     * Flush immediately so a duplicate SKU surfaces as a business error rather than at commit;
+     * any other constraint violation is rethrown as it is.
+     */
+    private Product saveUnique(Product product) {
+        try {
+            return productRepository.saveAndFlush(product);
+        } catch (DataIntegrityViolationException ex) {
+            if (product.getSku() == null || !DuplicateSkuErrors.isDuplicateSku(ex)) {
+                throw ex;
+            }
+            log.warn("Duplicate SKU rejected: {}", product.getSku());
+            throw new BusinessException("Product SKU already exists: " + product.getSku());
+        }
+    }
+
+    private void publishChange(ProductChangeType type, Product product) {
+        productChangeService.recordChanges(List.of(product.getId()), false);
+        eventPublisher.publishEvent(ProductChangedEvent.builder()
+                .type(type)
+                .productId(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .build());
+    }
 }
@@ -0,0 +1,35 @@
+package com.ecommerce.product.util;
+
+import lombok.experimental.UtilityClass;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+@UtilityClass
+public class DuplicateSkuErrors {
+
+    private static final Pattern CONSTRAINT_NAME = Pattern.compile("sku");
+    private static final Pattern MESSAGE_COLUMN = Pattern.compile("\\(\\s*sku\\b");
+
+    /**
+     * Whether the violation is the unique index on products.sku. A named index (idx_product_sku)
+     * identifies it directly, otherwise the key column is read from the driver message,
+     * e.g. "Key (sku)=(...)"; NOT NULL, length and other violations are not.
+     */
+    public static boolean isDuplicateSku(DataIntegrityViolationException ex) {
+
+        if (ex.getCause() instanceof ConstraintViolationException constraintViolation
+                && constraintViolation.getConstraintName() != null
+                && CONSTRAINT_NAME.matcher(constraintViolation.getConstraintName().toLowerCase(Locale.ROOT)).find()) {
+            return true;
+        }
+
+        String message = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+        return message != null
+                && message.toLowerCase(Locale.ROOT).contains("unique")
+                && MESSAGE_COLUMN.matcher(message.toLowerCase(Locale.ROOT)).find();
+    }
+}
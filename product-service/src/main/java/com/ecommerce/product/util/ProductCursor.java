@@ -0,0 +1,42 @@
+package com.ecommerce.product.util;
+
+import com.ecommerce.common.exception.BusinessException;
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination over products ordered by id.
+ * Clients must pass it back unchanged; the encoding is free to change.
+ */
+@UtilityClass
+public class ProductCursor {
+
+    private static final String PREFIX = "id:";
+
+    public static String encode(long lastId) {
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Last product id seen by the client, or 0 to start from the beginning when no cursor is given.
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (raw.startsWith(PREFIX)) {
+                return Long.parseLong(raw.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException ex) {
+            // falls through to the invalid cursor error below
+        }
+
+        throw new BusinessException("Invalid cursor: " + cursor);
+    }
+}
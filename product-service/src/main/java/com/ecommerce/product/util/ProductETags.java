@@ -0,0 +1,78 @@
+package com.ecommerce.product.util;
+
+import com.ecommerce.product.dto.ProductResponseDTO;
+import com.ecommerce.product.dto.ProductSummaryDTO;
+import lombok.experimental.UtilityClass;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Strong validators for product representations. updatedAt changes on every write
+ * (JPA and bulk import alike), so id + updatedAt identifies one version of a product.
+ */
+@UtilityClass
+public class ProductETags {
+
+    /**
+     * A sparse fieldset is a different representation, so it gets its own tag.
+     */
+    public static String forProduct(Long id, LocalDateTime updatedAt, Set<String> fields) {
+        String version = id + "-" + Long.toHexString(toEpochMicros(updatedAt));
+        if (!fields.isEmpty()) {
+            version += "-" + Integer.toHexString(fields.hashCode());
+        }
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * ETag of a list: digest of the version of every product in it plus the list metadata
+     * (page number, totals, cursor) that is part of the response body.
+     */
+    public static String forProducts(Collection<ProductResponseDTO> products, Object... metadata) {
+        StringBuilder versions = metadata(products.size(), metadata);
+        for (ProductResponseDTO product : products) {
+            versions.append(product.getId()).append(':')
+                    .append(toEpochMicros(product.getUpdatedAt())).append(',');
+        }
+        return digest(versions);
+    }
+
+    /**
+     * Summaries carry no timestamp, so their own fields stand in for the version.
+     */
+    public static String forSummaries(Collection<ProductSummaryDTO> products, Object... metadata) {
+        StringBuilder versions = metadata(products.size(), metadata);
+        for (ProductSummaryDTO product : products) {
+            versions.append(product.getId()).append(':')
+                    .append(product.getName()).append(':')
+                    .append(product.getPrice()).append(',');
+        }
+        return digest(versions);
+    }
+
+    public static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static StringBuilder metadata(int size, Object... metadata) {
+        StringBuilder versions = new StringBuilder(size * 24);
+        for (Object value : metadata) {
+            versions.append(value).append(';');
+        }
+        return versions;
+    }
+
+    private static String digest(StringBuilder versions) {
+        return "\"l-" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private static long toEpochMicros(LocalDateTime dateTime) {
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), dateTime);
+    }
+}
@@ -0,0 +1,4 @@
+-- Optional business key used by bulk imports to upsert products
+ALTER TABLE products ADD COLUMN IF NOT EXISTS sku VARCHAR(64);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_product_sku ON products(sku);
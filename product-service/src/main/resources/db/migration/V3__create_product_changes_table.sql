@@ -0,0 +1,15 @@
+-- Change feed: latest change version per product, deletes kept as tombstones
+CREATE TABLE IF NOT EXISTS product_changes (
+    product_id BIGINT PRIMARY KEY,
+    change_version BIGINT NOT NULL,
+    deleted BOOLEAN NOT NULL,
+    changed_at TIMESTAMP NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_product_change_version ON product_changes(change_version);
+
+-- Highest change version whose tombstone has been purged
+CREATE TABLE IF NOT EXISTS product_change_purges (
+    id INTEGER PRIMARY KEY,
+    purged_through BIGINT NOT NULL
+);
@@ -0,0 +1,5 @@
+-- Autocomplete ranking signal, incremented in batches from product detail views
+ALTER TABLE products ADD COLUMN IF NOT EXISTS popularity BIGINT NOT NULL DEFAULT 0;
+
+-- Prefix lookups for the autocomplete fallback used while the in-memory index is building
+CREATE INDEX IF NOT EXISTS idx_product_name_prefix ON products(lower(name) text_pattern_ops);
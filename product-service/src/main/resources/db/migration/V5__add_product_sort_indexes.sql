@@ -0,0 +1,7 @@
+-- Price range filters and price/name ordering of the product list; id makes each order unique
+CREATE INDEX IF NOT EXISTS idx_product_price_id ON products(price, id);
+CREATE INDEX IF NOT EXISTS idx_product_name_id ON products(name, id);
+
+-- the single-column indexes these replace are prefixes of them
+DROP INDEX IF EXISTS idx_product_price;
+DROP INDEX IF EXISTS idx_product_name;
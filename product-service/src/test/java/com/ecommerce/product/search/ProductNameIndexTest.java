@@ -0,0 +1,161 @@
+package com.ecommerce.product.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ProductNameIndex Test Suite")
+class ProductNameIndexTest {
+
+    private ProductNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductNameIndex();
+        index.put(1L, "Wireless Mouse");
+        index.put(2L, "Mouse Pad");
+        index.put(3L, "Gaming Mousepad XL");
+        index.put(4L, "USB Keyboard");
+        index.put(5L, "mouse");
+    }
+
+    @Nested
+    @DisplayName("Search Tests")
+    class SearchTests {
+
+        @Test
+        @DisplayName("shouldRankExactThenPrefixThenWordThenSubstring")
+        void shouldRankExactThenPrefixThenWordThenSubstring() {
+            index.put(6L, "Micemouse Trap");
+
+            assertEquals(List.of(5L, 2L, 1L, 3L, 6L), index.search("MOUSE", 10));
+        }
+
+        @Test
+        @DisplayName("shouldMatchCaseInsensitiveSubstrings")
+        void shouldMatchCaseInsensitiveSubstrings() {
+            assertEquals(List.of(4L), index.search("b keyb", 10));
+            assertEquals(List.of(3L), index.search("pad x", 10));
+        }
+
+        @Test
+        @DisplayName("shouldMatchSurroundingSpaces_likeTheDatabase")
+        void shouldMatchSurroundingSpaces_likeTheDatabase() {
+            assertEquals(List.of(2L), index.search(" pad", 10));
+            assertEquals(List.of(2L), index.search("mouse ", 10));
+            assertEquals(Set.of(1L, 3L), Set.copyOf(index.search(" mouse", 10)));
+        }
+
+        @Test
+        @DisplayName("shouldReturnEmpty_whenAnyGramIsMissing")
+        void shouldReturnEmpty_whenAnyGramIsMissing() {
+            assertTrue(index.search("mouse pads", 10).isEmpty());
+            assertTrue(index.search("", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("shouldHandleQueriesShorterThanAGram")
+        void shouldHandleQueriesShorterThanAGram() {
+            assertEquals(List.of(4L), index.search("us", 10).subList(0, 1));
+            assertEquals(5, index.search("o", 10).size());
+        }
+
+        @Test
+        @DisplayName("shouldKeepOnlyTheBestMatches_whenLimitIsReached")
+        void shouldKeepOnlyTheBestMatches_whenLimitIsReached() {
+            assertEquals(List.of(5L, 2L), index.search("mouse", 2));
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("shouldReplaceName_whenProductIsUpdated")
+        void shouldReplaceName_whenProductIsUpdated() {
+            index.put(4L, "Mechanical Mouse");
+
+            assertTrue(index.search("keyboard", 10).isEmpty());
+            assertTrue(index.search("mechanical", 10).contains(4L));
+            assertEquals(5, index.size());
+        }
+
+        @Test
+        @DisplayName("shouldStopMatching_whenProductIsRemoved")
+        void shouldStopMatching_whenProductIsRemoved() {
+            index.remove(5L);
+            index.remove(42L);
+
+            assertEquals(List.of(2L, 1L, 3L), index.search("mouse", 10));
+            assertEquals(4, index.size());
+        }
+
+        @Test
+        @DisplayName("shouldNotResurrectProducts_changedDuringLoad")
+        void shouldNotResurrectProducts_changedDuringLoad() {
+            ProductNameIndex loading = new ProductNameIndex();
+            loading.beginLoad();
+            loading.put(1L, "Renamed Lamp");
+            loading.remove(2L);
+
+            loading.load(1L, "Old Lamp");
+            loading.load(2L, "Desk Lamp");
+            loading.load(3L, "Floor Lamp");
+            loading.endLoad();
+
+            assertEquals(List.of(3L, 1L), loading.search("lamp", 10));
+        }
+
+        @Test
+        @DisplayName("shouldStayBounded_whenTheSameProductIsPutRepeatedly")
+        void shouldStayBounded_whenTheSameProductIsPutRepeatedly() {
+            for (int i = 0; i < 10_000; i++) {
+                index.put(7L, "Desk Lamp " + i);
+            }
+
+            assertTrue(index.documentCount() < 2 * 1024);
+            assertEquals(6, index.size());
+            assertEquals(List.of(7L), index.search("lamp 9999", 10));
+            assertEquals(List.of(5L, 2L, 1L, 3L), index.search("mouse", 10));
+        }
+
+        @Test
+        @DisplayName("shouldMatchBruteForce_afterCompaction")
+        void shouldMatchBruteForce_afterCompaction() {
+            ProductNameIndex large = new ProductNameIndex();
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < 4000; i++) {
+                String name = "Item " + Integer.toString(i * 7919, 36);
+                names.add(name);
+                large.put(i, name);
+            }
+            for (int i = 0; i < 4000; i += 2) {
+                large.remove(i);
+            }
+
+            for (String query : List.of("a1", "em 1", "1z")) {
+                List<Long> expected = new ArrayList<>();
+                for (int i = 1; i < 4000; i += 2) {
+                    if (names.get(i).toLowerCase(Locale.ROOT).contains(query)) {
+                        expected.add((long) i);
+                    }
+                }
+
+                List<Long> actual = new ArrayList<>(large.search(query.toUpperCase(Locale.ROOT), 4000));
+                actual.sort(null);
+                assertEquals(expected, actual);
+            }
+            assertEquals(2000, large.size());
+        }
+    }
+}
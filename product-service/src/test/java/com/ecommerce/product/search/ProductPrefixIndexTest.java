@@ -0,0 +1,172 @@
+package com.ecommerce.product.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ProductPrefixIndex Test Suite")
+class ProductPrefixIndexTest {
+
+    private ProductPrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductPrefixIndex();
+        index.beginLoad();
+        index.load(1L, "Laptop", 5);
+        index.load(2L, "Laptop Stand", 50);
+        index.load(3L, "Lamp", 20);
+        index.load(4L, "Gaming Laptop", 100);
+        index.load(5L, "laptop bag", 5);
+        index.endLoad();
+    }
+
+    private static List<Long> ids(List<ProductPrefixIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(ProductPrefixIndex.Suggestion::productId).toList();
+    }
+
+    @Nested
+    @DisplayName("Suggest Tests")
+    class SuggestTests {
+
+        @Test
+        @DisplayName("shouldRankByPopularityThenName")
+        void shouldRankByPopularityThenName() {
+            assertEquals(List.of(2L, 3L, 1L, 5L), ids(index.suggest("LA", 10)));
+            assertEquals(List.of(2L, 1L, 5L), ids(index.suggest(" lapt", 10)));
+        }
+
+        @Test
+        @DisplayName("shouldMatchNamePrefixOnly")
+        void shouldMatchNamePrefixOnly() {
+            assertEquals(List.of(4L), ids(index.suggest("gam", 10)));
+            assertTrue(index.suggest("top", 10).isEmpty());
+            assertTrue(index.suggest("", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("shouldReturnOriginalNames")
+        void shouldReturnOriginalNames() {
+            ProductPrefixIndex.Suggestion suggestion = index.suggest("gaming", 1).get(0);
+
+            assertEquals("Gaming Laptop", suggestion.name());
+            assertEquals(100, suggestion.popularity());
+        }
+
+        @Test
+        @DisplayName("shouldKeepOnlyTheTopK_whenLimitIsReached")
+        void shouldKeepOnlyTheTopK_whenLimitIsReached() {
+            assertEquals(List.of(2L, 3L), ids(index.suggest("la", 2)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("shouldReorder_whenPopularityChanges")
+        void shouldReorder_whenPopularityChanges() {
+            index.addPopularity(5L, 100);
+            index.put(6L, "Laptop Sleeve");
+            index.addPopularity(6L, 30);
+
+            assertEquals(List.of(5L, 2L, 6L, 1L), ids(index.suggest("lap", 10)));
+        }
+
+        @Test
+        @DisplayName("shouldKeepPopularity_whenProductIsRenamed")
+        void shouldKeepPopularity_whenProductIsRenamed() {
+            index.put(4L, "Lightweight Laptop");
+
+            assertTrue(index.suggest("gam", 10).isEmpty());
+            assertEquals(List.of(4L, 2L), ids(index.suggest("l", 2)));
+            assertEquals(5, index.size());
+        }
+
+        @Test
+        @DisplayName("shouldStopSuggesting_whenProductIsRemoved")
+        void shouldStopSuggesting_whenProductIsRemoved() {
+            index.remove(2L);
+            index.remove(42L);
+
+            assertEquals(List.of(3L, 1L, 5L), ids(index.suggest("la", 10)));
+            assertEquals(4, index.size());
+        }
+
+        @Test
+        @DisplayName("shouldNotOverwriteWrites_madeDuringLoad")
+        void shouldNotOverwriteWrites_madeDuringLoad() {
+            ProductPrefixIndex loading = new ProductPrefixIndex();
+            loading.beginLoad();
+            loading.put(1L, "Renamed Desk");
+            loading.remove(2L);
+
+            loading.load(1L, "Old Desk", 7);
+            loading.load(2L, "Desk Lamp", 9);
+            loading.load(3L, "Desk Chair", 3);
+            loading.endLoad();
+
+            assertEquals(List.of(3L), ids(loading.suggest("desk", 10)));
+            assertEquals(7, loading.suggest("renamed", 1).get(0).popularity());
+        }
+
+        @Test
+        @DisplayName("shouldMatchBruteForce_acrossMerges")
+        void shouldMatchBruteForce_acrossMerges() {
+            ProductPrefixIndex large = new ProductPrefixIndex();
+            Map<Long, String> names = new HashMap<>();
+            Map<Long, Long> popularity = new HashMap<>();
+            Random random = new Random(42);
+
+            for (long id = 0; id < 5000; id++) {
+                String name = "Item " + Long.toString(id * 7919, 36);
+                names.put(id, name);
+                popularity.put(id, 0L);
+                large.put(id, name);
+            }
+            for (int i = 0; i < 20000; i++) {
+                long id = random.nextInt(5000);
+                if (!names.containsKey(id)) {
+                    continue;
+                }
+                if (i % 10 == 0) {
+                    large.remove(id);
+                    names.remove(id);
+                } else {
+                    long views = random.nextInt(5);
+                    large.addPopularity(id, views);
+                    popularity.merge(id, views, Long::sum);
+                }
+            }
+
+            for (String query : List.of("i", "item 1", "ITEM 2Z", "item zz")) {
+                List<ProductPrefixIndex.Suggestion> actual = large.suggest(query, 25);
+                List<Long> expected = names.entrySet().stream()
+                        .filter(entry -> entry.getValue().toLowerCase(Locale.ROOT)
+                                .startsWith(query.toLowerCase(Locale.ROOT)))
+                        .map(Map.Entry::getKey)
+                        .sorted(Comparator
+                                .comparing((Long id) -> -popularity.get(id))
+                                .thenComparing(id -> names.get(id).toLowerCase(Locale.ROOT))
+                                .thenComparing(id -> id))
+                        .limit(25)
+                        .toList();
+
+                assertEquals(expected, ids(actual));
+            }
+            assertEquals(names.size(), large.size());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.product.search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ProductPriceHistogram Test Suite")
+class ProductPriceHistogramTest {
+
+    private ProductPriceHistogram histogram;
+
+    @BeforeEach
+    void setUp() {
+        histogram = new ProductPriceHistogram(new BigDecimal[] {
+                new BigDecimal("100"), new BigDecimal("10"), new BigDecimal("50")});
+    }
+
+    @Test
+    @DisplayName("shouldPutBoundaryPricesInTheUpperBucket")
+    void shouldPutBoundaryPricesInTheUpperBucket() {
+        assertEquals(0, histogram.bucketOf(new BigDecimal("9.99")));
+        assertEquals(1, histogram.bucketOf(new BigDecimal("10.00")));
+        assertEquals(2, histogram.bucketOf(new BigDecimal("99.99")));
+        assertEquals(3, histogram.bucketOf(new BigDecimal("100")));
+    }
+
+    @Test
+    @DisplayName("shouldMoveProductBetweenBuckets_whenPriceChanges")
+    void shouldMoveProductBetweenBuckets_whenPriceChanges() {
+        histogram.put(1L, new BigDecimal("5"));
+        histogram.put(2L, new BigDecimal("75"));
+        histogram.put(1L, new BigDecimal("60"));
+
+        assertArrayEquals(new long[] {0, 0, 2, 0}, histogram.counts());
+    }
+
+    @Test
+    @DisplayName("shouldDecrementBucket_whenProductIsRemoved")
+    void shouldDecrementBucket_whenProductIsRemoved() {
+        histogram.put(1L, new BigDecimal("500"));
+        histogram.remove(1L);
+        histogram.remove(42L);
+
+        assertArrayEquals(new long[] {0, 0, 0, 0}, histogram.counts());
+    }
+
+    @Test
+    @DisplayName("shouldNotOverwriteWrites_madeDuringLoad")
+    void shouldNotOverwriteWrites_madeDuringLoad() {
+        histogram.beginLoad();
+        histogram.put(1L, new BigDecimal("20"));
+        histogram.remove(2L);
+
+        histogram.load(1L, new BigDecimal("1"));
+        histogram.load(2L, new BigDecimal("1"));
+        histogram.load(3L, new BigDecimal("150"));
+        histogram.endLoad();
+
+        assertArrayEquals(new long[] {0, 1, 0, 1}, histogram.counts());
+    }
+}
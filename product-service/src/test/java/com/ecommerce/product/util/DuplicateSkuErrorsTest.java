@@ -0,0 +1,46 @@
+package com.ecommerce.product.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+@DisplayName("DuplicateSkuErrors Test Suite")
+class DuplicateSkuErrorsTest {
+
+    @Test
+    @DisplayName("shouldRecognizeTheSkuIndex_byConstraintName")
+    void shouldRecognizeTheSkuIndex_byConstraintName() {
+        assertTrue(DuplicateSkuErrors.isDuplicateSku(violation(
+                "duplicate key value violates unique constraint \"idx_product_sku\"", "idx_product_sku")));
+    }
+
+    @Test
+    @DisplayName("shouldRecognizeTheSkuIndex_byDriverMessage")
+    void shouldRecognizeTheSkuIndex_byDriverMessage() {
+        assertTrue(DuplicateSkuErrors.isDuplicateSku(violation("duplicate key value violates unique constraint "
+                + "\"uk_products_3fa9\"\n  Detail: Key (sku)=(LAP-001) already exists.", "uk_products_3fa9")));
+        assertTrue(DuplicateSkuErrors.isDuplicateSku(violation("Unique index or primary key violation: "
+                + "\"PUBLIC.UK_3FA9_INDEX_F ON PUBLIC.PRODUCTS(SKU NULLS FIRST) VALUES ('LAP-001')\"", null)));
+    }
+
+    @Test
+    @DisplayName("shouldNotTreatOtherViolations_asDuplicateSku")
+    void shouldNotTreatOtherViolations_asDuplicateSku() {
+        assertFalse(DuplicateSkuErrors.isDuplicateSku(violation(
+                "null value in column \"name\" of relation \"products\" violates not-null constraint", null)));
+        assertFalse(DuplicateSkuErrors.isDuplicateSku(violation(
+                "value too long for type character varying(100)", null)));
+    }
+
+    private static DataIntegrityViolationException violation(String message, String constraintName) {
+        SQLException cause = new SQLException(message);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", cause, constraintName));
+    }
+}